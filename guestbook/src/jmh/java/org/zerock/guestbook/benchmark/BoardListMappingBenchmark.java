@@ -0,0 +1,115 @@
+package org.zerock.guestbook.benchmark;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.zerock.guestbook.GuestbookApplication;
+import org.zerock.guestbook.dto.BoardDTO;
+import org.zerock.guestbook.entity.Board;
+import org.zerock.guestbook.entity.Member;
+import org.zerock.guestbook.entity.QBoard;
+import org.zerock.guestbook.entity.QMember;
+import org.zerock.guestbook.load.LoadDataGenerator;
+import org.zerock.guestbook.repository.BoardRepository;
+import org.zerock.guestbook.service.BoardService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// 게시글 목록 한 페이지를 읽는 두 방식의 시간/할당량 비교 (내장 H2)
+// entityTuple: 이전 방식. [Board, Member] 엔티티 튜플 -> Object[] -> Function 으로 BoardDTO 변환
+// dtoProjection: 현재 방식. 생성자 projection 으로 BoardDTO 를 바로 조회
+// ./gradlew jmh 실행 후 gc.alloc.rate.norm(B/op) 을 size 로 나누면 행당 할당량
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoardListMappingBenchmark {
+    private static final int BOARDS = 5_000;
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private BoardRepository boardRepository;
+    private BoardService boardService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(GuestbookApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.driverClassName=org.h2.Driver",
+                        "spring.datasource.url=jdbc:h2:mem:bench;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.org.zerock.guestbook=warn")
+                .run();
+
+        new LoadDataGenerator(context.getBean(JdbcTemplate.class), 42L, 1.1).generate(100, 10, BOARDS, 0);
+
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+        boardRepository = context.getBean(BoardRepository.class);
+        boardService = context.getBean(BoardService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BoardDTO> entityTuple() {
+        return transactionTemplate.execute(status -> {
+            QBoard board = QBoard.board;
+            QMember member = QMember.member;
+
+            List<Tuple> result = new JPAQuery<Board>(entityManager)
+                    .from(board)
+                    .leftJoin(member).on(board.writer.eq(member))
+                    .select(board, member)
+                    .orderBy(board.bno.desc())
+                    .limit(size)
+                    .fetch();
+            return result.stream()
+                    .map(Tuple::toArray)
+                    .map(row -> boardService.entityToDTO((Board) row[0], (Member) row[1]))
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @Benchmark
+    public List<BoardDTO> dtoProjection() {
+        return transactionTemplate.execute(status -> boardRepository.seekPage(null, null, null, size));
+    }
+}
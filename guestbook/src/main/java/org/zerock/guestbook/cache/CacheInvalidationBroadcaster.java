@@ -0,0 +1,102 @@
+package org.zerock.guestbook.cache;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.zerock.guestbook.entity.CacheInvalidation;
+import org.zerock.guestbook.repository.CacheInvalidationRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 여러 서버의 조회 캐시를 맞추기 위한 무효화 전파
+// 글을 고친 서버는 자기 캐시를 비우고 cache_invalidation 테이블에 기록, 다른 서버는 주기적으로 읽어 자기 캐시를 비움
+// 커밋 순서와 서버 간 시계 차이를 감안해 최근 OVERLAP_SECONDS 초는 다시 읽고, 이미 처리한 기록은 건너뜀
+@Component
+@Log4j2
+public class CacheInvalidationBroadcaster {
+    private static final long OVERLAP_SECONDS = 10;
+
+    private final CacheInvalidationRepository repository;
+    private final String node = UUID.randomUUID().toString();
+    private final Map<String, VersionedCache<?>> caches = new ConcurrentHashMap<>();
+
+    // 처리한 기록 번호 -> 기록 시각
+    private final Map<Long, LocalDateTime> applied = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastPolled = LocalDateTime.now();
+
+    public CacheInvalidationBroadcaster(CacheInvalidationRepository repository) {
+        this.repository = repository;
+    }
+
+    public void register(VersionedCache<?> cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    public Collection<VersionedCache<?>> getCaches() {
+        return caches.values();
+    }
+
+    // 트랜잭션 안이면 기록은 같은 트랜잭션으로 남기고, 자기 캐시는 커밋 후에 한 번 더 비움
+    // (커밋 전에 다른 요청이 이전 내용을 다시 캐시하는 경우 대비)
+    public void invalidate(String cacheName, Long key, LocalDateTime version) {
+        VersionedCache<?> cache = cache(cacheName);
+        cache.invalidate(key, version);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(key, version);
+                }
+            });
+        }
+
+        repository.save(CacheInvalidation.builder()
+                .cacheName(cacheName)
+                .entryKey(key)
+                .version(version)
+                .node(node)
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${cache.invalidation.poll-ms}")
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        List<CacheInvalidation> invalidations =
+                repository.getInvalidationsSince(lastPolled.minusSeconds(OVERLAP_SECONDS), node);
+        for (CacheInvalidation invalidation : invalidations) {
+            if (applied.putIfAbsent(invalidation.getIno(), invalidation.getRegDate()) != null) {
+                continue;
+            }
+            VersionedCache<?> cache = caches.get(invalidation.getCacheName());
+            if (cache != null) {
+                cache.invalidate(invalidation.getEntryKey(), invalidation.getVersion());
+            }
+        }
+        lastPolled = now;
+
+        LocalDateTime expired = now.minusSeconds(OVERLAP_SECONDS * 2);
+        applied.values().removeIf(regDate -> regDate.isBefore(expired));
+    }
+
+    // 모든 서버가 읽어 간 오래된 기록 정리
+    @Scheduled(cron = "${cache.invalidation.cleanup-cron}")
+    public void cleanup() {
+        int deleted = repository.deleteOlderThan(LocalDateTime.now().minusHours(1));
+        log.info("cache invalidations cleaned: " + deleted);
+    }
+
+    private VersionedCache<?> cache(String cacheName) {
+        VersionedCache<?> cache = caches.get(cacheName);
+        if (cache == null) {
+            throw new IllegalArgumentException("등록되지 않은 캐시입니다: " + cacheName);
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,34 @@
+package org.zerock.guestbook.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.zerock.guestbook.dto.BoardDTO;
+import org.zerock.guestbook.dto.GuestbookDTO;
+
+// 방명록/게시글 한 건 조회 캐시
+@Configuration
+public class ReadCacheConfig {
+    public static final String GUESTBOOK = "guestbook";
+    public static final String BOARD = "board";
+
+    @Value("${cache.read.max-size}")
+    private int maxSize;
+
+    @Value("${cache.read.ttl-seconds}")
+    private long ttlSeconds;
+
+    @Bean
+    public VersionedCache<GuestbookDTO> guestbookReadCache(CacheInvalidationBroadcaster broadcaster) {
+        VersionedCache<GuestbookDTO> cache = new VersionedCache<>(GUESTBOOK, maxSize, ttlSeconds, GuestbookDTO::getModDate);
+        broadcaster.register(cache);
+        return cache;
+    }
+
+    @Bean
+    public VersionedCache<BoardDTO> boardReadCache(CacheInvalidationBroadcaster broadcaster) {
+        VersionedCache<BoardDTO> cache = new VersionedCache<>(BOARD, maxSize, ttlSeconds, BoardDTO::getModDate);
+        broadcaster.register(cache);
+        return cache;
+    }
+}
@@ -0,0 +1,164 @@
+package org.zerock.guestbook.cache;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// 글 하나 조회용 캐시 (id -> DTO)
+// 항목마다 버전(modDate)을 함께 보관해 무효화 메시지보다 새 버전이면 지우지 않음
+// 크기를 넘으면 오래 조회되지 않은 항목부터 제거하고, ttl 이 지난 항목은 다시 읽음
+public class VersionedCache<V> {
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Function<V, LocalDateTime> versionOf;
+
+    private final Map<Long, Entry<V>> entries = new ConcurrentHashMap<>();
+    // 무효화될 때마다 증가. 조회 도중 무효화가 있었으면 읽은 값을 캐시에 넣지 않음
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong loadNanos = new AtomicLong();
+
+    public VersionedCache(String name, int maxSize, long ttlSeconds, Function<V, LocalDateTime> versionOf) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.versionOf = versionOf;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // 없는 글(loader 가 null 반환)은 캐시하지 않음
+    public V get(Long key, Function<Long, V> loader) {
+        long now = System.nanoTime();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && now - entry.loadedAt < ttlNanos) {
+            entry.accessedAt = now;
+            hits.incrementAndGet();
+            return entry.value;
+        }
+
+        misses.incrementAndGet();
+        long before = generation.get();
+        V value = loader.apply(key);
+        long loadedAt = System.nanoTime();
+        loadNanos.addAndGet(loadedAt - now);
+
+        if (value != null && before == generation.get()) {
+            entries.put(key, new Entry<>(value, versionOf.apply(value), loadedAt));
+            if (entries.size() > maxSize) {
+                evict();
+            }
+        }
+        return value;
+    }
+
+    // version 이 null 이면 무조건, 아니면 캐시된 항목이 version 보다 오래된 경우에만 제거
+    public void invalidate(Long key, LocalDateTime version) {
+        generation.incrementAndGet();
+        entries.computeIfPresent(key, (k, entry) -> {
+            if (version == null || entry.version == null || entry.version.isBefore(version)) {
+                invalidations.incrementAndGet();
+                return null;
+            }
+            return entry;
+        });
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("avgLoadMs", missCount == 0 ? 0.0 : loadNanos.get() / 1_000_000.0 / missCount);
+        return stats;
+    }
+
+    // 가득 차면 한 번에 90% 까지 줄임: ttl 이 지난 항목을 먼저, 그래도 많으면 오래 조회되지 않은 순서로
+    private synchronized void evict() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        long now = System.nanoTime();
+        int target = (int) (maxSize * 0.9);
+
+        // 정렬 중에 조회 시각이 바뀌지 않도록 복사해 둠
+        List<Candidate<V>> candidates = new ArrayList<>(entries.size());
+        for (Map.Entry<Long, Entry<V>> candidate : entries.entrySet()) {
+            Entry<V> entry = candidate.getValue();
+            if (now - entry.loadedAt >= ttlNanos) {
+                remove(candidate.getKey(), entry);
+            }
+            else {
+                candidates.add(new Candidate<>(candidate.getKey(), entry, entry.accessedAt - now));
+            }
+        }
+        if (entries.size() <= target) {
+            return;
+        }
+
+        candidates.sort((a, b) -> Long.compare(a.lastAccess, b.lastAccess));
+        for (Candidate<V> candidate : candidates) {
+            if (entries.size() <= target) {
+                return;
+            }
+            remove(candidate.key, candidate.entry);
+        }
+    }
+
+    private void remove(Long key, Entry<V> entry) {
+        if (entries.remove(key, entry)) {
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final LocalDateTime version;
+        final long loadedAt;
+        volatile long accessedAt;
+
+        Entry(V value, LocalDateTime version, long loadedAt) {
+            this.value = value;
+            this.version = version;
+            this.loadedAt = loadedAt;
+            this.accessedAt = loadedAt;
+        }
+    }
+
+    private static class Candidate<V> {
+        final Long key;
+        final Entry<V> entry;
+        // 현재 기준 마지막 조회 시각 (작을수록 오래됨)
+        final long lastAccess;
+
+        Candidate(Long key, Entry<V> entry, long lastAccess) {
+            this.key = key;
+            this.entry = entry;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -12,8 +12,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.zerock.guestbook.dto.BoardDTO;
 import org.zerock.guestbook.dto.PageRequestDTO;
-//import org.zerock.guestbook.dto.PageResultDTO;
-//import org.zerock.guestbook.service.BoardService;
+import org.zerock.guestbook.dto.PageResultDTO;
+import org.zerock.guestbook.service.BoardService;
+import org.zerock.guestbook.service.BoardViewCounter;
+
+import javax.servlet.http.HttpServletRequest;
 
 @Controller
 @RequestMapping("/board/")
@@ -21,6 +24,7 @@ import org.zerock.guestbook.dto.PageRequestDTO;
 @RequiredArgsConstructor
 public class BoardController {
     private final BoardService boardService;
+    private final BoardViewCounter boardViewCounter;
 
     @GetMapping("/list")
     public void list(PageRequestDTO pageRequestDTO, Model model) {
@@ -44,11 +48,20 @@ public class BoardController {
     }
 
     @GetMapping({"/read", "/modify"})
-    public void read(@ModelAttribute("requestDTO") PageRequestDTO pageRequestDTO, Long bno, Model model) {
+    public void read(@ModelAttribute("requestDTO") PageRequestDTO pageRequestDTO, Long bno, Model model,
+                     HttpServletRequest request) {
         log.info("bno: " + bno);
         BoardDTO boardDTO = boardService.get(bno);
         log.info(boardDTO);
         model.addAttribute("dto", boardDTO);
+
+        if (boardDTO != null) {
+            // 수정 화면은 조회로 세지 않음
+            if (request.getRequestURI().endsWith("/read")) {
+                boardViewCounter.recordView(bno, request.getRemoteAddr());
+            }
+            model.addAttribute("viewCount", boardViewCounter.getViewCount(bno, boardDTO.getViewCount()));
+        }
     }
 
     @PostMapping("/remove")
@@ -0,0 +1,29 @@
+package org.zerock.guestbook.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.zerock.guestbook.service.BoardViewCounter;
+
+import java.util.Map;
+
+// 조회 수 순위와 집계 상태
+@RestController
+@RequestMapping("/board/views/")
+@RequiredArgsConstructor
+public class BoardViewController {
+    private final BoardViewCounter boardViewCounter;
+
+    @GetMapping("/top")
+    public ResponseEntity<Map<Long, Long>> top() {
+        return new ResponseEntity<>(boardViewCounter.getTopViewed(), HttpStatus.OK);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> stats() {
+        return new ResponseEntity<>(boardViewCounter.getStats(), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,30 @@
+package org.zerock.guestbook.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.zerock.guestbook.cache.CacheInvalidationBroadcaster;
+import org.zerock.guestbook.cache.VersionedCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 조회 캐시 적중률 등 확인용
+@RestController
+@RequestMapping("/cache/")
+@RequiredArgsConstructor
+public class CacheStatsController {
+    private final CacheInvalidationBroadcaster broadcaster;
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (VersionedCache<?> cache : broadcaster.getCaches()) {
+            stats.put(cache.getName(), cache.getStats());
+        }
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+}
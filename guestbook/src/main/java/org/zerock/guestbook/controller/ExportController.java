@@ -0,0 +1,80 @@
+package org.zerock.guestbook.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.zerock.guestbook.dto.BoardDTO;
+import org.zerock.guestbook.dto.GuestbookDTO;
+import org.zerock.guestbook.service.BoardService;
+import org.zerock.guestbook.service.GuestbookService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+// 전체 글 내보내기 (JSON 배열)
+// DB 에서 읽는 대로 한 건씩 응답에 쓰므로 글 수와 관계없이 메모리 사용량이 일정함
+@RestController
+@RequestMapping("/export/")
+@Log4j2
+@RequiredArgsConstructor
+public class ExportController {
+    private final BoardService boardService;
+    private final GuestbookService guestbookService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping(value = "/boards", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBoards() {
+        return export("boards.json", BoardDTO.class, boardService::exportList);
+    }
+
+    @GetMapping(value = "/guestbooks", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportGuestbooks() {
+        return export("guestbooks.json", GuestbookDTO.class, guestbookService::exportList);
+    }
+
+    private <T> ResponseEntity<StreamingResponseBody> export(String fileName, Class<T> type,
+                                                             Consumer<Consumer<T>> exporter) {
+        ObjectWriter writer = objectMapper.writerFor(type)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = out -> {
+            long start = System.currentTimeMillis();
+            long[] count = new long[1];
+
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.writeStartArray();
+            try {
+                exporter.accept(dto -> {
+                    try {
+                        writer.writeValue(generator, dto);
+                        count[0]++;
+                    }
+                    catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.writeEndArray();
+            generator.close();
+            log.info("export " + fileName + ": " + count[0] + " rows (" + (System.currentTimeMillis() - start) + "ms)");
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+}
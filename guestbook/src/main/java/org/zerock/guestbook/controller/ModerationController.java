@@ -0,0 +1,98 @@
+package org.zerock.guestbook.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.zerock.guestbook.dto.ModerationRequestDTO;
+import org.zerock.guestbook.service.ModerationJob;
+import org.zerock.guestbook.service.ModerationService;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.function.Supplier;
+
+// 관리자 일괄 삭제. 요청은 작업을 등록만 하고 바로 반환하며 진행 상황은 /moderation/jobs/{jobId} 로 조회
+// 로그인 기능이 없으므로 X-Admin-Token 헤더가 moderation.admin-token 과 같을 때만 허용
+// moderation.admin-token 이 비어 있으면(기본값) 모든 요청을 거부
+@RestController
+@RequestMapping("/moderation/")
+@Log4j2
+@RequiredArgsConstructor
+public class ModerationController {
+    private static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private final ModerationService moderationService;
+
+    @Value("${moderation.admin-token:}")
+    private String adminToken;
+
+    @PostMapping("/boards")
+    public ResponseEntity<ModerationJob> removeBoards(@RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token,
+                                                      @RequestBody ModerationRequestDTO requestDTO) {
+        if (!isAdmin(token)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        log.info("remove boards: " + requestDTO);
+        if (requestDTO.getIds() != null && !requestDTO.getIds().isEmpty()) {
+            return submitted(() -> moderationService.removeBoards(requestDTO.getIds()));
+        }
+        if (requestDTO.getWriter() != null && !requestDTO.getWriter().isEmpty()) {
+            return submitted(() -> moderationService.removeBoardsByWriter(requestDTO.getWriter()));
+        }
+        return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
+
+    @PostMapping("/replies")
+    public ResponseEntity<ModerationJob> removeReplies(@RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token,
+                                                       @RequestBody ModerationRequestDTO requestDTO) {
+        if (!isAdmin(token)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        log.info("remove replies: " + requestDTO);
+        if (requestDTO.getIds() != null && !requestDTO.getIds().isEmpty()) {
+            return submitted(() -> moderationService.removeReplies(requestDTO.getIds()));
+        }
+        if (requestDTO.getWriter() != null && !requestDTO.getWriter().isEmpty()) {
+            return submitted(() -> moderationService.removeRepliesByReplyer(requestDTO.getWriter()));
+        }
+        return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ModerationJob> getJob(@RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token,
+                                                @PathVariable("jobId") Long jobId) {
+        if (!isAdmin(token)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        ModerationJob job = moderationService.getJob(jobId);
+        return job == null ? new ResponseEntity<>(HttpStatus.NOT_FOUND) : new ResponseEntity<>(job, HttpStatus.OK);
+    }
+
+    // 대기 작업이 가득 차면 503
+    private ResponseEntity<ModerationJob> submitted(Supplier<ModerationJob> submit) {
+        try {
+            return new ResponseEntity<>(submit.get(), HttpStatus.ACCEPTED);
+        }
+        catch (IllegalStateException e) {
+            log.warn(e.getMessage());
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    // 비교 시간으로 토큰을 추측할 수 없도록 MessageDigest.isEqual 사용
+    private boolean isAdmin(String token) {
+        if (adminToken == null || adminToken.isEmpty() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
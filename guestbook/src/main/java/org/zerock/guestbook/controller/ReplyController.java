@@ -1,14 +1,23 @@
 package org.zerock.guestbook.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.zerock.guestbook.dto.ReplyDTO;
 import org.zerock.guestbook.service.ReplyService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -16,7 +25,10 @@ import java.util.List;
 @Log4j2
 @RequiredArgsConstructor
 public class ReplyController {
+    private static final int MAX_SLICE_SIZE = 1000;
+
     private final ReplyService replyService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping(value = "/board/{bno}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<ReplyDTO>> getListByBoard(@PathVariable("bno") Long bno) {
@@ -24,6 +36,50 @@ public class ReplyController {
         return new ResponseEntity<>(replyService.getList(bno), HttpStatus.OK);
     }
 
+    // 댓글을 after 다음 rno 부터 size 개씩 JSON 배열로 스트리밍 (목록을 메모리에 만들지 않음)
+    // 다음 조각은 받은 마지막 rno 를 after 로 요청하고, 더 받을 댓글이 없으면 빈 배열
+    // ETag 는 after, size 와 after 다음 댓글의 등록/수정/삭제를 반영하므로 같은 조각을 다시 요청할 때
+    // If-None-Match 가 맞고 그 사이 바뀐 댓글이 없을 때만 304
+    @GetMapping(value = "/board/{bno}/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamListByBoard(@PathVariable("bno") Long bno,
+                                                                   @RequestParam(value = "after", defaultValue = "0") long after,
+                                                                   @RequestParam(value = "size", defaultValue = "100") int size,
+                                                                   WebRequest webRequest) {
+        int sliceSize = Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+        String eTag = "\"" + bno + "-" + after + "-" + sliceSize + "-" + replyService.getStreamVersion(bno, after) + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        ObjectWriter writer = objectMapper.writerFor(ReplyDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.writeStartArray();
+            try {
+                replyService.streamList(bno, after, sliceSize, reply -> {
+                    try {
+                        writer.writeValue(generator, reply);
+                    }
+                    catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.writeEndArray();
+            generator.close();
+        };
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+
     @PostMapping("")
     public ResponseEntity<Long> register(@RequestBody ReplyDTO replyDTO) {
         log.info(replyDTO);
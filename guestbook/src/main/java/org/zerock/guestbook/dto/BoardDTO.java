@@ -18,4 +18,5 @@ public class BoardDTO {
     private LocalDateTime regDate;
     private LocalDateTime modDate;
     private int replyCount;
+    private long viewCount;
 }
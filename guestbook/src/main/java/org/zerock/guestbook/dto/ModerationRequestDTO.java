@@ -0,0 +1,18 @@
+package org.zerock.guestbook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// 일괄 삭제 요청: ids(bno/rno 목록) 또는 writer(게시글은 작성자 이메일, 댓글은 replyer) 중 하나
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ModerationRequestDTO {
+    private List<Long> ids;
+    private String writer;
+}
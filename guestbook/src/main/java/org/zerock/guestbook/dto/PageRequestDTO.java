@@ -15,6 +15,8 @@ public class PageRequestDTO {
     private int size;
     private String type;
     private String keyword;
+    // 키셋 페이징: 이 번호(gno/bno) 이하부터 조회. 없으면 첫 페이지는 키셋, 그 외 페이지는 offset 방식
+    private Long cursor;
 
     public PageRequestDTO() {
         this.page = 1;
@@ -24,4 +26,32 @@ public class PageRequestDTO {
     public Pageable getPageable(Sort sort) {
         return PageRequest.of(page -1, size, sort);
     }
+
+    // 검색 항목과 검색어가 모두 있을 때만 검색
+    public boolean isKeywordSearch() {
+        return type != null && type.trim().length() > 0 && keyword != null && keyword.trim().length() > 0;
+    }
+
+    public boolean isSeek() {
+        return cursor != null || page <= 1;
+    }
+
+    // 현재 페이지가 속한 페이지 창(10개)의 시작/끝 번호
+    public int windowStart() {
+        return windowEnd() - 9;
+    }
+
+    public int windowEnd() {
+        return (int)(Math.ceil(page/10.0) * 10);
+    }
+
+    // 현재 페이지 뒤로 창 끝까지의 id + 다음 창이 있는지 확인할 1건
+    public int olderProbeSize() {
+        return (windowEnd() - page) * size + 1;
+    }
+
+    // 현재 페이지 앞으로 창 시작 페이지와 이전 창 마지막 페이지의 첫 id 까지
+    public int newerProbeSize() {
+        return (page - windowStart() + 1) * size;
+    }
 }
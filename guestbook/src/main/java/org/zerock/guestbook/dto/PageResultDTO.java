@@ -4,10 +4,11 @@ import lombok.Data;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 @Data
 public class PageResultDTO<DTO, EN> {
@@ -17,13 +18,70 @@ public class PageResultDTO<DTO, EN> {
     private int size;
     private int start, end;
     private boolean prev, next;
-    private List<Integer> pageList;
+    // 페이지 번호 (최대 10 개)
+    private int[] pageList;
+    // 키셋 모드일 때 페이지 번호 -> 그 페이지의 cursor (첫 글 번호). 첫 페이지나 알 수 없는 페이지는 없음
+    private boolean seek;
+    private Map<Integer, Long> cursors = new HashMap<>();
+
     public PageResultDTO(Page<EN> result, Function<EN, DTO> fn) {
-        dtoList = result.stream().map(fn).collect(Collectors.toList());
+        dtoList = map(result.getContent(), fn);
+        totalPage = result.getTotalPages();
+        makePageList(result.getPageable());
+    }
+
+    // 조회 결과가 이미 DTO 인 경우 (projection) 변환 없이 그대로 사용
+    public PageResultDTO(Page<DTO> result) {
+        dtoList = result.getContent();
         totalPage = result.getTotalPages();
         makePageList(result.getPageable());
     }
 
+    // 키셋 모드: 전체 개수를 세지 않고 현재 페이지 앞뒤의 번호만으로 페이지 창과 페이지별 cursor 를 계산
+    // newerIds: 현재 페이지 첫 글보다 최신 글 번호 (오름차순, 최대 requestDTO.newerProbeSize() 개)
+    // olderIds: 현재 페이지 마지막 글보다 오래된 글 번호 (내림차순, 최대 requestDTO.olderProbeSize() 개)
+    public PageResultDTO(List<EN> content, Function<EN, DTO> fn, PageRequestDTO requestDTO,
+                         List<Long> newerIds, List<Long> olderIds) {
+        this(map(content, fn), requestDTO, newerIds, olderIds);
+    }
+
+    public PageResultDTO(List<DTO> content, PageRequestDTO requestDTO, List<Long> newerIds, List<Long> olderIds) {
+        dtoList = content;
+        seek = true;
+        page = requestDTO.getPage();
+        size = requestDTO.getSize();
+
+        int tempEnd = requestDTO.windowEnd();
+        start = requestDTO.windowStart();
+        prev = start > 1;
+
+        cursors.put(page, requestDTO.getCursor());
+        // 앞 페이지 k 의 첫 글 = 현재 페이지 바로 앞의 (page - k) * size 번째 글
+        for (int k = page - 1; k >= Math.max(2, start - 1); k--) {
+            int index = (page - k) * size - 1;
+            if (index >= newerIds.size()) {
+                break;
+            }
+            cursors.put(k, newerIds.get(index));
+        }
+        // 뒤 페이지 k 의 첫 글 = 현재 페이지 마지막 글 뒤의 (k - page - 1) * size + 1 번째 글
+        end = page;
+        for (int k = page + 1; k <= tempEnd + 1; k++) {
+            int index = (k - page - 1) * size;
+            if (index >= olderIds.size()) {
+                break;
+            }
+            cursors.put(k, olderIds.get(index));
+            if (k <= tempEnd) {
+                end = k;
+            }
+        }
+        next = olderIds.size() > (tempEnd - page) * size;
+        // 전체 페이지 수는 모르므로 확인된 마지막 페이지까지만
+        totalPage = next ? end + 1 : end;
+        pageList = pageNumbers(start, end);
+    }
+
     private void makePageList(Pageable pageable) {
         this.page = pageable.getPageNumber() + 1;
         this.size = pageable.getPageSize();
@@ -33,7 +91,23 @@ public class PageResultDTO<DTO, EN> {
         prev = start > 1;
         end = Math.min(totalPage, tempEnd);
         next = totalPage > tempEnd;
-        pageList = IntStream.rangeClosed(start, end).boxed().collect(Collectors.toList());
+        pageList = pageNumbers(start, end);
+    }
+
+    private static <DTO, EN> List<DTO> map(List<EN> content, Function<EN, DTO> fn) {
+        List<DTO> dtoList = new ArrayList<>(content.size());
+        for (EN en : content) {
+            dtoList.add(fn.apply(en));
+        }
+        return dtoList;
+    }
+
+    private static int[] pageNumbers(int start, int end) {
+        int[] pageList = new int[Math.max(end - start + 1, 0)];
+        for (int i = 0; i < pageList.length; i++) {
+            pageList[i] = start + i;
+        }
+        return pageList;
     }
 
 }
@@ -1,6 +1,7 @@
 package org.zerock.guestbook.entity;
 
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import javax.persistence.*;
 
@@ -10,6 +11,7 @@ import javax.persistence.*;
 @NoArgsConstructor
 @Getter
 @ToString(exclude = "writer")
+@Table(indexes = @Index(columnList = "viewCount"))
 public class Board extends BaseEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,6 +21,16 @@ public class Board extends BaseEntity {
     @ManyToOne (fetch = FetchType.LAZY)
     private Member writer;
 
+    // 댓글 수 (ReplyServiceImpl 에서 등록/삭제 시 증감, ReplyCountReconciler 가 주기적으로 보정)
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int replyCount;
+
+    // 조회 수 (BoardViewCounter 가 모아서 증가시키므로 엔티티 저장 시에는 쓰지 않음)
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long viewCount;
+
     public void changeTitle(String title) {
         this.title = title;
     }
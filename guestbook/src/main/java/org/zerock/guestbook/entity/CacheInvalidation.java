@@ -0,0 +1,33 @@
+package org.zerock.guestbook.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 다른 서버의 조회 캐시를 비우기 위한 무효화 기록 (각 서버가 주기적으로 읽어 감)
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@ToString
+@Table(indexes = @Index(columnList = "regdate"))
+public class CacheInvalidation extends BaseEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long ino;
+
+    @Column(length = 50, nullable = false)
+    private String cacheName;
+
+    @Column(nullable = false)
+    private Long entryKey;
+
+    // 변경된 글의 modDate (삭제면 null)
+    private LocalDateTime version;
+
+    // 기록한 서버 (자기 기록은 건너뜀)
+    @Column(length = 50, nullable = false)
+    private String node;
+}
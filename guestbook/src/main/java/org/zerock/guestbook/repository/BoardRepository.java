@@ -3,12 +3,21 @@ package org.zerock.guestbook.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import org.zerock.guestbook.dto.BoardDTO;
 import org.zerock.guestbook.entity.Board;
 import org.zerock.guestbook.repository.search.SearchBoardRepository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface BoardRepository extends JpaRepository<Board, Long>, SearchBoardRepository {
     @Query("select b, w from Board b left join b.writer w where b.bno =:bno")
@@ -17,19 +26,65 @@ public interface BoardRepository extends JpaRepository<Board, Long>, SearchBoard
     @Query("SELECT b, r FROM Board b LEFT JOIN Reply r ON r.board = b WHERE b.bno = :bno")
     List<Object[]> getBoardWithReply(@Param("bno") Long bno);
 
-    @Query(value = "select b, w, count(r)" +
+    // 댓글 수는 b.replyCount 에 유지되므로 Reply 조인, group by 없음
+    @Query(value = "select b, w" +
             " from Board b " +
-            " left join b.writer w " +
-            " left join Reply r on r.board = b " +
-            " group by b",
+            " left join b.writer w ",
             countQuery = "select count(b) from Board  b")
     Page<Object[]> getBoardWithReplyCount(Pageable pageable);
 
-    @Query("select b, w, count(r) " +
+    @Query("select b, w " +
             " from Board b left join b.writer w " +
-            " left outer join Reply r on r.board = b" +
             " where b.bno = :bno")
     Object getBoardByBno(@Param("bno") Long bno);
 
+    // 검색 결과 한 페이지 분량의 게시글 (순서는 호출하는 쪽에서 맞춤)
+    @Query("select new org.zerock.guestbook.dto.BoardDTO(b.bno, b.title, b.content, w.email, w.nickname," +
+            " b.regDate, b.modDate, b.replyCount, b.viewCount)" +
+            " from Board b left join b.writer w " +
+            " where b.bno in :bnos")
+    List<BoardDTO> getBoardsByBnos(@Param("bnos") Collection<Long> bnos);
+
+    // 내보내기: 전체 글을 bno 내림차순으로 (DTO 로 읽어 영속성 컨텍스트에 쌓이지 않음)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new org.zerock.guestbook.dto.BoardDTO(b.bno, b.title, b.content, w.email, w.nickname," +
+            " b.regDate, b.modDate, b.replyCount, b.viewCount)" +
+            " from Board b left join b.writer w " +
+            " order by b.bno desc")
+    Stream<BoardDTO> streamAll();
+
+    // 댓글 등록/삭제 시 댓글 수 증감 (DB 에서 원자적으로 처리)
+    @Modifying
+    @Query("update Board b set b.replyCount = b.replyCount + :delta where b.bno = :bno")
+    int addReplyCount(@Param("bno") Long bno, @Param("delta") int delta);
+
+    // 관리자 일괄 삭제용: 엔티티를 읽지 않고 번호만 조회/삭제
+    @Query("select b.bno from Board b where b.writer.email = :email and b.bno > :lastBno order by b.bno")
+    List<Long> getBnosByWriterEmail(@Param("email") String email, @Param("lastBno") Long lastBno, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Board b where b.bno in :bnos")
+    int deleteByBnos(@Param("bnos") Collection<Long> bnos);
+
+    // 조회 수 순위 (BoardViewCounter)
+    @Query("select b.bno, b.viewCount from Board b order by b.viewCount desc, b.bno")
+    List<Object[]> getTopViewed(Pageable pageable);
+
+    @Query("select b.bno, b.viewCount from Board b where b.bno in :bnos")
+    List<Object[]> getViewCounts(@Param("bnos") Collection<Long> bnos);
+
+    @Query("select max(b.bno) from Board b")
+    Long getMaxBno();
+
+    // 댓글 수 보정: 범위 안에서 실제 댓글 수와 다른 게시글만 갱신
+    @Transactional
+    @Modifying
+    @Query(value = "update board b" +
+            " set b.reply_count = (select count(*) from reply r where r.board_bno = b.bno)" +
+            " where b.bno between :fromBno and :toBno" +
+            " and b.reply_count <> (select count(*) from reply r2 where r2.board_bno = b.bno)",
+            nativeQuery = true)
+    int reconcileReplyCount(@Param("fromBno") Long fromBno, @Param("toBno") Long toBno);
+
 
 }
@@ -0,0 +1,21 @@
+package org.zerock.guestbook.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import org.zerock.guestbook.entity.CacheInvalidation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+    @Query("select c from CacheInvalidation c where c.regDate >= :since and c.node <> :node order by c.ino")
+    List<CacheInvalidation> getInvalidationsSince(@Param("since") LocalDateTime since, @Param("node") String node);
+
+    @Transactional
+    @Modifying
+    @Query("delete from CacheInvalidation c where c.regDate < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
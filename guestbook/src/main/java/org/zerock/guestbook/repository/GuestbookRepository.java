@@ -1,10 +1,32 @@
 package org.zerock.guestbook.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.repository.query.Param;
+import org.zerock.guestbook.dto.GuestbookDTO;
 import org.zerock.guestbook.entity.Guestbook;
+import org.zerock.guestbook.repository.search.SearchGuestbookRepository;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface GuestbookRepository extends JpaRepository<Guestbook, Long>,
-        QuerydslPredicateExecutor<Guestbook> {
+        QuerydslPredicateExecutor<Guestbook>, SearchGuestbookRepository {
+
+    // 검색 결과 한 페이지 분량의 글 (순서는 호출하는 쪽에서 맞춤)
+    @Query("select new org.zerock.guestbook.dto.GuestbookDTO(g.gno, g.title, g.content, g.writer, g.regDate, g.modDate)" +
+            " from Guestbook g where g.gno in :gnos")
+    List<GuestbookDTO> getGuestbooksByGnos(@Param("gnos") Collection<Long> gnos);
 
+    // 내보내기: 전체 글을 gno 내림차순으로 (DTO 로 읽어 영속성 컨텍스트에 쌓이지 않음)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new org.zerock.guestbook.dto.GuestbookDTO(g.gno, g.title, g.content, g.writer, g.regDate, g.modDate)" +
+            " from Guestbook g order by g.gno desc")
+    Stream<GuestbookDTO> streamAll();
 }
@@ -1,12 +1,21 @@
 package org.zerock.guestbook.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.zerock.guestbook.dto.ReplyDTO;
 import org.zerock.guestbook.entity.Board;
 import org.zerock.guestbook.entity.Reply;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ReplyRepository extends JpaRepository<Reply, Long> {
     @Modifying
@@ -14,4 +23,41 @@ public interface ReplyRepository extends JpaRepository<Reply, Long> {
     void deleteByBno(Long bno);
 
     List<Reply> getRepliesByBoardOrderByRno(Board board);
+
+    @Query("select r.board.bno from Reply r where r.rno = :rno")
+    Long getBnoByRno(@Param("rno") Long rno);
+
+    @Modifying
+    @Query("delete from Reply r where r.rno = :rno")
+    int deleteByRno(@Param("rno") Long rno);
+
+    // 댓글 스트리밍: afterRno 다음부터 rno 순으로 (엔티티 대신 DTO 로 읽어 영속성 컨텍스트에 쌓이지 않음)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "100"))
+    @Query("select new org.zerock.guestbook.dto.ReplyDTO(r.rno, r.text, r.replyer, r.board.bno, r.regDate, r.modDate)" +
+            " from Reply r where r.board.bno = :bno and r.rno > :afterRno order by r.rno")
+    Stream<ReplyDTO> streamByBnoAfter(@Param("bno") Long bno, @Param("afterRno") Long afterRno, Pageable pageable);
+
+    // 댓글 스트리밍의 ETag 용: afterRno 다음 댓글의 수, 마지막 rno, 마지막 수정 시각 (행 하나)
+    // 등록은 마지막 rno, 삭제는 수, 수정은 수정 시각을 바꿈
+    @Query("select count(r), max(r.rno), max(r.modDate) from Reply r where r.board.bno = :bno and r.rno > :afterRno")
+    List<Object[]> getStateByBnoAfter(@Param("bno") Long bno, @Param("afterRno") Long afterRno);
+
+    // 관리자 일괄 삭제용: 엔티티를 읽지 않고 번호만 조회/삭제
+    @Query("select r.rno from Reply r where r.replyer = :replyer and r.rno > :lastRno order by r.rno")
+    List<Long> getRnosByReplyer(@Param("replyer") String replyer, @Param("lastRno") Long lastRno, Pageable pageable);
+
+    @Query("select r.rno from Reply r where r.board.bno in :bnos")
+    List<Long> getRnosByBnos(@Param("bnos") Collection<Long> bnos, Pageable pageable);
+
+    // 게시글별로 삭제될 댓글 수 (replyCount 보정용)
+    @Query("select r.board.bno, count(r) from Reply r where r.rno in :rnos group by r.board.bno")
+    List<Object[]> countByBnoForRnos(@Param("rnos") Collection<Long> rnos);
+
+    @Modifying
+    @Query("delete from Reply r where r.rno in :rnos")
+    int deleteByRnos(@Param("rnos") Collection<Long> rnos);
+
+    @Modifying
+    @Query("delete from Reply r where r.board.bno in :bnos")
+    int deleteByBnos(@Param("bnos") Collection<Long> bnos);
 }
@@ -2,9 +2,18 @@ package org.zerock.guestbook.repository.search;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.zerock.guestbook.dto.BoardDTO;
 import org.zerock.guestbook.entity.Board;
 
+import java.util.List;
+
 public interface SearchBoardRepository {
     Board search1();
-    Page<Object[]> searchPage(String type, String keyword, Pageable pageable);
+    Page<BoardDTO> searchPage(String type, String keyword, Pageable pageable);
+
+    // bno <= cursor 인 글을 bno 내림차순으로 size 개 (cursor 가 없으면 최신 글부터)
+    List<BoardDTO> seekPage(String type, String keyword, Long cursor, int size);
+
+    // bno 보다 오래된(older) 또는 최신 글 번호만 limit 개 조회
+    List<Long> seekIds(String type, String keyword, Long bno, boolean older, int limit);
 }
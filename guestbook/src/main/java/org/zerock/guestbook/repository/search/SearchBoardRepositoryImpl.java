@@ -1,113 +1,166 @@
-//package org.zerock.guestbook.repository.search;
-//
-//import com.querydsl.core.BooleanBuilder;
-//import com.querydsl.core.Tuple;
-//import com.querydsl.core.types.Order;
-//import com.querydsl.core.types.OrderSpecifier;
-//import com.querydsl.core.types.dsl.PathBuilder;
-//
-//import com.querydsl.core.types.dsl.BooleanExpression;
-//import com.querydsl.jpa.JPQLQuery;
-//import lombok.extern.log4j.Log4j2;
-//import org.springframework.data.domain.Page;
-//import org.springframework.data.domain.PageImpl;
-//import org.springframework.data.domain.Pageable;
-//import org.springframework.data.domain.Sort;
-//import org.springframework.data.jpa.repository.support.QuerydslRepositorySupport;
-//import org.zerock.guestbook.entity.Board;
-//import org.zerock.guestbook.entity.QBoard;
-//import org.zerock.guestbook.entity.QMember;
-//import org.zerock.guestbook.entity.QReply;
-//
-//import java.util.List;
-//import java.util.stream.Collectors;
-//@Log4j2
-//public class SearchBoardRepositoryImpl extends QuerydslRepositorySupport implements SearchBoardRepository {
-//
-//    public SearchBoardRepositoryImpl() {
-//        super(Board.class);
-//    }
-//
-//    @Override
-//    public Board search1() {
-//        log.info("search1..........................");
-//
-//        QBoard board = QBoard.board;
-//        QReply reply = QReply.reply;
-//        QMember member = QMember.member;
-//
-//        JPQLQuery<Board> jpqlQuery = from(board);
-//        jpqlQuery.leftJoin(member).on(board.writer.eq(member));
-//        jpqlQuery.leftJoin(reply).on(reply.board.eq(board));
-//
-//        JPQLQuery<Tuple> tuple = jpqlQuery.select(board, member.email, reply.count());
-//        tuple.groupBy(board);
-//
-//        log.info("----------------------------");
-//        log.info(tuple);
-//        log.info("----------------------------");
-//
-//        List<Tuple> result = tuple.fetch();
-//        log.info(result);
-//        return null;
-//    }
-//
-//    @Override
-//    public Page<Object[]> searchPage(String type, String keyword, Pageable pageable) {
-//        log.info("searchPage............................");
-//
-//        QBoard board = QBoard.board;
-//        QReply reply = QReply.reply;
-//        QMember member = QMember.member;
-//
-//        JPQLQuery<Board> jpqlQuery = from(board);
-//        jpqlQuery.leftJoin(member).on(board.writer.eq(member));
-//        jpqlQuery.leftJoin(reply).on(reply.board.eq(board));
-//
-//        JPQLQuery<Tuple> tuple = jpqlQuery.select(board, member, reply.count());
-//
-//        BooleanBuilder booleanBuilder = new BooleanBuilder();
-//        BooleanExpression expression = board.bno.gt(0L);
-//
-//        booleanBuilder.and(expression);
-//
-//        if (type != null) {
-//            String[] typeArr = type.split("");
-//            BooleanBuilder conditionBuilder = new BooleanBuilder();
-//
-//            for (String t : typeArr) {
-//                switch (t) {
-//                    case "t":
-//                        conditionBuilder.or(board.title.contains(keyword));
-//                        break;
-//                    case "w":
-//                        conditionBuilder.or(member.email.contains(keyword));
-//                        break;
-//                    case "c":
-//                        conditionBuilder.or(board.content.contains(keyword));
-//                }
-//            }
-//            booleanBuilder.and(conditionBuilder);
-//        }
-//        tuple.where(booleanBuilder);
-//
-//        Sort sort = pageable.getSort();
-//        sort.stream().forEach(order -> {
-//            Order direction = order.isAscending() ? Order.ASC : Order.DESC;
-//            String prop = order.getProperty();
-//
-//            PathBuilder orderByExpression = new PathBuilder(Board.class, "board");
-//            tuple.orderBy(new OrderSpecifier(direction, orderByExpression.get(prop)));
-//        });
-//        tuple.groupBy(board);
-//
-//        tuple.offset(pageable.getOffset());
-//        tuple.limit(pageable.getPageSize());
-//        List<Tuple> result = tuple.fetch();
-//        log.info(result);
-//        long count = tuple.fetchCount();
-//        log.info("COUNT: " + count);
-//        return new PageImpl<Object[]>(
-//                result.stream().map(Tuple::toArray).collect(Collectors.toList()), pageable, count);
-//    }
-//}
+package org.zerock.guestbook.repository.search;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.ConstructorExpression;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.PathBuilder;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPQLQuery;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.QuerydslRepositorySupport;
+import org.zerock.guestbook.dto.BoardDTO;
+import org.zerock.guestbook.entity.Board;
+import org.zerock.guestbook.entity.QBoard;
+import org.zerock.guestbook.entity.QMember;
+import org.zerock.guestbook.entity.QReply;
+
+import java.util.List;
+@Log4j2
+public class SearchBoardRepositoryImpl extends QuerydslRepositorySupport implements SearchBoardRepository {
+
+    public SearchBoardRepositoryImpl() {
+        super(Board.class);
+    }
+
+    @Override
+    public Board search1() {
+        log.info("search1..........................");
+
+        QBoard board = QBoard.board;
+        QReply reply = QReply.reply;
+        QMember member = QMember.member;
+
+        JPQLQuery<Board> jpqlQuery = from(board);
+        jpqlQuery.leftJoin(member).on(board.writer.eq(member));
+        jpqlQuery.leftJoin(reply).on(reply.board.eq(board));
+
+        JPQLQuery<Tuple> tuple = jpqlQuery.select(board, member.email, reply.count());
+        tuple.groupBy(board);
+
+        log.info("----------------------------");
+        log.info(tuple);
+        log.info("----------------------------");
+
+        List<Tuple> result = tuple.fetch();
+        log.info(result);
+        return null;
+    }
+
+    // 댓글 수는 board.replyCount 에 유지되므로 Reply 조인과 group by 없이 게시글 페이지만 조회
+    // 엔티티 대신 BoardDTO 로 바로 읽어 영속성 컨텍스트와 Object[] 변환을 거치지 않음
+    @Override
+    public Page<BoardDTO> searchPage(String type, String keyword, Pageable pageable) {
+        log.info("searchPage............................");
+
+        QBoard board = QBoard.board;
+        QMember member = QMember.member;
+
+        JPQLQuery<BoardDTO> query = from(board)
+                .leftJoin(member).on(board.writer.eq(member))
+                .select(boardDTO(board, member))
+                .where(searchCondition(type, keyword));
+
+        Sort sort = pageable.getSort();
+        sort.stream().forEach(order -> {
+            Order direction = order.isAscending() ? Order.ASC : Order.DESC;
+            String prop = order.getProperty();
+
+            PathBuilder orderByExpression = new PathBuilder(Board.class, "board");
+            query.orderBy(new OrderSpecifier(direction, orderByExpression.get(prop)));
+        });
+
+        query.offset(pageable.getOffset());
+        query.limit(pageable.getPageSize());
+        List<BoardDTO> result = query.fetch();
+
+        // 작성자 검색일 때만 Member 를 조인
+        JPQLQuery<Board> countQuery = from(board);
+        if (type != null && type.contains("w")) {
+            countQuery.leftJoin(member).on(board.writer.eq(member));
+        }
+        Long count = countQuery.select(board.count())
+                .where(searchCondition(type, keyword))
+                .fetchOne();
+        log.info("COUNT: " + count);
+        return new PageImpl<>(result, pageable, count == null ? 0 : count);
+    }
+
+    @Override
+    public List<BoardDTO> seekPage(String type, String keyword, Long cursor, int size) {
+        QBoard board = QBoard.board;
+        QMember member = QMember.member;
+
+        JPQLQuery<BoardDTO> query = from(board)
+                .leftJoin(member).on(board.writer.eq(member))
+                .select(boardDTO(board, member))
+                .where(searchCondition(type, keyword));
+        if (cursor != null) {
+            query.where(board.bno.loe(cursor));
+        }
+        return query.orderBy(board.bno.desc())
+                .limit(size)
+                .fetch();
+    }
+
+    // 작성자 검색일 때만 Member 를 조인하고, 그 외에는 board 의 PK 만 읽음
+    @Override
+    public List<Long> seekIds(String type, String keyword, Long bno, boolean older, int limit) {
+        QBoard board = QBoard.board;
+        QMember member = QMember.member;
+
+        JPQLQuery<Board> jpqlQuery = from(board);
+        if (type != null && type.contains("w")) {
+            jpqlQuery.leftJoin(member).on(board.writer.eq(member));
+        }
+        return jpqlQuery.select(board.bno)
+                .where(searchCondition(type, keyword), older ? board.bno.lt(bno) : board.bno.gt(bno))
+                .orderBy(older ? board.bno.desc() : board.bno.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    // BoardDTO 생성자 순서: bno, title, content, writerEmail, writerName, regDate, modDate, replyCount, viewCount
+    private static ConstructorExpression<BoardDTO> boardDTO(QBoard board, QMember member) {
+        return Projections.constructor(BoardDTO.class,
+                board.bno, board.title, board.content, member.email, member.nickname,
+                board.regDate, board.modDate, board.replyCount, board.viewCount);
+    }
+
+    private BooleanBuilder searchCondition(String type, String keyword) {
+        QBoard board = QBoard.board;
+        QMember member = QMember.member;
+
+        BooleanBuilder booleanBuilder = new BooleanBuilder();
+        BooleanExpression expression = board.bno.gt(0L);
+
+        booleanBuilder.and(expression);
+
+        if (type != null) {
+            String[] typeArr = type.split("");
+            BooleanBuilder conditionBuilder = new BooleanBuilder();
+
+            for (String t : typeArr) {
+                switch (t) {
+                    case "t":
+                        conditionBuilder.or(board.title.contains(keyword));
+                        break;
+                    case "w":
+                        conditionBuilder.or(member.email.contains(keyword));
+                        break;
+                    case "c":
+                        conditionBuilder.or(board.content.contains(keyword));
+                }
+            }
+            booleanBuilder.and(conditionBuilder);
+        }
+        return booleanBuilder;
+    }
+}
@@ -0,0 +1,19 @@
+package org.zerock.guestbook.repository.search;
+
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.zerock.guestbook.dto.GuestbookDTO;
+
+import java.util.List;
+
+public interface SearchGuestbookRepository {
+    // 목록 한 페이지를 GuestbookDTO 로 조회
+    Page<GuestbookDTO> searchPage(Predicate predicate, Pageable pageable);
+
+    // gno <= cursor 인 글을 gno 내림차순으로 size 개 (cursor 가 없으면 최신 글부터)
+    List<GuestbookDTO> seekPage(Predicate predicate, Long cursor, int size);
+
+    // gno 보다 오래된(older) 또는 최신 글 번호만 limit 개 조회
+    List<Long> seekIds(Predicate predicate, Long gno, boolean older, int limit);
+}
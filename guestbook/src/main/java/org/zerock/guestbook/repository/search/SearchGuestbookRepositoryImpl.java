@@ -0,0 +1,86 @@
+package org.zerock.guestbook.repository.search;
+
+import com.querydsl.core.types.ConstructorExpression;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.JPQLQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.support.QuerydslRepositorySupport;
+import org.zerock.guestbook.dto.GuestbookDTO;
+import org.zerock.guestbook.entity.Guestbook;
+import org.zerock.guestbook.entity.QGuestbook;
+
+import java.util.List;
+
+public class SearchGuestbookRepositoryImpl extends QuerydslRepositorySupport implements SearchGuestbookRepository {
+
+    public SearchGuestbookRepositoryImpl() {
+        super(Guestbook.class);
+    }
+
+    // 엔티티 대신 GuestbookDTO 로 바로 읽어 영속성 컨텍스트와 변환 람다를 거치지 않음
+    @Override
+    public Page<GuestbookDTO> searchPage(Predicate predicate, Pageable pageable) {
+        QGuestbook guestbook = QGuestbook.guestbook;
+
+        JPQLQuery<GuestbookDTO> query = from(guestbook)
+                .select(guestbookDTO(guestbook))
+                .where(predicate);
+
+        PathBuilder<Guestbook> orderByExpression = new PathBuilder<>(Guestbook.class, "guestbook");
+        pageable.getSort().stream().forEach(order -> {
+            Order direction = order.isAscending() ? Order.ASC : Order.DESC;
+            query.orderBy(new OrderSpecifier<>(direction, orderByExpression.getComparable(order.getProperty(), Comparable.class)));
+        });
+
+        List<GuestbookDTO> result = query.offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        Long count = from(guestbook)
+                .select(guestbook.count())
+                .where(predicate)
+                .fetchOne();
+        return new PageImpl<>(result, pageable, count == null ? 0 : count);
+    }
+
+    @Override
+    public List<GuestbookDTO> seekPage(Predicate predicate, Long cursor, int size) {
+        QGuestbook guestbook = QGuestbook.guestbook;
+
+        JPQLQuery<GuestbookDTO> query = from(guestbook)
+                .select(guestbookDTO(guestbook))
+                .where(predicate);
+        if (cursor != null) {
+            query.where(guestbook.gno.loe(cursor));
+        }
+        return query.orderBy(guestbook.gno.desc())
+                .limit(size)
+                .fetch();
+    }
+
+    // PK 만 읽으므로 인덱스 범위 스캔으로 끝남
+    @Override
+    public List<Long> seekIds(Predicate predicate, Long gno, boolean older, int limit) {
+        QGuestbook guestbook = QGuestbook.guestbook;
+
+        return from(guestbook)
+                .select(guestbook.gno)
+                .where(predicate, older ? guestbook.gno.lt(gno) : guestbook.gno.gt(gno))
+                .orderBy(older ? guestbook.gno.desc() : guestbook.gno.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    // GuestbookDTO 생성자 순서: gno, title, content, writer, regDate, modDate
+    private static ConstructorExpression<GuestbookDTO> guestbookDTO(QGuestbook guestbook) {
+        return Projections.constructor(GuestbookDTO.class,
+                guestbook.gno, guestbook.title, guestbook.content, guestbook.writer,
+                guestbook.regDate, guestbook.modDate);
+    }
+}
@@ -0,0 +1,418 @@
+package org.zerock.guestbook.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// 메모리 역색인 (필드별)
+// 정규화한 문자열의 모든 글자 위치에 2-gram 을 색인 (단어의 마지막 글자는 1-gram)하고 위치를 함께 저장
+// -> 형태소 분석 없이 한글 부분 문자열, 구("..."), 접두어(단어*) 검색을 색인만으로 처리
+// 검색어의 각 절은 AND, 절 안에서는 지정한 필드 중 하나만 맞으면 됨. 점수는 BM25
+public class InvertedIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Pattern QUERY_PATTERN = Pattern.compile("\"([^\"]*)\"|(\\S+)");
+
+    private final Map<String, Field> fields = new LinkedHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 필드 이름 -> 가중치
+    public InvertedIndex(Map<String, Double> fieldBoosts) {
+        fieldBoosts.forEach((name, boost) -> fields.put(name, new Field(boost)));
+    }
+
+    // 전달한 필드만 다시 색인 (나머지 필드는 그대로)
+    public void index(Long id, Map<String, String> values) {
+        lock.writeLock().lock();
+        try {
+            values.forEach((name, value) -> field(name).put(id, normalize(value)));
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 이미 색인된 문서는 건너뜀 (전체 재색인 중에 들어온 최신 변경을 덮어쓰지 않기 위함)
+    public boolean indexIfAbsent(Long id, Map<String, String> values) {
+        lock.writeLock().lock();
+        try {
+            for (Field field : fields.values()) {
+                if (field.texts.containsKey(id)) {
+                    return false;
+                }
+            }
+            values.forEach((name, value) -> field(name).put(id, normalize(value)));
+            return true;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            for (Field field : fields.values()) {
+                field.remove(id);
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            int size = 0;
+            for (Field field : fields.values()) {
+                size = Math.max(size, field.texts.size());
+            }
+            return size;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 점수 내림차순(같으면 id 내림차순)으로 정렬한 문서 id
+    public List<Long> search(String keyword, Collection<String> fieldNames) {
+        List<Clause> clauses = parse(keyword);
+        if (clauses.isEmpty() || fieldNames.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Double> scores = null;
+        lock.readLock().lock();
+        try {
+            for (Clause clause : clauses) {
+                Map<Long, Double> clauseScores = new HashMap<>();
+                for (String name : fieldNames) {
+                    field(name).score(clause, clauseScores);
+                }
+                if (scores == null) {
+                    scores = clauseScores;
+                }
+                else {
+                    // 모든 절을 만족하는 문서만 남김
+                    Map<Long, Double> previous = scores;
+                    scores = new HashMap<>();
+                    for (Map.Entry<Long, Double> entry : clauseScores.entrySet()) {
+                        Double score = previous.get(entry.getKey());
+                        if (score != null) {
+                            scores.put(entry.getKey(), score + entry.getValue());
+                        }
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> {
+            int compare = Double.compare(b.getValue(), a.getValue());
+            return compare != 0 ? compare : Long.compare(b.getKey(), a.getKey());
+        });
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Double> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    private Field field(String name) {
+        Field field = fields.get(name);
+        if (field == null) {
+            throw new IllegalArgumentException("색인하지 않는 필드입니다: " + name);
+        }
+        return field;
+    }
+
+    // 소문자로 바꾸고 글자/숫자가 아닌 문자는 공백 하나로 합침
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+                space = false;
+            }
+            else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int length = sb.length();
+        return length > 0 && sb.charAt(length - 1) == ' ' ? sb.substring(0, length - 1) : sb.toString();
+    }
+
+    // "구 검색" / 접두어* / 일반 단어(부분 문자열)
+    static List<Clause> parse(String keyword) {
+        List<Clause> clauses = new ArrayList<>();
+        if (keyword == null) {
+            return clauses;
+        }
+        Matcher matcher = QUERY_PATTERN.matcher(keyword);
+        while (matcher.find()) {
+            boolean phrase = matcher.group(1) != null;
+            String raw = phrase ? matcher.group(1) : matcher.group(2);
+            boolean prefix = !phrase && raw.endsWith("*");
+            String text = normalize(prefix ? raw.substring(0, raw.length() - 1) : raw);
+            if (text.isEmpty()) {
+                continue;
+            }
+            // 따옴표 없는 단어에 특수문자가 섞여 여러 단어로 나뉘면 구로 취급
+            clauses.add(new Clause(text, prefix, phrase || text.indexOf(' ') >= 0));
+        }
+        return clauses;
+    }
+
+    // 위치 코드: (글자 위치 << 1) | 단어 시작 여부
+    private static int code(int offset, boolean wordStart) {
+        return offset << 1 | (wordStart ? 1 : 0);
+    }
+
+    static class Clause {
+        final String text;
+        final boolean prefix;
+        final boolean phrase;
+        // 검색어 안의 위치별로 맞아야 하는 조건
+        final List<Term> terms = new ArrayList<>();
+
+        Clause(String text, boolean prefix, boolean phrase) {
+            this.text = text;
+            this.prefix = prefix;
+            this.phrase = phrase;
+
+            int length = text.length();
+            for (int i = 0; i < length; i++) {
+                if (text.charAt(i) == ' ') {
+                    continue;
+                }
+                boolean wordStart = i == 0 || text.charAt(i - 1) == ' ';
+                boolean wordEnd = i + 1 == length || text.charAt(i + 1) == ' ';
+                // 구의 두 번째 단어부터, 접두어 검색의 첫 단어는 문서에서도 단어 시작이어야 함
+                boolean requireStart = wordStart && (i > 0 || prefix);
+
+                if (!wordEnd) {
+                    terms.add(new Term(i, text.substring(i, i + 2), true, requireStart));
+                }
+                else if (i + 1 < length) {
+                    // 구에서 뒤에 단어가 더 있으면 문서에서도 이 글자에서 단어가 끝나야 함 (1-gram)
+                    terms.add(new Term(i, text.substring(i, i + 1), true, requireStart));
+                }
+                else if (wordStart) {
+                    // 한 글자 단어: 이 글자로 시작하는 모든 gram
+                    terms.add(new Term(i, text.substring(i, i + 1), false, requireStart));
+                }
+            }
+        }
+    }
+
+    static class Term {
+        final int offset;
+        final String gram;
+        final boolean exact;
+        final boolean requireStart;
+
+        Term(int offset, String gram, boolean exact, boolean requireStart) {
+            this.offset = offset;
+            this.gram = gram;
+            this.exact = exact;
+            this.requireStart = requireStart;
+        }
+    }
+
+    private static class Field {
+        final double boost;
+        // gram -> (문서 id -> 정렬된 위치 코드)
+        final NavigableMap<String, Map<Long, int[]>> postings = new TreeMap<>();
+        // 문서 id -> 정규화한 원문 (삭제/재색인 시 기존 gram 을 찾기 위해 보관)
+        final Map<Long, String> texts = new HashMap<>();
+        long totalLength;
+
+        Field(double boost) {
+            this.boost = boost;
+        }
+
+        void put(Long id, String text) {
+            remove(id);
+            if (text.isEmpty()) {
+                return;
+            }
+            texts.put(id, text);
+            totalLength += length(text);
+            tokenize(text).forEach((gram, codes) -> postings
+                    .computeIfAbsent(gram, key -> new HashMap<>())
+                    .put(id, codes));
+        }
+
+        void remove(Long id) {
+            String text = texts.remove(id);
+            if (text == null) {
+                return;
+            }
+            totalLength -= length(text);
+            for (String gram : tokenize(text).keySet()) {
+                Map<Long, int[]> docs = postings.get(gram);
+                if (docs != null) {
+                    docs.remove(id);
+                    if (docs.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+
+        // 절에 맞는 문서마다 BM25 점수를 더함 (한 문서가 여러 필드에서 맞으면 합산)
+        void score(Clause clause, Map<Long, Double> scores) {
+            if (texts.isEmpty() || clause.terms.isEmpty()) {
+                return;
+            }
+            List<Map<Long, int[]>> lists = new ArrayList<>(clause.terms.size());
+            for (Term term : clause.terms) {
+                Map<Long, int[]> docs = term.exact ? postings.get(term.gram) : startingWith(term.gram);
+                if (docs == null || docs.isEmpty()) {
+                    return;
+                }
+                lists.add(docs);
+            }
+
+            // 가장 짧은 목록의 문서만 후보로 확인
+            Map<Long, int[]> smallest = lists.get(0);
+            for (Map<Long, int[]> docs : lists) {
+                if (docs.size() < smallest.size()) {
+                    smallest = docs;
+                }
+            }
+
+            Map<Long, Integer> frequencies = new HashMap<>();
+            for (Long id : smallest.keySet()) {
+                int frequency = frequency(clause, lists, id);
+                if (frequency > 0) {
+                    frequencies.put(id, frequency);
+                }
+            }
+            if (frequencies.isEmpty()) {
+                return;
+            }
+
+            int documents = texts.size();
+            int df = frequencies.size();
+            double idf = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+            double averageLength = (double) totalLength / documents;
+            for (Map.Entry<Long, Integer> entry : frequencies.entrySet()) {
+                double tf = entry.getValue();
+                double lengthNorm = 1 - B + B * length(texts.get(entry.getKey())) / averageLength;
+                double score = boost * idf * tf * (K1 + 1) / (tf + K1 * lengthNorm);
+                scores.merge(entry.getKey(), score, Double::sum);
+            }
+        }
+
+        // 첫 gram 의 각 위치를 기준으로 나머지 gram 이 상대 위치에 모두 있는 횟수
+        private int frequency(Clause clause, List<Map<Long, int[]>> lists, Long id) {
+            int[][] codes = new int[lists.size()][];
+            for (int i = 0; i < lists.size(); i++) {
+                codes[i] = lists.get(i).get(id);
+                if (codes[i] == null) {
+                    return 0;
+                }
+            }
+
+            int frequency = 0;
+            Term first = clause.terms.get(0);
+            for (int code : codes[0]) {
+                if (first.requireStart && (code & 1) == 0) {
+                    continue;
+                }
+                int base = (code >> 1) - first.offset;
+                boolean matched = true;
+                for (int i = 1; i < codes.length && matched; i++) {
+                    Term term = clause.terms.get(i);
+                    int offset = base + term.offset;
+                    matched = Arrays.binarySearch(codes[i], code(offset, true)) >= 0
+                            || (!term.requireStart && Arrays.binarySearch(codes[i], code(offset, false)) >= 0);
+                }
+                if (matched) {
+                    frequency++;
+                }
+            }
+            return frequency;
+        }
+
+        // 한 글자로 시작하는 gram 들의 위치를 문서별로 합침
+        private Map<Long, int[]> startingWith(String prefix) {
+            NavigableMap<String, Map<Long, int[]>> range =
+                    postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+            if (range.size() == 1) {
+                return range.firstEntry().getValue();
+            }
+            Map<Long, int[]> merged = new HashMap<>();
+            for (Map<Long, int[]> docs : range.values()) {
+                docs.forEach((id, codes) -> merged.merge(id, codes, (a, b) -> {
+                    int[] union = Arrays.copyOf(a, a.length + b.length);
+                    System.arraycopy(b, 0, union, a.length, b.length);
+                    Arrays.sort(union);
+                    return union;
+                }));
+            }
+            return merged;
+        }
+
+        // 공백을 뺀 글자 수
+        private static int length(String text) {
+            int length = 0;
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) != ' ') {
+                    length++;
+                }
+            }
+            return length;
+        }
+
+        // gram -> 위치 코드 (오름차순)
+        private static Map<String, int[]> tokenize(String text) {
+            Map<String, List<Integer>> grams = new HashMap<>();
+            int length = text.length();
+            for (int i = 0; i < length; i++) {
+                if (text.charAt(i) == ' ') {
+                    continue;
+                }
+                boolean wordStart = i == 0 || text.charAt(i - 1) == ' ';
+                boolean wordEnd = i + 1 == length || text.charAt(i + 1) == ' ';
+                String gram = wordEnd ? text.substring(i, i + 1) : text.substring(i, i + 2);
+                grams.computeIfAbsent(gram, key -> new ArrayList<>()).add(code(i, wordStart));
+            }
+
+            Map<String, int[]> result = new HashMap<>(grams.size() * 2);
+            grams.forEach((gram, codes) -> {
+                int[] array = new int[codes.size()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = codes.get(i);
+                }
+                result.put(gram, array);
+            });
+            return result;
+        }
+    }
+}
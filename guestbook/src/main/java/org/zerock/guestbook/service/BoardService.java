@@ -1,42 +1,47 @@
-//package org.zerock.guestbook.service;
-//
-//import org.zerock.guestbook.dto.BoardDTO;
-//import org.zerock.guestbook.dto.PageRequestDTO;
-//import org.zerock.guestbook.dto.PageResultDTO;
-//import org.zerock.guestbook.entity.Board;
-//import org.zerock.guestbook.entity.Member;
-//
-//public interface BoardService {
-//    Long register(BoardDTO dto);
-//    PageResultDTO<BoardDTO, Object[]> getList(PageRequestDTO pageRequestDTO);
-//    BoardDTO get(Long bno);
-//    void removeWithReplies(Long bno); // 댓글 삭제 기능
-//    void modify(BoardDTO boardDTO); // 게시글 수정 기능
-//
-//    default Board dtoToEntity(BoardDTO dto) {
-//        Member member = Member.builder()
-//                .email(dto.getWriterEmail())
-//                .build();
-//
-//        return Board.builder()
-//                .bno(dto.getBno())
-//                .title(dto.getTitle())
-//                .content(dto.getContent())
-//                .writer(member)
-//                .build();
-//    }
-//
-//    default BoardDTO entityToDTO(Board board, Member member, Long replyCount) {
-//
-//        return BoardDTO.builder()
-//                .bno(board.getBno())
-//                .title(board.getTitle())
-//                .content(board.getContent())
-//                .regDate(board.getRegDate())
-//                .modDate(board.getModDate())
-//                .writerEmail(member.getEmail())
-//                .writerName(member.getName())
-//                .replyCount(replyCount.intValue())
-//                .build();
-//    }
-//}
+package org.zerock.guestbook.service;
+
+import org.zerock.guestbook.dto.BoardDTO;
+import org.zerock.guestbook.dto.PageRequestDTO;
+import org.zerock.guestbook.dto.PageResultDTO;
+import org.zerock.guestbook.entity.Board;
+import org.zerock.guestbook.entity.Member;
+
+import java.util.function.Consumer;
+
+public interface BoardService {
+    Long register(BoardDTO dto);
+    PageResultDTO<BoardDTO, BoardDTO> getList(PageRequestDTO pageRequestDTO);
+    void exportList(Consumer<BoardDTO> consumer); // 전체 글을 한 건씩 consumer 로 넘김 (메모리에 모으지 않음)
+    BoardDTO get(Long bno);
+    void removeWithReplies(Long bno); // 댓글 삭제 기능
+    void modify(BoardDTO boardDTO); // 게시글 수정 기능
+
+    default Board dtoToEntity(BoardDTO dto) {
+        Member member = Member.builder()
+                .email(dto.getWriterEmail())
+                .build();
+
+        return Board.builder()
+                .bno(dto.getBno())
+                .title(dto.getTitle())
+                .content(dto.getContent())
+                .writer(member)
+                .build();
+    }
+
+    // 댓글 수는 Board.replyCount 에 미리 계산되어 있음
+    default BoardDTO entityToDTO(Board board, Member member) {
+
+        return BoardDTO.builder()
+                .bno(board.getBno())
+                .title(board.getTitle())
+                .content(board.getContent())
+                .regDate(board.getRegDate())
+                .modDate(board.getModDate())
+                .writerEmail(member != null ? member.getEmail() : null)
+                .writerName(member != null ? member.getNickname() : null)
+                .replyCount(board.getReplyCount())
+                .viewCount(board.getViewCount())
+                .build();
+    }
+}
@@ -4,8 +4,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.zerock.guestbook.cache.CacheInvalidationBroadcaster;
+import org.zerock.guestbook.cache.ReadCacheConfig;
+import org.zerock.guestbook.cache.VersionedCache;
 import org.springframework.transaction.annotation.Transactional;
 import org.zerock.guestbook.dto.BoardDTO;
 import org.zerock.guestbook.dto.PageRequestDTO;
@@ -15,8 +20,14 @@ import org.zerock.guestbook.entity.Member;
 import org.zerock.guestbook.repository.BoardRepository;
 import org.zerock.guestbook.repository.ReplyRepository;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -24,42 +35,113 @@ import java.util.function.Function;
 public class BoardServiceImpl implements BoardService{
     private final BoardRepository repository;
     private final ReplyRepository replyRepository;
+    private final SearchIndexService searchIndexService;
+    private final VersionedCache<BoardDTO> boardReadCache;
+    private final CacheInvalidationBroadcaster cacheInvalidationBroadcaster;
+    private final BoardViewCounter boardViewCounter;
 
     @Override
     public Long register(BoardDTO dto) {
         log.info(dto);
         Board board = dtoToEntity(dto);
         repository.save(board);
+        searchIndexService.indexBoard(board.getBno(), board.getTitle(), board.getContent(), dto.getWriterEmail());
         return board.getBno();
     }
 
+    // 목록은 엔티티 대신 BoardDTO 로 바로 조회
     @Override
-    public PageResultDTO<BoardDTO, Object[]> getList(PageRequestDTO pageRequestDTO) {
+    public PageResultDTO<BoardDTO, BoardDTO> getList(PageRequestDTO pageRequestDTO) {
         log.info(pageRequestDTO);
-        Function<Object[], BoardDTO> fn = (en -> entityToDTO((Board)en[0], (Member)en[1], (Long)en[2]));
 
-//        Page<Object[]> result = repository.getBoardWithReplyCount(
-//                pageRequestDTO.getPageable(Sort.by("bno").descending()));
+        if (pageRequestDTO.isKeywordSearch() && searchIndexService.isReady()) {
+            return getIndexedSearchList(pageRequestDTO);
+        }
+        if (pageRequestDTO.isSeek()) {
+            return getSeekList(pageRequestDTO);
+        }
 
-        Page<Object[]> result = repository.searchPage(
+        Page<BoardDTO> result = repository.searchPage(
                 pageRequestDTO.getType(),
                 pageRequestDTO.getKeyword(),
                 pageRequestDTO.getPageable(Sort.by("bno").descending()));
 
-        return new PageResultDTO<>(result, fn);
+        return new PageResultDTO<>(result);
+    }
+
+    // 검색어가 있으면 전문 검색 색인에서 점수 순 bno 를 얻고, 해당 페이지의 글만 조회
+    private PageResultDTO<BoardDTO, BoardDTO> getIndexedSearchList(PageRequestDTO pageRequestDTO) {
+        Pageable pageable = pageRequestDTO.getPageable(Sort.by("bno").descending());
+        List<Long> hits = searchIndexService.searchBoard(pageRequestDTO.getType(), pageRequestDTO.getKeyword());
+
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        int to = Math.min(from + pageable.getPageSize(), hits.size());
+        List<Long> bnos = hits.subList(from, to);
+
+        Map<Long, BoardDTO> found = new HashMap<>();
+        if (!bnos.isEmpty()) {
+            for (BoardDTO dto : repository.getBoardsByBnos(bnos)) {
+                found.put(dto.getBno(), dto);
+            }
+        }
+        List<BoardDTO> content = new ArrayList<>(bnos.size());
+        for (Long bno : bnos) {
+            BoardDTO dto = found.get(bno);
+            if (dto != null) {
+                content.add(dto);
+            }
+        }
+        return new PageResultDTO<>(new PageImpl<>(content, pageable, hits.size()));
+    }
+
+    // 키셋 페이징: count 쿼리 대신 현재 페이지 앞뒤로 페이지 창에 필요한 만큼의 bno 만 조회
+    private PageResultDTO<BoardDTO, BoardDTO> getSeekList(PageRequestDTO pageRequestDTO) {
+        String type = pageRequestDTO.getType();
+        String keyword = pageRequestDTO.getKeyword();
+
+        List<BoardDTO> content = repository.seekPage(type, keyword, pageRequestDTO.getCursor(), pageRequestDTO.getSize());
+
+        List<Long> newerIds = Collections.emptyList();
+        List<Long> olderIds = Collections.emptyList();
+        if (!content.isEmpty()) {
+            if (pageRequestDTO.getPage() > 1) {
+                Long firstBno = content.get(0).getBno();
+                newerIds = repository.seekIds(type, keyword, firstBno, false, pageRequestDTO.newerProbeSize());
+            }
+            if (content.size() == pageRequestDTO.getSize()) {
+                Long lastBno = content.get(content.size() - 1).getBno();
+                olderIds = repository.seekIds(type, keyword, lastBno, true, pageRequestDTO.olderProbeSize());
+            }
+        }
+        return new PageResultDTO<>(content, pageRequestDTO, newerIds, olderIds);
+    }
+
+    // Stream 은 트랜잭션 안에서만 읽을 수 있음
+    @Transactional(readOnly = true)
+    @Override
+    public void exportList(Consumer<BoardDTO> consumer) {
+        try (Stream<BoardDTO> boards = repository.streamAll()) {
+            boards.forEach(consumer);
+        }
     }
 
     @Override
     public BoardDTO get(Long bno) {
-        Object[] arr = (Object[]) repository.getBoardByBno(bno);
-        return entityToDTO((Board)arr[0], (Member)arr[1], (long)arr[2]);
+        return boardReadCache.get(bno, key -> {
+            Object[] arr = (Object[]) repository.getBoardByBno(key);
+            return arr == null ? null : entityToDTO((Board)arr[0], (Member)arr[1]);
+        });
     }
 
+    // 게시글이 함께 삭제되므로 replyCount 는 따로 갱신하지 않음
     @Transactional
     @Override
     public void removeWithReplies(Long bno) {
         replyRepository.deleteByBno(bno);
         repository.deleteById(bno);
+        searchIndexService.removeBoard(bno);
+        cacheInvalidationBroadcaster.invalidate(ReadCacheConfig.BOARD, bno, null);
+        boardViewCounter.remove(bno);
     }
 
     @Override
@@ -69,7 +151,9 @@ public class BoardServiceImpl implements BoardService{
             Board board = optionalBoard.get();
             board.changeTitle(boardDTO.getTitle());
             board.changeContent(boardDTO.getContent());
-            repository.save(board);
+            Board saved = repository.save(board);
+            searchIndexService.indexBoard(saved.getBno(), saved.getTitle(), saved.getContent(), null);
+            cacheInvalidationBroadcaster.invalidate(ReadCacheConfig.BOARD, saved.getBno(), saved.getModDate());
         } else {
             throw new IllegalArgumentException("Board not found with bno: " + boardDTO.getBno());
         }
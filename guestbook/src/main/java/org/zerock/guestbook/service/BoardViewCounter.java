@@ -0,0 +1,351 @@
+package org.zerock.guestbook.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.zerock.guestbook.repository.BoardRepository;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// 게시글 조회 수
+// 조회마다 UPDATE 하면 인기 글 한 행에 잠금이 몰리므로 bno 별 LongAdder 에 모아 두었다가
+// flushMillis 마다 증가분만 한 트랜잭션에서 JDBC batch 로 더함
+// 반영에 실패한 증가분은 메모리에 남아 다음 주기에 다시 시도하므로, 서버가 죽을 때 잃는 조회 수는 한 주기 분량
+// 같은 클라이언트가 dedup 구간 안에 다시 읽은 것은 세지 않음
+// 조회 수 상위 topSize 개는 flush 때 바뀐 글만 반영해 유지 (다른 서버에서 늘어난 조회 수는 그 글을 이 서버가 flush 할 때 반영됨)
+@Component
+@Log4j2
+public class BoardViewCounter {
+    private static final int FLUSH_CHUNK = 1000;
+
+    private final BoardRepository boardRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long dedupNanos;
+    private final int dedupMaxSize;
+    private final int topSize;
+    private final int maxTracked;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    // bno:클라이언트 -> 만료 시각
+    private final Map<String, Long> recentViews = new ConcurrentHashMap<>();
+    // 추적 대상에서 뺀 카운터. 빼는 순간 증가 중이던 요청이 있을 수 있어 남은 값을 한 번 더 반영한 뒤 버림 (flush 안에서만 사용)
+    private final Map<Counter, Long> retired = new IdentityHashMap<>();
+
+    // 조회 수 내림차순, 같으면 bno 오름차순
+    private final TreeSet<Ranked> ranking = new TreeSet<>(
+            Comparator.comparingLong((Ranked ranked) -> ranked.views).reversed().thenComparingLong(ranked -> ranked.bno));
+    private final Map<Long, Ranked> rankedByBno = new HashMap<>();
+    // 순위에 있던 글이 삭제되면 빈자리를 DB 에서 다시 채움
+    private volatile boolean rankingStale = true;
+
+    private final LongAdder counted = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "board-view-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BoardViewCounter(BoardRepository boardRepository, JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${board.view.flush-ms}") long flushMillis,
+                            @Value("${board.view.dedup-seconds}") long dedupSeconds,
+                            @Value("${board.view.dedup-max-size}") int dedupMaxSize,
+                            @Value("${board.view.top-size}") int topSize,
+                            @Value("${board.view.max-tracked}") int maxTracked) {
+        this.boardRepository = boardRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dedupNanos = TimeUnit.SECONDS.toNanos(dedupSeconds);
+        this.dedupMaxSize = dedupMaxSize;
+        this.topSize = topSize;
+        this.maxTracked = maxTracked;
+        flusher.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // client 가 null 이면 중복 확인 없이 셈. 센 경우 true
+    public boolean recordView(Long bno, String client) {
+        if (client != null && dedupNanos > 0 && isDuplicate(bno + ":" + client)) {
+            duplicates.increment();
+            return false;
+        }
+        counters.computeIfAbsent(bno, key -> new Counter()).pending.increment();
+        counted.increment();
+        return true;
+    }
+
+    // DB 에서 읽은 조회 수(캐시된 값일 수 있음)에 아직 반영되지 않은 증가분을 더함
+    public long getViewCount(Long bno, long stored) {
+        Counter counter = counters.get(bno);
+        if (counter == null) {
+            return stored;
+        }
+        return Math.max(stored, counter.total) + counter.pending.sum();
+    }
+
+    // bno -> 조회 수 (많은 순)
+    public Map<Long, Long> getTopViewed() {
+        Map<Long, Long> result = new LinkedHashMap<>();
+        synchronized (ranking) {
+            for (Ranked ranked : ranking) {
+                result.put(ranked.bno, ranked.views);
+            }
+        }
+        return result;
+    }
+
+    // 게시글 삭제 시 (커밋 후) 쌓인 증가분을 버리고 순위에서 제거
+    public void remove(Long bno) {
+        afterCommit(() -> {
+            counters.remove(bno);
+            synchronized (ranking) {
+                Ranked ranked = rankedByBno.remove(bno);
+                if (ranked != null) {
+                    ranking.remove(ranked);
+                    rankingStale = true;
+                }
+            }
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        long pending = 0;
+        for (Counter counter : counters.values()) {
+            pending += counter.pending.sum();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("counted", counted.sum());
+        stats.put("duplicates", duplicates.sum());
+        stats.put("pending", pending);
+        stats.put("flushed", flushed.sum());
+        stats.put("flushes", flushes.sum());
+        stats.put("failures", failures.sum());
+        stats.put("tracked", counters.size());
+        stats.put("dedupEntries", recentViews.size());
+        return stats;
+    }
+
+    private boolean isDuplicate(String key) {
+        long now = System.nanoTime();
+        Long expiresAt = recentViews.get(key);
+        if (expiresAt != null && expiresAt - now > 0) {
+            return true;
+        }
+        Long next = now + dedupNanos;
+        if (expiresAt == null) {
+            // 너무 많으면 기록하지 않고 셈 (만료된 항목은 flush 때 정리)
+            if (recentViews.size() >= dedupMaxSize) {
+                return false;
+            }
+            return recentViews.putIfAbsent(key, next) != null;
+        }
+        return !recentViews.replace(key, expiresAt, next);
+    }
+
+    // 주기 작업, 종료 시 호출, 테스트의 직접 호출이 겹치면 같은 증가분을 두 번 더하고 두 번 빼게 되므로 한 번에 하나만 실행
+    synchronized void flush() {
+        // bno 순으로 갱신해 여러 서버의 flush 가 서로 다른 순서로 행을 잠그지 않게 함
+        Map<Long, Long> deltas = new TreeMap<>();
+        Map<Counter, Long> drained = new IdentityHashMap<>();
+        counters.forEach((bno, counter) -> {
+            if (!collect(bno, counter, deltas, drained)) {
+                counter.idleFlushes++;
+            }
+            else {
+                counter.idleFlushes = 0;
+            }
+        });
+        retired.forEach((counter, bno) -> collect(bno, counter, deltas, drained));
+
+        if (!deltas.isEmpty()) {
+            try {
+                Map<Long, Long> totals = transactionTemplate.execute(status -> write(deltas));
+                // 읽은 값만큼만 빼므로 그 사이 들어온 조회는 남음
+                drained.forEach((counter, delta) -> counter.pending.add(-delta));
+                deltas.values().forEach(flushed::add);
+                flushes.increment();
+                applyTotals(totals);
+            }
+            catch (RuntimeException e) {
+                failures.increment();
+                log.warn("board view flush failed: " + e.getMessage());
+            }
+        }
+
+        retired.keySet().removeIf(counter -> counter.pending.sum() == 0);
+        long now = System.nanoTime();
+        recentViews.values().removeIf(expiresAt -> expiresAt - now <= 0);
+        retireIdle();
+        if (rankingStale) {
+            reloadRanking();
+        }
+    }
+
+    private boolean collect(Long bno, Counter counter, Map<Long, Long> deltas, Map<Counter, Long> drained) {
+        long delta = counter.pending.sum();
+        if (delta == 0) {
+            return false;
+        }
+        deltas.merge(bno, delta, Long::sum);
+        drained.put(counter, delta);
+        return true;
+    }
+
+    // 증가분을 더하고 갱신된 글의 현재 조회 수를 읽어 옴
+    private Map<Long, Long> write(Map<Long, Long> deltas) {
+        Map<Long, Long> totals = new HashMap<>();
+        List<Long> bnos = new ArrayList<>(deltas.keySet());
+        for (int from = 0; from < bnos.size(); from += FLUSH_CHUNK) {
+            List<Long> chunk = bnos.subList(from, Math.min(from + FLUSH_CHUNK, bnos.size()));
+            List<Object[]> args = new ArrayList<>(chunk.size());
+            for (Long bno : chunk) {
+                args.add(new Object[]{deltas.get(bno), bno});
+            }
+            jdbcTemplate.batchUpdate("update board set view_count = view_count + ? where bno = ?", args);
+            for (Object[] row : boardRepository.getViewCounts(chunk)) {
+                totals.put((Long) row[0], (Long) row[1]);
+            }
+        }
+        return totals;
+    }
+
+    private void applyTotals(Map<Long, Long> totals) {
+        totals.forEach((bno, views) -> {
+            Counter counter = counters.get(bno);
+            if (counter != null) {
+                counter.total = views;
+            }
+        });
+
+        synchronized (ranking) {
+            totals.forEach((bno, views) -> {
+                Ranked previous = rankedByBno.remove(bno);
+                if (previous != null) {
+                    ranking.remove(previous);
+                }
+                Ranked ranked = new Ranked(bno, views);
+                if (ranking.size() < topSize || ranking.comparator().compare(ranked, ranking.last()) < 0) {
+                    ranking.add(ranked);
+                    rankedByBno.put(bno, ranked);
+                    if (ranking.size() > topSize) {
+                        rankedByBno.remove(ranking.pollLast().bno);
+                    }
+                }
+            });
+        }
+    }
+
+    // 추적 중인 글이 많으면 최근 조회가 없던 것부터 maxTracked 의 90% 까지 뺌
+    private void retireIdle() {
+        if (counters.size() <= maxTracked) {
+            return;
+        }
+        List<Map.Entry<Long, Counter>> idle = new ArrayList<>();
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            if (entry.getValue().idleFlushes > 0) {
+                idle.add(entry);
+            }
+        }
+        idle.sort((a, b) -> Integer.compare(b.getValue().idleFlushes, a.getValue().idleFlushes));
+
+        int target = (int) (maxTracked * 0.9);
+        for (Map.Entry<Long, Counter> entry : idle) {
+            if (counters.size() <= target) {
+                return;
+            }
+            if (counters.remove(entry.getKey(), entry.getValue())) {
+                retired.put(entry.getValue(), entry.getKey());
+            }
+        }
+    }
+
+    private void reloadRanking() {
+        rankingStale = false;
+        try {
+            List<Object[]> rows = boardRepository.getTopViewed(PageRequest.of(0, topSize));
+            synchronized (ranking) {
+                ranking.clear();
+                rankedByBno.clear();
+                for (Object[] row : rows) {
+                    Ranked ranked = new Ranked((Long) row[0], (Long) row[1]);
+                    ranking.add(ranked);
+                    rankedByBno.put(ranked.bno, ranked);
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            rankingStale = true;
+            log.warn("board view ranking reload failed: " + e.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        }
+        else {
+            task.run();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 남은 조회 수는 종료 전에 반영
+        flush();
+    }
+
+    private static class Counter {
+        final LongAdder pending = new LongAdder();
+        // 마지막 flush 때 읽은 DB 조회 수
+        volatile long total;
+        // 연속으로 증가분이 없던 flush 횟수 (flush 안에서만 사용)
+        int idleFlushes;
+    }
+
+    private static class Ranked {
+        final Long bno;
+        final long views;
+
+        Ranked(Long bno, long views) {
+            this.bno = bno;
+            this.views = views;
+        }
+    }
+}
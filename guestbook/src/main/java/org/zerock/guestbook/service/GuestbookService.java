@@ -5,12 +5,15 @@ import org.zerock.guestbook.dto.PageRequestDTO;
 import org.zerock.guestbook.dto.PageResultDTO;
 import org.zerock.guestbook.entity.Guestbook;
 
-import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface GuestbookService {
     Long register(GuestbookDTO dto);
 
-    PageResultDTO<GuestbookDTO, Guestbook> getList(PageRequestDTO requestDTO);
+    PageResultDTO<GuestbookDTO, GuestbookDTO> getList(PageRequestDTO requestDTO);
+
+    // 전체 글을 한 건씩 consumer 로 넘김 (메모리에 모으지 않음)
+    void exportList(Consumer<GuestbookDTO> consumer);
 
     default Guestbook dtoToEntity(GuestbookDTO dto) {
         Guestbook entity = Guestbook.builder()
@@ -5,9 +5,14 @@ import com.querydsl.core.types.dsl.BooleanExpression;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.zerock.guestbook.cache.CacheInvalidationBroadcaster;
+import org.zerock.guestbook.cache.ReadCacheConfig;
+import org.zerock.guestbook.cache.VersionedCache;
 import org.zerock.guestbook.dto.GuestbookDTO;
 import org.zerock.guestbook.dto.PageRequestDTO;
 import org.zerock.guestbook.dto.PageResultDTO;
@@ -15,8 +20,14 @@ import org.zerock.guestbook.entity.Guestbook;
 import org.zerock.guestbook.entity.QGuestbook;
 import org.zerock.guestbook.repository.GuestbookRepository;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Log4j2
@@ -24,6 +35,9 @@ import java.util.function.Function;
 public class GuestbookServiceImpl implements GuestbookService{
 
     private final GuestbookRepository repository;
+    private final SearchIndexService searchIndexService;
+    private final VersionedCache<GuestbookDTO> guestbookReadCache;
+    private final CacheInvalidationBroadcaster cacheInvalidationBroadcaster;
 
     @Override
     public Long register(GuestbookDTO dto) {
@@ -33,30 +47,95 @@ public class GuestbookServiceImpl implements GuestbookService{
         log.info(entity);
 
         repository.save(entity);
+        searchIndexService.indexGuestbook(entity);
 
         return entity.getGno();
     }
 
+    // 목록은 엔티티 대신 GuestbookDTO 로 바로 조회
     @Override
-    public PageResultDTO<GuestbookDTO, Guestbook> getList(PageRequestDTO requestDTO) {
+    public PageResultDTO<GuestbookDTO, GuestbookDTO> getList(PageRequestDTO requestDTO) {
+        BooleanBuilder booleanBuilder = getSearch(requestDTO);
+
+        if (requestDTO.isKeywordSearch() && searchIndexService.isReady()) {
+            return getIndexedSearchList(requestDTO);
+        }
+        if (requestDTO.isSeek()) {
+            return getSeekList(requestDTO, booleanBuilder);
+        }
+
         Pageable pageable = requestDTO.getPageable(Sort.by("gno").descending());
 
-        BooleanBuilder booleanBuilder = getSearch(requestDTO);
+        Page<GuestbookDTO> result = repository.searchPage(booleanBuilder, pageable);
+        return new PageResultDTO<>(result);
+    }
+
+    // 검색어가 있으면 전문 검색 색인에서 점수 순 gno 를 얻고, 해당 페이지의 글만 조회
+    private PageResultDTO<GuestbookDTO, GuestbookDTO> getIndexedSearchList(PageRequestDTO requestDTO) {
+        Pageable pageable = requestDTO.getPageable(Sort.by("gno").descending());
+        List<Long> hits = searchIndexService.searchGuestbook(requestDTO.getType(), requestDTO.getKeyword());
 
-        Page<Guestbook> result = repository.findAll(booleanBuilder, pageable);
-        Function<Guestbook, GuestbookDTO> fn = (this::entityToDto);
-        return new PageResultDTO<>(result, fn);
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        int to = Math.min(from + pageable.getPageSize(), hits.size());
+        List<Long> gnos = hits.subList(from, to);
+
+        Map<Long, GuestbookDTO> found = new HashMap<>();
+        if (!gnos.isEmpty()) {
+            for (GuestbookDTO dto : repository.getGuestbooksByGnos(gnos)) {
+                found.put(dto.getGno(), dto);
+            }
+        }
+        List<GuestbookDTO> content = new ArrayList<>(gnos.size());
+        for (Long gno : gnos) {
+            GuestbookDTO dto = found.get(gno);
+            if (dto != null) {
+                content.add(dto);
+            }
+        }
+        return new PageResultDTO<>(new PageImpl<>(content, pageable, hits.size()));
+    }
+
+    // 키셋 페이징: count 쿼리 대신 현재 페이지 앞뒤로 페이지 창에 필요한 만큼의 gno 만 조회
+    private PageResultDTO<GuestbookDTO, GuestbookDTO> getSeekList(PageRequestDTO requestDTO, BooleanBuilder booleanBuilder) {
+        List<GuestbookDTO> content = repository.seekPage(booleanBuilder, requestDTO.getCursor(), requestDTO.getSize());
+
+        List<Long> newerIds = Collections.emptyList();
+        List<Long> olderIds = Collections.emptyList();
+        if (!content.isEmpty()) {
+            if (requestDTO.getPage() > 1) {
+                newerIds = repository.seekIds(booleanBuilder, content.get(0).getGno(),
+                        false, requestDTO.newerProbeSize());
+            }
+            if (content.size() == requestDTO.getSize()) {
+                olderIds = repository.seekIds(booleanBuilder, content.get(content.size() - 1).getGno(),
+                        true, requestDTO.olderProbeSize());
+            }
+        }
+        return new PageResultDTO<>(content, requestDTO, newerIds, olderIds);
+    }
+
+    // Stream 은 트랜잭션 안에서만 읽을 수 있음
+    @Transactional(readOnly = true)
+    @Override
+    public void exportList(Consumer<GuestbookDTO> consumer) {
+        try (Stream<GuestbookDTO> guestbooks = repository.streamAll()) {
+            guestbooks.forEach(consumer);
+        }
     }
 
     @Override
     public GuestbookDTO read(Long gno) {
-        Optional<Guestbook> result = repository.findById(gno);
-        return result.map(this::entityToDto).orElse(null);
+        return guestbookReadCache.get(gno, key -> {
+            Optional<Guestbook> result = repository.findById(key);
+            return result.map(this::entityToDto).orElse(null);
+        });
     }
 
     @Override
     public void remove(Long gno) {
         repository.deleteById(gno);
+        searchIndexService.removeGuestbook(gno);
+        cacheInvalidationBroadcaster.invalidate(ReadCacheConfig.GUESTBOOK, gno, null);
     }
 
     @Override
@@ -67,7 +146,9 @@ public class GuestbookServiceImpl implements GuestbookService{
             entity.changeTitle(dto.getTitle());
             entity.changeContent(dto.getContent());
 
-            repository.save(entity);
+            Guestbook saved = repository.save(entity);
+            searchIndexService.indexGuestbook(saved);
+            cacheInvalidationBroadcaster.invalidate(ReadCacheConfig.GUESTBOOK, saved.getGno(), saved.getModDate());
         }
     }
 
@@ -88,10 +169,10 @@ public class GuestbookServiceImpl implements GuestbookService{
             conditionalBuilder.or(qGuestbook.title.contains(keyword));
         }
         if(type.contains("c")) {
-            conditionalBuilder.or(qGuestbook.title.contains(keyword));
+            conditionalBuilder.or(qGuestbook.content.contains(keyword));
         }
         if(type.contains("w")) {
-            conditionalBuilder.or(qGuestbook.title.contains(keyword));
+            conditionalBuilder.or(qGuestbook.writer.contains(keyword));
         }
 
         booleanBuilder.and(conditionalBuilder);
@@ -0,0 +1,99 @@
+package org.zerock.guestbook.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 일괄 삭제 작업의 진행 상황 (작업 스레드가 갱신하고 조회 API 가 읽음)
+public class ModerationJob {
+    public enum Status { WAITING, RUNNING, DONE, FAILED }
+
+    private final Long id;
+    private final String description;
+    private final LocalDateTime requestedAt = LocalDateTime.now();
+    private final AtomicLong deletedBoards = new AtomicLong();
+    private final AtomicLong deletedReplies = new AtomicLong();
+    // 삭제 트랜잭션 수와 그 중 가장 많이 지운 건수 (chunkSize 를 넘지 않아야 함)
+    private final AtomicLong chunks = new AtomicLong();
+    private final AtomicLong maxChunkSize = new AtomicLong();
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private volatile Status status = Status.WAITING;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public ModerationJob(Long id, String description) {
+        this.id = id;
+        this.description = description;
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    void addDeletedBoards(long count) {
+        deletedBoards.addAndGet(count);
+    }
+
+    void addDeletedReplies(long count) {
+        deletedReplies.addAndGet(count);
+    }
+
+    void addChunk(long size) {
+        chunks.incrementAndGet();
+        maxChunkSize.accumulateAndGet(size, Math::max);
+    }
+
+    void finish(Exception e) {
+        status = e == null ? Status.DONE : Status.FAILED;
+        error = e == null ? null : e.getMessage();
+        finishedAt = LocalDateTime.now();
+        finished.countDown();
+    }
+
+    // 작업이 끝날 때까지 대기 (테스트/내부 호출용)
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return finished.await(timeout, unit);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getDeletedBoards() {
+        return deletedBoards.get();
+    }
+
+    public long getDeletedReplies() {
+        return deletedReplies.get();
+    }
+
+    public long getChunks() {
+        return chunks.get();
+    }
+
+    public long getMaxChunkSize() {
+        return maxChunkSize.get();
+    }
+
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
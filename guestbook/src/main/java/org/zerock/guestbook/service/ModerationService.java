@@ -0,0 +1,12 @@
+package org.zerock.guestbook.service;
+
+import java.util.List;
+
+// 관리자 일괄 삭제. 모두 비동기로 실행되고 진행 상황은 getJob 으로 조회
+public interface ModerationService {
+    ModerationJob removeBoards(List<Long> bnos); // 게시글과 댓글 삭제
+    ModerationJob removeBoardsByWriter(String writerEmail);
+    ModerationJob removeReplies(List<Long> rnos);
+    ModerationJob removeRepliesByReplyer(String replyer);
+    ModerationJob getJob(Long jobId);
+}
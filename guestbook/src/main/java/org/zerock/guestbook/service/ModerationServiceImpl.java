@@ -0,0 +1,224 @@
+package org.zerock.guestbook.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.zerock.guestbook.cache.CacheInvalidationBroadcaster;
+import org.zerock.guestbook.cache.ReadCacheConfig;
+import org.zerock.guestbook.repository.BoardRepository;
+import org.zerock.guestbook.repository.ReplyRepository;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 관리자 일괄 삭제
+// 엔티티를 읽지 않고 번호 목록으로 chunkSize 개씩 bulk delete 하며, chunk 마다 별도 트랜잭션
+// -> 영속성 컨텍스트가 커지지 않고 긴 트랜잭션으로 테이블을 오래 잠그지 않음
+// 작업은 전용 스레드 하나에서 순서대로 실행하고 chunk 사이에 throttleMillis 만큼 쉬어 일반 요청이 밀리지 않게 함
+@Service
+@Log4j2
+public class ModerationServiceImpl implements ModerationService {
+    private static final int MAX_JOBS = 100;
+
+    private final BoardRepository boardRepository;
+    private final ReplyRepository replyRepository;
+    private final SearchIndexService searchIndexService;
+    private final CacheInvalidationBroadcaster cacheInvalidationBroadcaster;
+    private final BoardViewCounter boardViewCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long throttleMillis;
+
+    private final AtomicLong jobSequence = new AtomicLong();
+    // 최근 작업 MAX_JOBS 개만 보관
+    private final Map<Long, ModerationJob> jobs = Collections.synchronizedMap(
+            new LinkedHashMap<Long, ModerationJob>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, ModerationJob> eldest) {
+                    return size() > MAX_JOBS;
+                }
+            });
+
+    private final ThreadPoolExecutor worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(10), runnable -> {
+                Thread thread = new Thread(runnable, "moderation");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+
+    public ModerationServiceImpl(BoardRepository boardRepository, ReplyRepository replyRepository,
+                                 SearchIndexService searchIndexService,
+                                 CacheInvalidationBroadcaster cacheInvalidationBroadcaster,
+                                 BoardViewCounter boardViewCounter,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${moderation.chunk-size}") int chunkSize,
+                                 @Value("${moderation.throttle-ms}") long throttleMillis) {
+        this.boardRepository = boardRepository;
+        this.replyRepository = replyRepository;
+        this.searchIndexService = searchIndexService;
+        this.cacheInvalidationBroadcaster = cacheInvalidationBroadcaster;
+        this.boardViewCounter = boardViewCounter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.throttleMillis = throttleMillis;
+    }
+
+    @Override
+    public ModerationJob removeBoards(List<Long> bnos) {
+        List<Long> targets = new ArrayList<>(bnos);
+        return submit("boards: " + targets.size(), job -> {
+            for (int from = 0; from < targets.size(); from += chunkSize) {
+                deleteBoards(job, targets.subList(from, Math.min(from + chunkSize, targets.size())));
+            }
+        });
+    }
+
+    @Override
+    public ModerationJob removeBoardsByWriter(String writerEmail) {
+        return submit("boards by writer: " + writerEmail, job -> {
+            Long lastBno = 0L;
+            while (true) {
+                List<Long> bnos = boardRepository.getBnosByWriterEmail(writerEmail, lastBno, PageRequest.of(0, chunkSize));
+                if (bnos.isEmpty()) {
+                    return;
+                }
+                deleteBoards(job, bnos);
+                lastBno = bnos.get(bnos.size() - 1);
+            }
+        });
+    }
+
+    @Override
+    public ModerationJob removeReplies(List<Long> rnos) {
+        List<Long> targets = new ArrayList<>(rnos);
+        return submit("replies: " + targets.size(), job -> {
+            for (int from = 0; from < targets.size(); from += chunkSize) {
+                deleteReplies(job, targets.subList(from, Math.min(from + chunkSize, targets.size())));
+            }
+        });
+    }
+
+    @Override
+    public ModerationJob removeRepliesByReplyer(String replyer) {
+        return submit("replies by replyer: " + replyer, job -> {
+            Long lastRno = 0L;
+            while (true) {
+                List<Long> rnos = replyRepository.getRnosByReplyer(replyer, lastRno, PageRequest.of(0, chunkSize));
+                if (rnos.isEmpty()) {
+                    return;
+                }
+                deleteReplies(job, rnos);
+                lastRno = rnos.get(rnos.size() - 1);
+            }
+        });
+    }
+
+    @Override
+    public ModerationJob getJob(Long jobId) {
+        return jobs.get(jobId);
+    }
+
+    // 댓글을 chunk 단위로 먼저 지운 뒤, 그 사이 새로 달린 댓글과 게시글을 한 트랜잭션에서 삭제
+    private void deleteBoards(ModerationJob job, List<Long> bnos) throws InterruptedException {
+        while (true) {
+            List<Long> rnos = replyRepository.getRnosByBnos(bnos, PageRequest.of(0, chunkSize));
+            if (rnos.isEmpty()) {
+                break;
+            }
+            Integer deleted = transactionTemplate.execute(status -> replyRepository.deleteByRnos(rnos));
+            job.addDeletedReplies(deleted);
+            job.addChunk(rnos.size());
+            throttle();
+        }
+
+        int[] deleted = transactionTemplate.execute(status -> {
+            int replies = replyRepository.deleteByBnos(bnos);
+            int boards = boardRepository.deleteByBnos(bnos);
+            for (Long bno : bnos) {
+                searchIndexService.removeBoard(bno);
+                cacheInvalidationBroadcaster.invalidate(ReadCacheConfig.BOARD, bno, null);
+                boardViewCounter.remove(bno);
+            }
+            return new int[]{replies, boards};
+        });
+        job.addDeletedReplies(deleted[0]);
+        job.addDeletedBoards(deleted[1]);
+        job.addChunk(bnos.size());
+        throttle();
+    }
+
+    // 게시글의 replyCount 도 같은 트랜잭션에서 함께 줄임
+    // (동시에 사용자가 같은 댓글을 지우면 어긋날 수 있으나 ReplyCountReconciler 가 보정)
+    private void deleteReplies(ModerationJob job, List<Long> rnos) throws InterruptedException {
+        Integer deleted = transactionTemplate.execute(status -> {
+            List<Object[]> counts = replyRepository.countByBnoForRnos(rnos);
+            int replies = replyRepository.deleteByRnos(rnos);
+            for (Object[] row : counts) {
+                boardRepository.addReplyCount((Long) row[0], -((Long) row[1]).intValue());
+                cacheInvalidationBroadcaster.invalidate(ReadCacheConfig.BOARD, (Long) row[0], null);
+            }
+            return replies;
+        });
+        job.addDeletedReplies(deleted);
+        job.addChunk(rnos.size());
+        throttle();
+    }
+
+    private void throttle() throws InterruptedException {
+        if (throttleMillis > 0) {
+            Thread.sleep(throttleMillis);
+        }
+    }
+
+    private ModerationJob submit(String description, Work work) {
+        ModerationJob job = new ModerationJob(jobSequence.incrementAndGet(), description);
+        jobs.put(job.getId(), job);
+        try {
+            worker.execute(() -> run(job, work));
+        }
+        catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new IllegalStateException("대기 중인 일괄 삭제 작업이 너무 많습니다.");
+        }
+        return job;
+    }
+
+    private void run(ModerationJob job, Work work) {
+        job.start();
+        try {
+            work.run(job);
+            job.finish(null);
+            log.info("moderation job " + job.getId() + " done: " + job.getDescription()
+                    + ", boards=" + job.getDeletedBoards() + ", replies=" + job.getDeletedReplies());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(e);
+        }
+        catch (RuntimeException e) {
+            log.error("moderation job " + job.getId() + " failed", e);
+            job.finish(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private interface Work {
+        void run(ModerationJob job) throws InterruptedException;
+    }
+}
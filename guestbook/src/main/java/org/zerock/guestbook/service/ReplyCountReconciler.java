@@ -0,0 +1,45 @@
+package org.zerock.guestbook.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.zerock.guestbook.repository.BoardRepository;
+
+// Board.replyCount 와 실제 댓글 수가 어긋난 게시글을 bno 구간 단위로 보정
+// 구간마다 별도 트랜잭션이라 한 번에 board 테이블 전체를 잠그지 않음
+@Component
+@Log4j2
+public class ReplyCountReconciler {
+    private final BoardRepository boardRepository;
+    private final long chunkSize;
+
+    public ReplyCountReconciler(BoardRepository boardRepository,
+                                @Value("${board.reply-count.reconcile-chunk}") long chunkSize) {
+        this.boardRepository = boardRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    // reply_count 컬럼이 추가되기 전에 작성된 게시글은 0 으로 시작하므로 기동 시 한 번 보정
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(cron = "${board.reply-count.reconcile-cron}")
+    public int reconcile() {
+        Long maxBno = boardRepository.getMaxBno();
+        if (maxBno == null) {
+            return 0;
+        }
+
+        int repaired = 0;
+        for (long from = 1; from <= maxBno; from += chunkSize) {
+            repaired += boardRepository.reconcileReplyCount(from, from + chunkSize - 1);
+        }
+        log.info("reply count reconciled: " + repaired);
+        return repaired;
+    }
+}
@@ -5,6 +5,7 @@ import org.zerock.guestbook.entity.Board;
 import org.zerock.guestbook.entity.Reply;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ReplyService {
     Long register(ReplyDTO replyDTO);
@@ -12,6 +13,11 @@ public interface ReplyService {
     void modify(ReplyDTO replyDTO);
     void remove(Long rno);
 
+    // afterRno 다음 댓글들이 등록/수정/삭제될 때마다 바뀌는 값 (스트리밍 응답의 ETag 용)
+    String getStreamVersion(Long bno, Long afterRno);
+    // afterRno 다음 댓글부터 rno 순으로 최대 size 개를 목록으로 만들지 않고 하나씩 consumer 에 전달
+    void streamList(Long bno, Long afterRno, int size, Consumer<ReplyDTO> consumer);
+
     default Reply dtoToEntity(ReplyDTO replyDTO) {
         Board board = Board.builder().bno(replyDTO.getBno()).build();
 
@@ -1,24 +1,46 @@
 package org.zerock.guestbook.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.zerock.guestbook.cache.CacheInvalidationBroadcaster;
+import org.zerock.guestbook.cache.ReadCacheConfig;
 import org.zerock.guestbook.dto.ReplyDTO;
 import org.zerock.guestbook.entity.Board;
 import org.zerock.guestbook.entity.Reply;
+import org.zerock.guestbook.repository.BoardRepository;
 import org.zerock.guestbook.repository.ReplyRepository;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ReplyServiceImpl implements ReplyService {
+    private static final long UPDATE_TIMEOUT_SECONDS = 5;
+
     private final ReplyRepository replyRepository;
+    private final BoardRepository boardRepository;
+    private final ReplyUpdateBuffer replyUpdateBuffer;
+    private final CacheInvalidationBroadcaster cacheInvalidationBroadcaster;
 
+    @Transactional
     @Override
     public Long register(ReplyDTO replyDTO) {
         Reply reply = dtoToEntity(replyDTO);
         replyRepository.save(reply);
+        boardRepository.addReplyCount(replyDTO.getBno(), 1);
+        // 캐시된 게시글의 댓글 수도 바뀜
+        cacheInvalidationBroadcaster.invalidate(ReadCacheConfig.BOARD, replyDTO.getBno(), null);
         return reply.getRno();
     }
 
@@ -29,14 +51,53 @@ public class ReplyServiceImpl implements ReplyService {
         return result.stream().map(this::entityToDTO).collect(Collectors.toList());
     }
 
+    @Override
+    public String getStreamVersion(Long bno, Long afterRno) {
+        Object[] state = replyRepository.getStateByBnoAfter(bno, afterRno).get(0);
+        LocalDateTime lastModDate = (LocalDateTime) state[2];
+        return state[0] + "-" + (state[1] == null ? 0L : state[1]) + "-"
+                + (lastModDate == null ? 0L : Timestamp.valueOf(lastModDate).getTime());
+    }
+
+    // Stream 은 트랜잭션 안에서만 읽을 수 있음
+    @Transactional(readOnly = true)
+    @Override
+    public void streamList(Long bno, Long afterRno, int size, Consumer<ReplyDTO> consumer) {
+        try (Stream<ReplyDTO> replies = replyRepository.streamByBnoAfter(bno, afterRno, PageRequest.of(0, size))) {
+            replies.forEach(consumer);
+        }
+    }
+
+    // 조회 후 merge 대신 바뀐 컬럼만 UPDATE. 짧은 구간 안의 수정은 모아서 한 번에 쓰고 커밋될 때까지 기다림
+    // 없는 댓글이면 IllegalArgumentException
     @Override
     public void modify(ReplyDTO replyDTO) {
-        Reply reply = dtoToEntity(replyDTO);
-        replyRepository.save(reply);
+        try {
+            replyUpdateBuffer.update(replyDTO.getRno(), replyDTO.getText(), replyDTO.getReplyer())
+                    .get(UPDATE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("댓글 수정이 중단되었습니다.", e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IncorrectUpdateSemanticsDataAccessException) {
+                throw new IllegalArgumentException("Reply not found with rno: " + replyDTO.getRno(), e.getCause());
+            }
+            throw new IllegalStateException("댓글 수정에 실패했습니다.", e);
+        }
+        catch (TimeoutException e) {
+            throw new IllegalStateException("댓글 수정에 실패했습니다.", e);
+        }
     }
 
+    @Transactional
     @Override
     public void remove(Long rno) {
-        replyRepository.deleteById(rno);
+        Long bno = replyRepository.getBnoByRno(rno);
+        if (replyRepository.deleteByRno(rno) > 0 && bno != null) {
+            boardRepository.addReplyCount(bno, -1);
+            cacheInvalidationBroadcaster.invalidate(ReadCacheConfig.BOARD, bno, null);
+        }
     }
 }
@@ -0,0 +1,210 @@
+package org.zerock.guestbook.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 댓글 수정 모아 쓰기 (group commit)
+// 수정 요청은 rno 별로 합쳐 두었다가 windowMillis 마다 한 트랜잭션에서 바뀐 컬럼만 UPDATE 하는 JDBC batch 로 반영
+// 같은 구간 안에서 같은 댓글을 여러 번 고치면 마지막 내용으로 한 번만 씀
+// 요청 스레드는 자기 수정이 포함된 트랜잭션이 커밋될 때까지 기다리므로 modify 가 반환되면 DB 에 반영된 상태
+// batch 트랜잭션이 실패하면 댓글마다 별도 트랜잭션으로 다시 써서 실제로 실패한 댓글의 요청만 실패시킴
+// 없는 댓글(UPDATE 된 행이 0)의 요청은 JdbcUpdateAffectedIncorrectNumberOfRowsException 으로 실패
+@Component
+@Log4j2
+public class ReplyUpdateBuffer {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong missing = new AtomicLong();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reply-update-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplyUpdateBuffer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             @Value("${reply.update.window-ms}") long windowMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        flusher.scheduleWithFixedDelay(this::flush, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // null 인 값은 바꾸지 않음. 반환된 future 는 커밋 후 완료됨
+    public CompletableFuture<Void> update(Long rno, String text, String replyer) {
+        requested.incrementAndGet();
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        pending.compute(rno, (key, update) -> {
+            PendingUpdate merged = update == null ? new PendingUpdate() : update;
+            if (text != null) {
+                merged.text = text;
+            }
+            if (replyer != null) {
+                merged.replyer = replyer;
+            }
+            merged.waiters.add(future);
+            return merged;
+        });
+        return future;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requested", requested.get());
+        stats.put("written", written.get());
+        stats.put("flushes", flushes.get());
+        stats.put("retried", retried.get());
+        stats.put("failed", failed.get());
+        stats.put("missing", missing.get());
+        stats.put("pending", pending.size());
+        return stats;
+    }
+
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // 꺼낸 뒤에 들어온 수정은 다음 구간에 씀
+        Map<Long, PendingUpdate> batch = new HashMap<>();
+        for (Long rno : pending.keySet()) {
+            PendingUpdate update = pending.remove(rno);
+            if (update != null) {
+                batch.put(rno, update);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            Map<Long, Integer> counts = transactionTemplate.execute(status -> write(batch, now));
+            flushes.incrementAndGet();
+            batch.forEach((rno, update) -> complete(rno, update, counts.get(rno)));
+        }
+        catch (RuntimeException e) {
+            log.warn("reply update flush failed, retrying one by one: " + e.getMessage());
+            batch.forEach((rno, update) -> retry(rno, update, now));
+        }
+    }
+
+    // 바뀐 컬럼 조합별로 UPDATE 문 하나씩 batch 실행하고 댓글별로 UPDATE 된 행 수를 돌려줌
+    private Map<Long, Integer> write(Map<Long, PendingUpdate> batch, Timestamp now) {
+        Map<String, List<Long>> rnos = new HashMap<>();
+        Map<String, List<Object[]>> statements = new HashMap<>();
+        batch.forEach((rno, update) -> {
+            rnos.computeIfAbsent(update.sql(), key -> new ArrayList<>()).add(rno);
+            statements.computeIfAbsent(update.sql(), key -> new ArrayList<>()).add(update.args(rno, now));
+        });
+
+        Map<Long, Integer> counts = new HashMap<>();
+        statements.forEach((sql, args) -> {
+            int[] result = jdbcTemplate.batchUpdate(sql, args);
+            List<Long> statementRnos = rnos.get(sql);
+            for (int i = 0; i < result.length; i++) {
+                counts.put(statementRnos.get(i), result[i]);
+            }
+        });
+        return counts;
+    }
+
+    private void retry(Long rno, PendingUpdate update, Timestamp now) {
+        retried.incrementAndGet();
+        try {
+            Integer count = transactionTemplate.execute(status -> jdbcTemplate.update(update.sql(), update.args(rno, now)));
+            complete(rno, update, count);
+        }
+        catch (RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("reply update failed: " + rno + " " + e.getMessage());
+            update.waiters.forEach(waiter -> waiter.completeExceptionally(e));
+        }
+    }
+
+    // 행 수가 0 이면 없는 댓글. 드라이버가 batch 의 행 수를 알려 주지 않으면(SUCCESS_NO_INFO) 반영된 것으로 봄
+    private void complete(Long rno, PendingUpdate update, Integer count) {
+        if (count != null && count == 0) {
+            missing.incrementAndGet();
+            JdbcUpdateAffectedIncorrectNumberOfRowsException e =
+                    new JdbcUpdateAffectedIncorrectNumberOfRowsException(update.sql() + " (rno " + rno + ")", 1, 0);
+            update.waiters.forEach(waiter -> waiter.completeExceptionally(e));
+            return;
+        }
+        written.incrementAndGet();
+        update.complete();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 남은 수정은 종료 전에 반영
+        flush();
+    }
+
+    private static class PendingUpdate {
+        String text;
+        String replyer;
+        final List<CompletableFuture<Void>> waiters = new ArrayList<>();
+
+        String sql() {
+            StringBuilder sql = new StringBuilder("update reply set ");
+            if (text != null) {
+                sql.append("text = ?, ");
+            }
+            if (replyer != null) {
+                sql.append("replyer = ?, ");
+            }
+            return sql.append("moddate = ? where rno = ?").toString();
+        }
+
+        Object[] args(Long rno, Timestamp now) {
+            List<Object> args = new ArrayList<>(4);
+            if (text != null) {
+                args.add(text);
+            }
+            if (replyer != null) {
+                args.add(replyer);
+            }
+            args.add(now);
+            args.add(rno);
+            return args.toArray();
+        }
+
+        void complete() {
+            waiters.forEach(waiter -> waiter.complete(null));
+        }
+    }
+}
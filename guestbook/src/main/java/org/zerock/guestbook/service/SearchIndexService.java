@@ -0,0 +1,183 @@
+package org.zerock.guestbook.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.zerock.guestbook.dto.BoardDTO;
+import org.zerock.guestbook.dto.GuestbookDTO;
+import org.zerock.guestbook.entity.Guestbook;
+import org.zerock.guestbook.repository.BoardRepository;
+import org.zerock.guestbook.repository.GuestbookRepository;
+import org.zerock.guestbook.search.InvertedIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 방명록/게시글 전문 검색 색인
+// 서버 시작 시 DB 에서 전체를 읽어 색인하고, 이후에는 서비스의 등록/수정/삭제가 커밋된 뒤 반영
+// 색인이 준비되기 전에는 isReady() 가 false 이므로 목록은 기존 like 검색을 사용
+@Service
+@Log4j2
+public class SearchIndexService {
+    private static final int REBUILD_CHUNK = 1000;
+
+    private final GuestbookRepository guestbookRepository;
+    private final BoardRepository boardRepository;
+
+    // 제목에 가중치를 더 줌
+    private final InvertedIndex guestbookIndex = new InvertedIndex(boosts());
+    private final InvertedIndex boardIndex = new InvertedIndex(boosts());
+
+    private volatile boolean ready;
+    // 전체 색인 중에 삭제된 글은 다시 색인하지 않음
+    private final Set<Long> removedGuestbooks = ConcurrentHashMap.newKeySet();
+    private final Set<Long> removedBoards = ConcurrentHashMap.newKeySet();
+
+    public SearchIndexService(GuestbookRepository guestbookRepository, BoardRepository boardRepository) {
+        this.guestbookRepository = guestbookRepository;
+        this.boardRepository = boardRepository;
+    }
+
+    private static Map<String, Double> boosts() {
+        Map<String, Double> boosts = new LinkedHashMap<>();
+        boosts.put("t", 2.0);
+        boosts.put("c", 1.0);
+        boosts.put("w", 1.0);
+        return boosts;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+
+        Long cursor = null;
+        while (true) {
+            List<GuestbookDTO> chunk = guestbookRepository.seekPage(null, cursor, REBUILD_CHUNK);
+            for (GuestbookDTO guestbook : chunk) {
+                if (!removedGuestbooks.contains(guestbook.getGno())) {
+                    guestbookIndex.indexIfAbsent(guestbook.getGno(),
+                            fields(guestbook.getTitle(), guestbook.getContent(), guestbook.getWriter()));
+                }
+            }
+            if (chunk.size() < REBUILD_CHUNK) {
+                break;
+            }
+            cursor = chunk.get(chunk.size() - 1).getGno() - 1;
+        }
+
+        cursor = null;
+        while (true) {
+            List<BoardDTO> chunk = boardRepository.seekPage(null, null, cursor, REBUILD_CHUNK);
+            for (BoardDTO board : chunk) {
+                if (!removedBoards.contains(board.getBno())) {
+                    boardIndex.indexIfAbsent(board.getBno(),
+                            fields(board.getTitle(), board.getContent(), board.getWriterEmail()));
+                }
+            }
+            if (chunk.size() < REBUILD_CHUNK) {
+                break;
+            }
+            cursor = chunk.get(chunk.size() - 1).getBno() - 1;
+        }
+
+        ready = true;
+        removedGuestbooks.clear();
+        removedBoards.clear();
+        log.info("search index ready: guestbook=" + guestbookIndex.size() + ", board=" + boardIndex.size()
+                + " (" + (System.currentTimeMillis() - start) + "ms)");
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void indexGuestbook(Guestbook guestbook) {
+        Map<String, String> fields = fields(guestbook);
+        afterCommit(() -> guestbookIndex.index(guestbook.getGno(), fields));
+    }
+
+    public void removeGuestbook(Long gno) {
+        afterCommit(() -> {
+            if (!ready) {
+                removedGuestbooks.add(gno);
+            }
+            guestbookIndex.remove(gno);
+        });
+    }
+
+    // 수정 시에는 작성자를 넘기지 않으면 기존 색인 그대로 둠
+    public void indexBoard(Long bno, String title, String content, String writerEmail) {
+        Map<String, String> fields = fields(title, content, writerEmail);
+        if (writerEmail == null) {
+            fields.remove("w");
+        }
+        afterCommit(() -> boardIndex.index(bno, fields));
+    }
+
+    public void removeBoard(Long bno) {
+        afterCommit(() -> {
+            if (!ready) {
+                removedBoards.add(bno);
+            }
+            boardIndex.remove(bno);
+        });
+    }
+
+    // type: t(제목), c(내용), w(작성자) 조합
+    public List<Long> searchGuestbook(String type, String keyword) {
+        return guestbookIndex.search(keyword, fieldNames(type));
+    }
+
+    public List<Long> searchBoard(String type, String keyword) {
+        return boardIndex.search(keyword, fieldNames(type));
+    }
+
+    private static List<String> fieldNames(String type) {
+        if (type == null) {
+            return Collections.emptyList();
+        }
+        List<String> names = new ArrayList<>(3);
+        for (String name : new String[]{"t", "c", "w"}) {
+            if (type.contains(name)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private static Map<String, String> fields(Guestbook guestbook) {
+        return fields(guestbook.getTitle(), guestbook.getContent(), guestbook.getWriter());
+    }
+
+    private static Map<String, String> fields(String title, String content, String writer) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("t", title);
+        fields.put("c", content);
+        fields.put("w", writer);
+        return fields;
+    }
+
+    // 트랜잭션 안이면 커밋된 뒤에, 아니면 바로 반영 (롤백된 변경이 색인에 남지 않도록)
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        }
+        else {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.zerock.guestbook.cache;
+
+import org.junit.jupiter.api.Test;
+import org.zerock.guestbook.dto.GuestbookDTO;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VersionedCacheTests {
+    private final LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private GuestbookDTO dto(Long gno, LocalDateTime modDate) {
+        return GuestbookDTO.builder().gno(gno).title("Title..." + gno).modDate(modDate).build();
+    }
+
+    @Test
+    public void testHitAndInvalidate() {
+        VersionedCache<GuestbookDTO> cache = new VersionedCache<>("test", 100, 300, GuestbookDTO::getModDate);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            cache.get(1L, key -> {
+                loads.incrementAndGet();
+                return dto(key, base);
+            });
+        }
+        System.out.println(cache.getStats());
+        assertEquals(1, loads.get());
+        assertEquals(9L, cache.getStats().get("hits"));
+
+        // 캐시된 것과 같거나 오래된 버전의 무효화는 무시
+        cache.invalidate(1L, base);
+        cache.invalidate(1L, base.minusSeconds(1));
+        assertEquals(1, cache.getStats().get("size"));
+
+        // 새 버전이면 제거
+        cache.invalidate(1L, base.plusSeconds(1));
+        assertEquals(0, cache.getStats().get("size"));
+        assertEquals(1L, cache.getStats().get("invalidations"));
+
+        // 없는 글은 캐시하지 않음
+        assertNull(cache.get(2L, key -> null));
+        assertEquals(0, cache.getStats().get("size"));
+    }
+
+    @Test
+    public void testInvalidateWhileLoading() {
+        VersionedCache<GuestbookDTO> cache = new VersionedCache<>("test", 100, 300, GuestbookDTO::getModDate);
+
+        // 읽는 도중 수정이 커밋되면 읽은 값(이전 버전일 수 있음)은 넣지 않음
+        cache.get(1L, key -> {
+            cache.invalidate(key, null);
+            return dto(key, base);
+        });
+        assertEquals(0, cache.getStats().get("size"));
+    }
+
+    @Test
+    public void testEviction() {
+        VersionedCache<GuestbookDTO> cache = new VersionedCache<>("test", 100, 300, GuestbookDTO::getModDate);
+
+        for (long gno = 1; gno <= 100; gno++) {
+            cache.get(gno, key -> dto(key, base));
+        }
+        // 1 번은 최근에 조회
+        cache.get(1L, key -> dto(key, base));
+
+        cache.get(101L, key -> dto(key, base));
+        System.out.println(cache.getStats());
+
+        assertTrue((int) cache.getStats().get("size") <= 90);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, key -> {
+            loads.incrementAndGet();
+            return dto(key, base);
+        });
+        assertEquals(0, loads.get());
+    }
+}
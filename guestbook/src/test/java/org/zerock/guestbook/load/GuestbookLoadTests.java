@@ -0,0 +1,103 @@
+package org.zerock.guestbook.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.zerock.guestbook.service.SearchIndexService;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 대량 데이터를 넣은 내장 H2 위에서 목록/조회/검색/댓글 요청을 정해진 비율로 보내고 결과를 JSON 파일로 남김
+// -Dload.rows=1000000 처럼 규모를 지정했을 때만 실행
+// 그 밖의 설정 (기본값): load.seed(42) load.skew(1.1) load.warmup-seconds(10) load.duration-seconds(60)
+//   load.workers(64) load.rate.list(20) load.rate.read(100) load.rate.search(10) load.rate.reply(20)
+//   load.report(build/reports/load/guestbook-load.json)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("load")
+@EnabledIfSystemProperty(named = "load.rows", matches = "\\d+")
+public class GuestbookLoadTests {
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testLoad() throws Exception {
+        int rows = Integer.getInteger("load.rows");
+        long seed = Long.getLong("load.seed", 42L);
+        double skew = Double.parseDouble(System.getProperty("load.skew", "1.1"));
+
+        LoadDataset dataset = new LoadDataGenerator(jdbcTemplate, seed, skew)
+                .generate(Math.max(rows / 1000, 10), rows, Math.max(rows / 10, 10), rows);
+        System.out.println("DATASET: " + dataset.getStats());
+        // JDBC 로 넣은 글은 검색 색인에 없으므로 다시 만듦
+        searchIndexService.rebuild();
+
+        LoadDriver driver = new LoadDriver("http://localhost:" + port, seed);
+        driver.add("guestbook.list", rate("list", 20),
+                random -> driver.get("/guestbook/list?page=" + (1 + random.nextInt(10))));
+        driver.add("guestbook.read", rate("read", 100),
+                random -> driver.get("/guestbook/read?gno=" + dataset.randomGno(random)));
+        driver.add("guestbook.search", rate("search", 10),
+                random -> driver.get("/guestbook/list?type=tc&keyword=" + encode(dataset.randomWord(random))));
+        driver.add("board.list", rate("list", 20),
+                random -> driver.get("/board/list?page=" + (1 + random.nextInt(10))));
+        driver.add("board.read", rate("read", 100),
+                random -> driver.get("/board/read?bno=" + dataset.popularBno(random)));
+        driver.add("board.search", rate("search", 10),
+                random -> driver.get("/board/list?type=tc&keyword=" + encode(dataset.randomWord(random))));
+        driver.add("reply.list", rate("reply", 20),
+                random -> driver.get("/replies/board/" + dataset.popularBno(random)));
+        driver.add("reply.register", rate("reply", 20),
+                random -> driver.postJson("/replies/", "{\"bno\":" + dataset.popularBno(random)
+                        + ",\"text\":\"" + LoadDataGenerator.sentence(random, 5) + "\",\"replyer\":\"load\"}"));
+
+        Map<String, Object> endpoints = driver.run(
+                Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10L)),
+                Duration.ofSeconds(Long.getLong("load.duration-seconds", 60L)),
+                Integer.getInteger("load.workers", 64));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("dataset", dataset.getStats());
+        report.put("endpoints", endpoints);
+
+        Path path = Paths.get(System.getProperty("load.report", "build/reports/load/guestbook-load.json"));
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+        System.out.println("REPORT: " + path.toAbsolutePath());
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(endpoints));
+
+        for (Object summary : endpoints.values()) {
+            assertTrue((Integer) ((Map<?, ?>) summary).get("requests") > 0);
+        }
+    }
+
+    private static double rate(String name, double defaultRate) {
+        return Double.parseDouble(System.getProperty("load.rate." + name, String.valueOf(defaultRate)));
+    }
+
+    private static String encode(String keyword) {
+        return URLEncoder.encode(keyword, StandardCharsets.UTF_8);
+    }
+}
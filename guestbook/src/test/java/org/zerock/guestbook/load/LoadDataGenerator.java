@@ -0,0 +1,119 @@
+package org.zerock.guestbook.load;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// 부하 테스트용 데이터를 JDBC batch insert 로 한꺼번에 넣음
+// 같은 seed 면 같은 데이터가 만들어지고, 댓글과 게시글 작성자는 Zipf 분포로 일부에 몰림
+public class LoadDataGenerator {
+    private static final int BATCH_SIZE = 10_000;
+
+    static final String[] WORDS = {
+            "스프링", "부트", "검색", "게시판", "방명록", "댓글", "캐시", "인덱스", "트랜잭션", "페이징",
+            "spring", "boot", "jpa", "querydsl", "thymeleaf", "mariadb", "java", "gradle", "lombok", "test"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long seed;
+    private final double skew;
+
+    public LoadDataGenerator(JdbcTemplate jdbcTemplate, long seed, double skew) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.seed = seed;
+        this.skew = skew;
+    }
+
+    public LoadDataset generate(int members, int guestbooks, int boards, int replies) {
+        Random random = new Random(seed);
+        long start = System.currentTimeMillis();
+
+        long midBase = maxId("m_member", "mid");
+        insert("insert into m_member (email, pw, nickname, regdate, moddate) values (?, ?, ?, now(), now())",
+                members, i -> new Object[]{"user" + (midBase + i) + "@aaa.com", "1111", "USER" + (midBase + i)});
+        checkInserted("m_member", "mid", midBase, members);
+
+        long gnoBase = maxId("guestbook", "gno");
+        insert("insert into guestbook (title, content, writer, regdate, moddate) values (?, ?, ?, now(), now())",
+                guestbooks, i -> new Object[]{sentence(random, 3), sentence(random, 12), "user" + random.nextInt(members)});
+        checkInserted("guestbook", "gno", gnoBase, guestbooks);
+
+        // 댓글이 달릴 게시글을 먼저 정해 두고 게시글의 reply_count 를 맞춰 넣음
+        ZipfSampler boardPopularity = new ZipfSampler(boards, skew, random);
+        int[] replyBoards = new int[replies];
+        int[] replyCounts = new int[boards];
+        for (int i = 0; i < replies; i++) {
+            replyBoards[i] = boardPopularity.sample(random);
+            replyCounts[replyBoards[i]]++;
+        }
+
+        ZipfSampler writers = new ZipfSampler(members, skew * 0.7, random);
+        long bnoBase = maxId("board", "bno");
+        insert("insert into board (title, content, writer_mid, reply_count, regdate, moddate) values (?, ?, ?, ?, now(), now())",
+                boards, i -> new Object[]{sentence(random, 3), sentence(random, 20),
+                        midBase + 1 + writers.sample(random), replyCounts[i]});
+        checkInserted("board", "bno", bnoBase, boards);
+
+        insert("insert into reply (text, replyer, board_bno, regdate, moddate) values (?, ?, ?, now(), now())",
+                replies, i -> new Object[]{sentence(random, 8), "guest" + random.nextInt(members),
+                        bnoBase + 1 + replyBoards[i]});
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("seed", seed);
+        stats.put("skew", skew);
+        stats.put("members", members);
+        stats.put("guestbooks", guestbooks);
+        stats.put("boards", boards);
+        stats.put("replies", replies);
+        stats.put("hottestBoardReplies", replyCounts[boardPopularity.top(1)[0]]);
+        stats.put("loadMs", System.currentTimeMillis() - start);
+        return new LoadDataset(gnoBase, guestbooks, bnoBase, boards, boardPopularity, stats);
+    }
+
+    static String sentence(Random random, int words) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+
+    private void insert(String sql, int rows, RowFactory factory) {
+        List<Object[]> args = new ArrayList<>(Math.min(rows, BATCH_SIZE));
+        for (int i = 0; i < rows; i++) {
+            args.add(factory.create(i));
+            if (args.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, args);
+                args.clear();
+            }
+        }
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, args);
+        }
+    }
+
+    private long maxId(String table, String column) {
+        Long max = jdbcTemplate.queryForObject("select max(" + column + ") from " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+
+    // 번호가 base + 1 부터 연속으로 매겨졌다고 가정하므로 확인
+    private void checkInserted(String table, String column, long base, int rows) {
+        Long count = jdbcTemplate.queryForObject("select count(*) from " + table + " where " + column + " between ? and ?",
+                Long.class, base + 1, base + rows);
+        if (count == null || count != rows) {
+            throw new IllegalStateException(table + " 번호가 연속되지 않습니다: " + count + " / " + rows);
+        }
+    }
+
+    private interface RowFactory {
+        Object[] create(int index);
+    }
+}
@@ -0,0 +1,39 @@
+package org.zerock.guestbook.load;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// 적은 양으로 LoadDataGenerator 가 실제 스키마에 데이터를 넣을 수 있는지 확인 (GuestbookLoadTests, BoardListMappingBenchmark 가 사용)
+@SpringBootTest
+@ActiveProfiles("load")
+public class LoadDataGeneratorTests {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testGenerate() {
+        long members = count("m_member");
+        long boards = count("board");
+        long replies = count("reply");
+        Long maxBno = jdbcTemplate.queryForObject("select coalesce(max(bno), 0) from board", Long.class);
+
+        LoadDataset dataset = new LoadDataGenerator(jdbcTemplate, 42L, 1.1).generate(20, 50, 30, 200);
+
+        assertEquals(members + 20, count("m_member"));
+        assertEquals(boards + 30, count("board"));
+        assertEquals(replies + 200, count("reply"));
+        // 게시글의 reply_count 는 넣은 댓글 수와 맞아야 함
+        assertEquals(200L, jdbcTemplate.queryForObject(
+                "select sum(reply_count) from board where bno > ?", Long.class, maxBno));
+        assertEquals(200, dataset.getStats().get("replies"));
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+    }
+}
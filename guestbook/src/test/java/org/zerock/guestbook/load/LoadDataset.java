@@ -0,0 +1,41 @@
+package org.zerock.guestbook.load;
+
+import java.util.Map;
+import java.util.Random;
+
+// 생성된 데이터의 번호 범위와 게시글 인기 분포 (요청 대상을 고를 때 사용)
+public class LoadDataset {
+    private final long gnoBase;
+    private final int guestbooks;
+    private final long bnoBase;
+    private final int boards;
+    private final ZipfSampler boardPopularity;
+    private final Map<String, Object> stats;
+
+    LoadDataset(long gnoBase, int guestbooks, long bnoBase, int boards, ZipfSampler boardPopularity,
+                Map<String, Object> stats) {
+        this.gnoBase = gnoBase;
+        this.guestbooks = guestbooks;
+        this.bnoBase = bnoBase;
+        this.boards = boards;
+        this.boardPopularity = boardPopularity;
+        this.stats = stats;
+    }
+
+    public long randomGno(Random random) {
+        return gnoBase + 1 + random.nextInt(guestbooks);
+    }
+
+    // 댓글이 많이 달린 게시글일수록 자주 뽑힘
+    public long popularBno(Random random) {
+        return bnoBase + 1 + boardPopularity.sample(random);
+    }
+
+    public String randomWord(Random random) {
+        return LoadDataGenerator.WORDS[random.nextInt(LoadDataGenerator.WORDS.length)];
+    }
+
+    public Map<String, Object> getStats() {
+        return stats;
+    }
+}
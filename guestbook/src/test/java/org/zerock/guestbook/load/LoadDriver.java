@@ -0,0 +1,226 @@
+package org.zerock.guestbook.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+// 엔드포인트마다 정해진 비율(초당 요청 수)로 요청을 보내고 지연 시간을 기록
+// 응답을 기다리지 않고 일정한 간격으로 보내며(open loop), 지연 시간은 보냈어야 할 시각부터 재서
+// 서버가 밀려 요청이 늦게 나가도 지연 시간이 작게 측정되지 않게 함
+// 보내기를 마친 뒤 DRAIN_TIMEOUT 안에 끝나지 않은 요청은 버리지 않고 그때까지의 시간으로 timeout 에 집계
+// (가장 느린 요청이 빠지면 백분위가 낮게 나오므로)
+public class LoadDriver {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    // 마지막 요청의 REQUEST_TIMEOUT 보다 길게
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(1);
+
+    private final String baseUrl;
+    private final long seed;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final List<Endpoint> endpoints = new ArrayList<>();
+
+    public LoadDriver(String baseUrl, long seed) {
+        this.baseUrl = baseUrl;
+        this.seed = seed;
+    }
+
+    // ratePerSecond 가 0 이하면 보내지 않음
+    public void add(String name, double ratePerSecond, Function<Random, HttpRequest.Builder> request) {
+        if (ratePerSecond > 0) {
+            endpoints.add(new Endpoint(name, ratePerSecond, request, new Random(seed + endpoints.size())));
+        }
+    }
+
+    public HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    public HttpRequest.Builder postJson(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    // warmup 동안의 요청은 집계하지 않음
+    public Map<String, Object> run(Duration warmup, Duration duration, int workers) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        List<Thread> schedulers = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            Thread thread = new Thread(() -> schedule(endpoint, pool, start, measureFrom, end), "load-" + endpoint.name);
+            thread.start();
+            schedulers.add(thread);
+        }
+        for (Thread thread : schedulers) {
+            thread.join();
+        }
+        pool.shutdown();
+        if (!pool.awaitTermination(DRAIN_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS)) {
+            long now = System.nanoTime();
+            for (Endpoint endpoint : endpoints) {
+                endpoint.expireUnfinished(now);
+            }
+            pool.shutdownNow();
+        }
+
+        double seconds = duration.toNanos() / 1e9;
+        Map<String, Object> report = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            report.put(endpoint.name, endpoint.summary(seconds));
+        }
+        return report;
+    }
+
+    private void schedule(Endpoint endpoint, ExecutorService pool, long start, long measureFrom, long end) {
+        long interval = (long) (1e9 / endpoint.ratePerSecond);
+        for (long k = 0; ; k++) {
+            long intended = start + k * interval;
+            if (intended >= end) {
+                return;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            HttpRequest request = endpoint.request.apply(endpoint.random)
+                    .timeout(REQUEST_TIMEOUT)
+                    .build();
+            // 집계하는 요청은 끝나기 전에 등록해 두어 끝나지 않아도 빠지지 않게 함
+            Sent sent = intended >= measureFrom ? endpoint.sent(intended) : null;
+            pool.execute(() -> send(endpoint, request, sent));
+        }
+    }
+
+    private void send(Endpoint endpoint, HttpRequest request, Sent sent) {
+        Outcome outcome;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            outcome = response.statusCode() < 400 ? Outcome.OK : Outcome.ERROR;
+        }
+        catch (HttpTimeoutException e) {
+            outcome = Outcome.TIMEOUT;
+        }
+        catch (Exception e) {
+            outcome = Outcome.ERROR;
+        }
+        if (sent != null) {
+            endpoint.record(sent, System.nanoTime(), outcome);
+        }
+    }
+
+    private enum Outcome {
+        OK, ERROR, TIMEOUT
+    }
+
+    // 집계 대상 요청 하나 (보냈어야 할 시각과 집계 여부)
+    private static class Sent {
+        final long intended;
+        boolean recorded;
+
+        Sent(long intended) {
+            this.intended = intended;
+        }
+    }
+
+    private static class Endpoint {
+        final String name;
+        final double ratePerSecond;
+        final Function<Random, HttpRequest.Builder> request;
+        // 스케줄러 스레드 하나만 사용하므로 같은 seed 면 같은 요청 순서
+        final Random random;
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        private int timeouts;
+        // 아직 끝나지 않은 요청
+        private final Set<Sent> inFlight = new HashSet<>();
+
+        Endpoint(String name, double ratePerSecond, Function<Random, HttpRequest.Builder> request, Random random) {
+            this.name = name;
+            this.ratePerSecond = ratePerSecond;
+            this.request = request;
+            this.random = random;
+        }
+
+        synchronized Sent sent(long intended) {
+            Sent sent = new Sent(intended);
+            inFlight.add(sent);
+            return sent;
+        }
+
+        // 먼저 끝난 쪽(응답 또는 expireUnfinished)만 집계
+        synchronized void record(Sent sent, long now, Outcome outcome) {
+            if (sent.recorded) {
+                return;
+            }
+            sent.recorded = true;
+            inFlight.remove(sent);
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = now - sent.intended;
+            if (outcome == Outcome.ERROR) {
+                errors++;
+            }
+            else if (outcome == Outcome.TIMEOUT) {
+                timeouts++;
+            }
+        }
+
+        // 끝나지 않은 요청은 지금까지 걸린 시간(실제보다 짧은 하한)으로 timeout
+        synchronized void expireUnfinished(long now) {
+            for (Sent sent : new ArrayList<>(inFlight)) {
+                record(sent, now, Outcome.TIMEOUT);
+            }
+        }
+
+        synchronized Map<String, Object> summary(double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("targetRate", ratePerSecond);
+            summary.put("requests", count);
+            summary.put("errors", errors);
+            summary.put("timeouts", timeouts);
+            summary.put("throughput", (count - errors - timeouts) / seconds);
+            summary.put("p50Ms", percentile(sorted, 0.50));
+            summary.put("p90Ms", percentile(sorted, 0.90));
+            summary.put("p99Ms", percentile(sorted, 0.99));
+            summary.put("p999Ms", percentile(sorted, 0.999));
+            summary.put("maxMs", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+            return summary;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
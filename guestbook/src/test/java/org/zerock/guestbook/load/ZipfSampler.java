@@ -0,0 +1,47 @@
+package org.zerock.guestbook.load;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// 0 ~ n-1 중 하나를 Zipf 분포로 뽑음 (순위 k 의 확률이 1/k^s 에 비례)
+// 순위를 섞어 두어 인기 있는 번호가 앞쪽에 몰리지 않게 함
+public class ZipfSampler {
+    private final double[] cdf;
+    private final int[] ranks;
+
+    public ZipfSampler(int n, double s, Random random) {
+        cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1 / Math.pow(i + 1, s);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+
+        ranks = new int[n];
+        for (int i = 0; i < n; i++) {
+            ranks[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = ranks[i];
+            ranks[i] = ranks[j];
+            ranks[j] = tmp;
+        }
+    }
+
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return ranks[Math.min(index, cdf.length - 1)];
+    }
+
+    // 가장 인기 있는 top 개의 번호
+    public int[] top(int top) {
+        return Arrays.copyOf(ranks, Math.min(top, ranks.length));
+    }
+}
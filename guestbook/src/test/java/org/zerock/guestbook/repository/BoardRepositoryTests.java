@@ -10,6 +10,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
+import org.zerock.guestbook.dto.BoardDTO;
 import org.zerock.guestbook.entity.Board;
 import org.zerock.guestbook.entity.Member;
 
@@ -92,6 +93,6 @@ public class BoardRepositoryTests {
                 PageRequest.of(0, 10,
                         Sort.by("bno").descending()
                                 .and(Sort.by("title").ascending()));
-        Page<Object[]> result = boardRepository.searchPage("t", "1", pageable);
+        Page<BoardDTO> result = boardRepository.searchPage("t", "1", pageable);
     }
 }
@@ -0,0 +1,84 @@
+package org.zerock.guestbook.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InvertedIndexTests {
+    private static final List<String> ALL = Arrays.asList("t", "c", "w");
+
+    private InvertedIndex createIndex() {
+        Map<String, Double> boosts = new LinkedHashMap<>();
+        boosts.put("t", 2.0);
+        boosts.put("c", 1.0);
+        boosts.put("w", 1.0);
+
+        InvertedIndex index = new InvertedIndex(boosts);
+        index.index(1L, fields("스프링 부트 검색엔진", "한글 검색을 테스트합니다.", "user1"));
+        index.index(2L, fields("검색 엔진 만들기", "형태소 분석 없이 n-gram 으로", "user2"));
+        index.index(3L, fields("방명록", "엔진 검색 순서가 반대인 글", "user3"));
+        return index;
+    }
+
+    private Map<String, String> fields(String title, String content, String writer) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("t", title);
+        fields.put("c", content);
+        fields.put("w", writer);
+        return fields;
+    }
+
+    @Test
+    public void testSubstring() {
+        InvertedIndex index = createIndex();
+
+        List<Long> result = index.search("검색", ALL);
+        System.out.println(result);
+        assertEquals(3, result.size());
+        // 제목에서 맞은 글이 먼저
+        assertTrue(result.indexOf(3L) > result.indexOf(1L));
+
+        assertEquals(Collections.singletonList(1L), index.search("색엔", ALL));
+        assertEquals(Collections.singletonList(2L), index.search("user2", Collections.singletonList("w")));
+    }
+
+    @Test
+    public void testPhraseAndPrefix() {
+        InvertedIndex index = createIndex();
+
+        // 구: 단어 순서와 경계까지 맞아야 함
+        assertEquals(Collections.singletonList(2L), index.search("\"검색 엔진\"", ALL));
+        assertEquals(Collections.singletonList(3L), index.search("\"엔진 검색\"", ALL));
+
+        // 접두어: 단어 시작에서만
+        assertEquals(Collections.singletonList(3L), index.search("방명*", ALL));
+        assertTrue(index.search("명록*", ALL).isEmpty());
+
+        // 여러 절은 AND
+        assertEquals(Collections.singletonList(2L), index.search("형태소 gram", ALL));
+    }
+
+    @Test
+    public void testModifyAndRemove() {
+        InvertedIndex index = createIndex();
+
+        Map<String, String> title = new HashMap<>();
+        title.put("t", "제목 변경");
+        index.index(3L, title);
+        assertTrue(index.search("방명록", ALL).isEmpty());
+        // 수정하지 않은 필드는 그대로
+        assertEquals(Collections.singletonList(3L), index.search("user3", ALL));
+
+        index.remove(1L);
+        assertTrue(index.search("스프링", ALL).isEmpty());
+        assertEquals(2, index.size());
+    }
+}
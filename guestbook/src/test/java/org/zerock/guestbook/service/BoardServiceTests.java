@@ -32,7 +32,7 @@ public class BoardServiceTests {
     @Test
     public void testList() {
         PageRequestDTO pageRequestDTO = new PageRequestDTO();
-        PageResultDTO<BoardDTO, Object[]> result = boardService.getList(pageRequestDTO);
+        PageResultDTO<BoardDTO, BoardDTO> result = boardService.getList(pageRequestDTO);
         for (BoardDTO boardDTO : result.getDtoList()) {
             System.out.println(boardDTO);
         }
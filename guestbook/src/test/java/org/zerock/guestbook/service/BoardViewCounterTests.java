@@ -0,0 +1,75 @@
+package org.zerock.guestbook.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.zerock.guestbook.entity.Board;
+import org.zerock.guestbook.repository.BoardRepository;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class BoardViewCounterTests {
+    @Autowired
+    private BoardViewCounter boardViewCounter;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 클라이언트 100 명이 동시에 10 번씩 읽어도 구간 안의 중복은 세지 않음
+    @Test
+    public void testRecordView() throws Exception {
+        Board board = boardRepository.save(Board.builder()
+                .title("Popular...")
+                .content("Popular content...")
+                .build());
+        Long bno = board.getBno();
+        Map<String, Object> before = boardViewCounter.getStats();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            String client = "10.0.0." + (i % 100);
+            executor.execute(() -> boardViewCounter.recordView(bno, client));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertFalse(boardViewCounter.recordView(bno, "10.0.0.1"));
+        assertEquals(100, boardViewCounter.getViewCount(bno, 0));
+
+        // client 없이 기록하면 항상 셈
+        for (int i = 0; i < 50; i++) {
+            boardViewCounter.recordView(bno, null);
+        }
+
+        // 주기 작업과 겹쳐 호출해도 증가분은 한 번만 반영됨
+        ExecutorService flushers = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            flushers.execute(boardViewCounter::flush);
+        }
+        flushers.shutdown();
+        assertTrue(flushers.awaitTermination(1, TimeUnit.MINUTES));
+
+        Map<String, Object> after = boardViewCounter.getStats();
+        assertEquals(150L, (Long) after.get("counted") - (Long) before.get("counted"));
+        assertEquals(901L, (Long) after.get("duplicates") - (Long) before.get("duplicates"));
+        assertEquals(0L, after.get("pending"));
+
+        Long stored = jdbcTemplate.queryForObject("select view_count from board where bno = ?", Long.class, bno);
+        assertEquals(150L, stored);
+        assertEquals(150, boardViewCounter.getViewCount(bno, stored));
+        assertTrue(boardViewCounter.getTopViewed().containsKey(bno)
+                || boardViewCounter.getTopViewed().values().stream().allMatch(views -> views >= 150));
+    }
+}
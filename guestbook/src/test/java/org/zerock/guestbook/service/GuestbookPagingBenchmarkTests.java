@@ -0,0 +1,91 @@
+package org.zerock.guestbook.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.zerock.guestbook.dto.GuestbookDTO;
+import org.zerock.guestbook.dto.PageRequestDTO;
+import org.zerock.guestbook.dto.PageResultDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// 깊은 페이지에서 offset 방식과 키셋 방식의 조회 시간 비교
+// 데이터가 많이 필요하므로 -Dbench.rows=5000000 처럼 행 수를 지정했을 때만 실행
+@SpringBootTest
+@EnabledIfSystemProperty(named = "bench.rows", matches = "\\d+")
+public class GuestbookPagingBenchmarkTests {
+    private static final int BATCH_SIZE = 10_000;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private GuestbookService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testDeepPage() {
+        long rows = Long.parseLong(System.getProperty("bench.rows"));
+        fill(rows);
+
+        // 전체의 90% 지점 페이지
+        int page = (int) (rows / 10 * 9 / 10);
+        PageRequestDTO offsetRequest = PageRequestDTO.builder().page(page).size(10).build();
+        PageResultDTO<GuestbookDTO, GuestbookDTO> offsetResult = service.getList(offsetRequest);
+
+        PageRequestDTO seekRequest = PageRequestDTO.builder()
+                .page(page)
+                .size(10)
+                .cursor(offsetResult.getDtoList().get(0).getGno())
+                .build();
+        PageResultDTO<GuestbookDTO, GuestbookDTO> seekResult = service.getList(seekRequest);
+        assertEquals(offsetResult.getDtoList(), seekResult.getDtoList());
+        assertArrayEquals(offsetResult.getPageList(), seekResult.getPageList());
+
+        long[] offsetNanos = new long[ROUNDS];
+        long[] seekNanos = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            service.getList(offsetRequest);
+            offsetNanos[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            service.getList(seekRequest);
+            seekNanos[i] = System.nanoTime() - start;
+        }
+
+        System.out.println("ROWS: " + rows + " PAGE: " + page);
+        System.out.println("OFFSET median(ms): " + median(offsetNanos) / 1_000_000.0);
+        System.out.println("SEEK   median(ms): " + median(seekNanos) / 1_000_000.0);
+    }
+
+    private void fill(long rows) {
+        Long count = jdbcTemplate.queryForObject("select count(*) from guestbook", Long.class);
+        long missing = rows - (count == null ? 0 : count);
+
+        while (missing > 0) {
+            int batch = (int) Math.min(BATCH_SIZE, missing);
+            List<Object[]> args = new ArrayList<>(batch);
+            for (int i = 0; i < batch; i++) {
+                args.add(new Object[]{"Title..." + i, "Content..." + i, "user" + (i % 10)});
+            }
+            jdbcTemplate.batchUpdate(
+                    "insert into guestbook (title, content, writer, regdate, moddate) values (?, ?, ?, now(), now())",
+                    args);
+            missing -= batch;
+        }
+    }
+
+    private static long median(long[] nanos) {
+        long[] copy = nanos.clone();
+        Arrays.sort(copy);
+        return copy[copy.length / 2];
+    }
+}
@@ -6,7 +6,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.zerock.guestbook.dto.GuestbookDTO;
 import org.zerock.guestbook.dto.PageRequestDTO;
 import org.zerock.guestbook.dto.PageResultDTO;
-import org.zerock.guestbook.entity.Guestbook;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest
 public class GuestbookServiceTests {
@@ -31,7 +35,7 @@ public class GuestbookServiceTests {
                 .size(10)
                 .build();
 
-        PageResultDTO<GuestbookDTO, Guestbook> resultDTO = service.getList(pageRequestDTO);
+        PageResultDTO<GuestbookDTO, GuestbookDTO> resultDTO = service.getList(pageRequestDTO);
 
         System.out.println("PREV: " + resultDTO.isPrev());
         System.out.println("NEXT: " + resultDTO.isNext());
@@ -41,7 +45,7 @@ public class GuestbookServiceTests {
             System.out.println(guestbookDTO);
         }
         System.out.println("=========================");
-        resultDTO.getPageList().forEach(System.out::println);
+        Arrays.stream(resultDTO.getPageList()).forEach(System.out::println);
     }
 
     @Test
@@ -53,7 +57,7 @@ public class GuestbookServiceTests {
                 .keyword("한글")
                 .build();
 
-        PageResultDTO<GuestbookDTO, Guestbook> resultDTO = service.getList(pageRequestDTO);
+        PageResultDTO<GuestbookDTO, GuestbookDTO> resultDTO = service.getList(pageRequestDTO);
         System.out.println("PREV: " + resultDTO.isPrev());
         System.out.println("NEXT: " + resultDTO.isNext());
         System.out.println("PREV: " + resultDTO.getTotalPage());
@@ -63,6 +67,38 @@ public class GuestbookServiceTests {
             System.out.println(guestbookDTO);
         }
         System.out.println("===================================");
-        resultDTO.getPageList().forEach(System.out::println);
+        Arrays.stream(resultDTO.getPageList()).forEach(System.out::println);
+    }
+
+    @Test
+    public void testSeekList() {
+        PageRequestDTO offsetRequest = PageRequestDTO.builder()
+                .page(3)
+                .size(10)
+                .build();
+        PageResultDTO<GuestbookDTO, GuestbookDTO> offsetResult = service.getList(offsetRequest);
+
+        // 1, 2페이지를 키셋으로 따라가서 얻은 3페이지 cursor 로 다시 조회하면 offset 방식과 같은 글이 나와야 함
+        PageResultDTO<GuestbookDTO, GuestbookDTO> firstPage = service.getList(PageRequestDTO.builder()
+                .page(1)
+                .size(10)
+                .build());
+        PageResultDTO<GuestbookDTO, GuestbookDTO> secondPage = service.getList(PageRequestDTO.builder()
+                .page(2)
+                .size(10)
+                .cursor(firstPage.getCursors().get(2))
+                .build());
+
+        PageRequestDTO seekRequest = PageRequestDTO.builder()
+                .page(3)
+                .size(10)
+                .cursor(secondPage.getCursors().get(3))
+                .build();
+        PageResultDTO<GuestbookDTO, GuestbookDTO> seekResult = service.getList(seekRequest);
+
+        System.out.println("SEEK: " + seekResult.isSeek() + " NEXT: " + seekResult.isNext());
+        System.out.println("PAGES: " + Arrays.toString(seekResult.getPageList()) + " CURSORS: " + seekResult.getCursors());
+        assertEquals(offsetResult.getDtoList(), seekResult.getDtoList());
+        assertArrayEquals(offsetResult.getPageList(), seekResult.getPageList());
     }
 }
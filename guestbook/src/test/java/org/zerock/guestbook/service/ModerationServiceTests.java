@@ -0,0 +1,72 @@
+package org.zerock.guestbook.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.zerock.guestbook.entity.Board;
+import org.zerock.guestbook.repository.BoardRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class ModerationServiceTests {
+    private static final int REPLIES = 100_000;
+
+    @Autowired
+    private ModerationService moderationService;
+
+    @Autowired
+    private BoardService boardService;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${moderation.chunk-size}")
+    private int chunkSize;
+
+    // 댓글 10만 개를 작성자로 일괄 삭제
+    // 엔티티를 읽지 않고 트랜잭션마다 chunkSize 개 이하만 지우는지 확인
+    @Test
+    public void testRemoveRepliesByReplyer() throws Exception {
+        Board board = boardRepository.save(Board.builder()
+                .title("Spam thread...")
+                .content("Spam content...")
+                .build());
+        String replyer = "spammer" + System.currentTimeMillis();
+
+        List<Object[]> args = new ArrayList<>();
+        for (int i = 1; i <= REPLIES; i++) {
+            args.add(new Object[]{"Spam..." + i, replyer, board.getBno()});
+            if (args.size() == 10_000) {
+                jdbcTemplate.batchUpdate("insert into reply (text, replyer, board_bno, regdate, moddate)" +
+                        " values (?, ?, ?, now(), now())", args);
+                args.clear();
+            }
+        }
+        jdbcTemplate.update("update board set reply_count = ? where bno = ?", REPLIES, board.getBno());
+
+        ModerationJob job = moderationService.removeRepliesByReplyer(replyer);
+        assertTrue(job.await(5, TimeUnit.MINUTES));
+
+        assertEquals(ModerationJob.Status.DONE, job.getStatus(), job.getError());
+        assertEquals(REPLIES, job.getDeletedReplies());
+        assertEquals(0, boardService.get(board.getBno()).getReplyCount());
+        assertEquals(chunkSize, job.getMaxChunkSize());
+        assertEquals((REPLIES + chunkSize - 1) / chunkSize, job.getChunks());
+
+        // 남은 게시글도 일괄 삭제
+        ModerationJob boardJob = moderationService.removeBoards(List.of(board.getBno()));
+        assertTrue(boardJob.await(1, TimeUnit.MINUTES));
+        assertEquals(1, boardJob.getDeletedBoards());
+    }
+}
@@ -3,9 +3,27 @@ package org.zerock.guestbook.service;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.zerock.guestbook.dto.ReplyDTO;
+import org.zerock.guestbook.entity.Board;
+import org.zerock.guestbook.repository.BoardRepository;
+import org.zerock.guestbook.repository.ReplyRepository;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 public class ReplyServiceTests {
@@ -13,10 +31,186 @@ public class ReplyServiceTests {
     @Autowired
     private ReplyService service;
 
+    @Autowired
+    private BoardService boardService;
+
+    @Autowired
+    private ReplyCountReconciler replyCountReconciler;
+
+    @Autowired
+    private ReplyUpdateBuffer replyUpdateBuffer;
+
+    @Autowired
+    private ReplyRepository replyRepository;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Test
     public void testGetList() {
         Long bno = 100L;
         List<ReplyDTO> replyDTOList = service.getList(bno);
         replyDTOList.forEach(System.out::println);
     }
+
+    @Test
+    public void testReplyCount() {
+        Long bno = 100L;
+        int before = boardService.get(bno).getReplyCount();
+
+        Long rno = service.register(ReplyDTO.builder()
+                .text("Reply count...")
+                .replyer("guest")
+                .bno(bno)
+                .build());
+        System.out.println("AFTER REGISTER: " + boardService.get(bno).getReplyCount());
+
+        service.remove(rno);
+        System.out.println("AFTER REMOVE: " + boardService.get(bno).getReplyCount());
+
+        assertEquals(before, boardService.get(bno).getReplyCount());
+    }
+
+    @Test
+    public void testReconcile() {
+        System.out.println("REPAIRED: " + replyCountReconciler.reconcile());
+    }
+
+    @Test
+    public void testStreamList() {
+        Long bno = newBoard("Stream...");
+        try {
+            List<Long> rnos = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                rnos.add(service.register(ReplyDTO.builder().text("Stream..." + i).replyer("guest").bno(bno).build()));
+            }
+
+            List<ReplyDTO> first = new ArrayList<>();
+            service.streamList(bno, 0L, 2, first::add);
+            assertEquals(rnos.subList(0, 2), rnos(first));
+            assertEquals("Stream...0", first.get(0).getText());
+
+            // 다음 조각은 마지막으로 받은 rno 다음부터
+            List<ReplyDTO> next = new ArrayList<>();
+            service.streamList(bno, rnos.get(1), 2, next::add);
+            assertEquals(rnos.subList(2, 3), rnos(next));
+
+            List<ReplyDTO> none = new ArrayList<>();
+            service.streamList(bno, rnos.get(2), 2, none::add);
+            assertTrue(none.isEmpty());
+
+            // after 다음 댓글의 등록/수정/삭제마다 바뀜
+            String version = service.getStreamVersion(bno, 0L);
+            assertEquals(version, service.getStreamVersion(bno, 0L));
+            service.modify(ReplyDTO.builder().rno(rnos.get(0)).text("Stream...modified").build());
+            String modified = service.getStreamVersion(bno, 0L);
+            assertNotEquals(version, modified);
+            service.remove(rnos.get(1));
+            String removed = service.getStreamVersion(bno, 0L);
+            assertNotEquals(modified, removed);
+            rnos.add(service.register(ReplyDTO.builder().text("Stream...3").replyer("guest").bno(bno).build()));
+            assertNotEquals(removed, service.getStreamVersion(bno, 0L));
+        }
+        finally {
+            boardService.removeWithReplies(bno);
+        }
+    }
+
+    // 같은 댓글을 한 구간 안에 여러 번 수정하면 마지막 내용으로 UPDATE 한 번만 실행
+    // 예약된 flush 가 끼어들지 않도록 구간이 긴 버퍼를 따로 만들어 직접 flush
+    @Test
+    public void testModifyCoalesce() throws Exception {
+        Long bno = newBoard("Autosave...");
+        ReplyUpdateBuffer buffer = new ReplyUpdateBuffer(jdbcTemplate, transactionManager, 3_600_000L);
+        try {
+            Long rno = service.register(ReplyDTO.builder().text("Autosave...").replyer("guest").bno(bno).build());
+
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(buffer.update(rno, "Autosave..." + i, null));
+            }
+            assertFalse(futures.get(0).isDone());
+            buffer.flush();
+            for (CompletableFuture<Void> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+
+            Map<String, Object> stats = buffer.getStats();
+            assertEquals(10L, stats.get("requested"));
+            assertEquals(1L, stats.get("flushes"));
+            assertEquals(1L, stats.get("written"));
+            assertEquals(0L, stats.get("retried"));
+            assertEquals(0, stats.get("pending"));
+            assertEquals("Autosave...9", replyRepository.findById(rno).get().getText());
+            assertEquals("guest", replyRepository.findById(rno).get().getReplyer());
+        }
+        finally {
+            buffer.shutdown();
+            boardService.removeWithReplies(bno);
+        }
+    }
+
+    // 없는 댓글의 수정은 그 요청만 실패하고 같은 구간의 다른 수정은 반영됨
+    @Test
+    public void testModifyMissing() throws Exception {
+        Long bno = newBoard("Missing...");
+        ReplyUpdateBuffer buffer = new ReplyUpdateBuffer(jdbcTemplate, transactionManager, 3_600_000L);
+        try {
+            Long rno = service.register(ReplyDTO.builder().text("Missing...").replyer("guest").bno(bno).build());
+            Long missingRno = rno + 1_000_000L;
+
+            CompletableFuture<Void> update = buffer.update(rno, "Missing...modified", null);
+            CompletableFuture<Void> missing = buffer.update(missingRno, "Missing...modified", null);
+            buffer.flush();
+
+            update.get(10, TimeUnit.SECONDS);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> missing.get(10, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof JdbcUpdateAffectedIncorrectNumberOfRowsException);
+            assertEquals(1L, buffer.getStats().get("written"));
+            assertEquals(1L, buffer.getStats().get("missing"));
+            assertEquals("Missing...modified", replyRepository.findById(rno).get().getText());
+
+            // 서비스 호출에는 오류로 전달
+            assertThrows(IllegalArgumentException.class,
+                    () -> service.modify(ReplyDTO.builder().rno(missingRno).text("Missing...").build()));
+        }
+        finally {
+            buffer.shutdown();
+            boardService.removeWithReplies(bno);
+        }
+    }
+
+    // 같은 구간에 쓰인 수정 중 하나가 실패해도(text 컬럼 길이 초과) 나머지 수정은 반영됨
+    @Test
+    public void testModifyPartialFailure() throws Exception {
+        Long valid = service.register(ReplyDTO.builder().text("Valid...").replyer("guest").bno(100L).build());
+        Long invalid = service.register(ReplyDTO.builder().text("Invalid...").replyer("guest").bno(100L).build());
+
+        CompletableFuture<Void> validUpdate = replyUpdateBuffer.update(valid, "Valid...modified", null);
+        CompletableFuture<Void> invalidUpdate = replyUpdateBuffer.update(invalid, "x".repeat(1000), null);
+
+        validUpdate.get(10, TimeUnit.SECONDS);
+        assertThrows(ExecutionException.class, () -> invalidUpdate.get(10, TimeUnit.SECONDS));
+
+        assertEquals("Valid...modified", replyRepository.findById(valid).get().getText());
+        assertEquals("Invalid...", replyRepository.findById(invalid).get().getText());
+
+        service.remove(valid);
+        service.remove(invalid);
+    }
+
+    // 다른 데이터에 기대지 않도록 테스트마다 게시글을 만들고 끝나면 댓글과 함께 지움
+    private Long newBoard(String title) {
+        return boardRepository.save(Board.builder().title(title).content(title).build()).getBno();
+    }
+
+    private static List<Long> rnos(List<ReplyDTO> replies) {
+        return replies.stream().map(ReplyDTO::getRno).collect(Collectors.toList());
+    }
 }
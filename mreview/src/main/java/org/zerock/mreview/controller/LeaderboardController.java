@@ -0,0 +1,34 @@
+package org.zerock.mreview.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.zerock.mreview.dto.RankingDTO;
+import org.zerock.mreview.service.LeaderboardService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/leaderboard")
+@Log4j2
+@RequiredArgsConstructor
+public class LeaderboardController {
+    private final LeaderboardService leaderboardService;
+
+    // 리뷰 수가 leaderboard.min-reviews 이상인 영화 중 평균 평점 순
+    @GetMapping("/top-rated")
+    public ResponseEntity<List<RankingDTO>> getTopRated(@RequestParam(defaultValue = "10") int size) {
+        return new ResponseEntity<>(leaderboardService.getTopRated(size), HttpStatus.OK);
+    }
+
+    // 최근 리뷰가 많은 순 (리뷰 하나의 가중치가 반감기마다 절반)
+    @GetMapping("/trending")
+    public ResponseEntity<List<RankingDTO>> getTrending(@RequestParam(defaultValue = "10") int size) {
+        return new ResponseEntity<>(leaderboardService.getTrending(size), HttpStatus.OK);
+    }
+}
@@ -9,11 +9,18 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.zerock.mreview.dto.MovieDTO;
 import org.zerock.mreview.dto.PageRequestDTO;
+import org.zerock.mreview.service.MovieImportService;
 import org.zerock.mreview.service.MovieService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
 
 @Controller
 @RequestMapping("/movie")
@@ -21,6 +28,8 @@ import org.zerock.mreview.service.MovieService;
 @RequiredArgsConstructor
 public class MovieController {
     private final MovieService movieService;
+    private final MovieImportService movieImportService;
+
     @GetMapping("/register")
     public void register() {
 
@@ -34,6 +43,15 @@ public class MovieController {
         return "redirect:/movie/list";
     }
 
+    // JSON-lines 파일로 영화 대량 등록 (결과: 등록한 영화/이미지 수, 건너뛴 줄 수 등)
+    @PostMapping("/import")
+    @ResponseBody
+    public Map<String, Object> importMovies(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return movieImportService.importJsonLines(in);
+        }
+    }
+
     @GetMapping("/list")
     public void list(PageRequestDTO pageRequestDTO, @NotNull Model model) {
         log.info("pageRequestDTO: " + pageRequestDTO);
@@ -6,6 +6,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.zerock.mreview.dto.ReviewDTO;
+import org.zerock.mreview.dto.ReviewSliceDTO;
 import org.zerock.mreview.service.ReviewService;
 
 import java.util.List;
@@ -26,6 +27,16 @@ public class ReviewController {
         return new ResponseEntity<>(reviewDTOList, HttpStatus.OK);
     }
 
+    // 리뷰를 size 개씩 나눠 전달 (sort=grade 면 평점순, 다음 조각은 응답의 nextCursor, nextGrade 로 요청)
+    @GetMapping("/{mno}/feed")
+    public ResponseEntity<ReviewSliceDTO> getFeed(@PathVariable("mno") Long mno,
+                                                  @RequestParam(required = false) String sort,
+                                                  @RequestParam(required = false) Long cursor,
+                                                  @RequestParam(required = false) Integer grade,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        return new ResponseEntity<>(reviewService.getFeed(mno, sort, cursor, grade, size), HttpStatus.OK);
+    }
+
     @PostMapping("/{mno}")
     public ResponseEntity<Long> addReview(@RequestBody ReviewDTO movieReviewDTO) {
         log.info("-------------------add MovieReviewDTO-----------------");
@@ -1,114 +1,190 @@
 package org.zerock.mreview.controller;
 
 import lombok.extern.log4j.Log4j2;
-import net.coobird.thumbnailator.Thumbnailator;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.util.FileCopyUtils;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
-import org.zerock.mreview.dto.UploadResultDTO;
+import org.zerock.mreview.service.ThumbnailCache;
+import org.zerock.mreview.service.ThumbnailService;
+import org.zerock.mreview.service.UploadService;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @RestController
 @Log4j2
 public class UploadController {
-
-    @Value("${org.zerock.upload.path}")
-    private String uploadPath;
-
-    private String makeFolder() {
-        String str = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
-        String folderPath = str.replace("/", File.separator);
-        File uploadPathFolder = new File(uploadPath, folderPath);
-        if (!uploadPathFolder.exists()) {
-            uploadPathFolder.mkdirs();
-        }
-        return folderPath;
+    // 업로드 파일은 uuid 이름이라 내용이 바뀌지 않음
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    // Tomcat NIO 커넥터의 sendfile (응답 본문을 애플리케이션에서 읽지 않고 커널이 파일에서 바로 보냄)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final UploadService uploadService;
+    private final ThumbnailCache thumbnailCache;
+    private final ThumbnailService thumbnailService;
+    private final Path uploadRoot;
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    // 확장자는 업로드한 사람이 정하므로 캐시에 남기는 종류 수를 제한
+    private static final int MAX_CONTENT_TYPES = 100;
+
+    // 확장자 -> Content-Type (확장자마다 한 번만 확인)
+    private final Map<String, String> contentTypes = new ConcurrentHashMap<>();
+
+    public UploadController(UploadService uploadService, ThumbnailCache thumbnailCache,
+                            ThumbnailService thumbnailService,
+                            @Value("${org.zerock.upload.path}") String uploadPath) {
+        this.uploadService = uploadService;
+        this.thumbnailCache = thumbnailCache;
+        this.thumbnailService = thumbnailService;
+        this.uploadRoot = Paths.get(uploadPath).toAbsolutePath().normalize();
     }
 
+    // 원본이 모두 저장되면 응답하고 썸네일은 UploadService 가 이어서 만듦
+    // 저장하지 못한 파일이 있으면 500 과 실패한 파일 이름 (저장된 나머지 파일도 지워지므로 다시 올려야 함)
     @PostMapping("/uploadAjax")
-    public ResponseEntity<List<UploadResultDTO>> uploadFile(MultipartFile[] uploadFiles) {
-        List<UploadResultDTO> resultDTOList = new ArrayList<>();
+    public ResponseEntity<?> uploadFile(MultipartFile[] uploadFiles) {
         for (MultipartFile uploadFile: uploadFiles) {
-            if (!uploadFile.getContentType().startsWith("image")) {
+            if (uploadFile.getContentType() == null || !uploadFile.getContentType().startsWith("image")) {
                 log.warn("this file is not image type");
                 return new ResponseEntity<>(HttpStatus.FORBIDDEN);
             }
-
-            String originalName = uploadFile.getOriginalFilename();
-            String fileName = originalName.substring(originalName.lastIndexOf("\\") + 1);
-
-            log.info("fileName: " + fileName);
-            String folderPath = makeFolder();
-            String uuid = UUID.randomUUID().toString();
-            String saveName = uploadPath + File.separator + folderPath + File.separator + uuid + "_" + fileName;
-            Path savePath = Paths.get(saveName);
-            try {
-                uploadFile.transferTo(savePath);
-
-                String thumbnailSaveName = uploadPath + File.separator + folderPath + File.separator + "s_" + uuid + "_" + fileName;
-                File thumbnailFile = new File(thumbnailSaveName);
-                Thumbnailator.createThumbnail(savePath.toFile(), thumbnailFile, 100, 100);
-                resultDTOList.add(new UploadResultDTO(fileName, uuid, folderPath));
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
-        return new ResponseEntity<>(resultDTOList, HttpStatus.OK);
+        try {
+            return new ResponseEntity<>(uploadService.upload(uploadFiles), HttpStatus.OK);
+        } catch (UncheckedIOException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
     }
 
+    // 파일을 byte[] 로 읽지 않고 보냄 (Tomcat 이면 sendfile, 아니면 FileChannel 에서 응답 스트림으로 전송)
+    // ETag 는 파일 경로로 만들고 If-None-Match 가 같으면 304, Range 는 구간 하나만 지원
+    // 썸네일(s_, m_ 등)은 ThumbnailCache 에서 꺼내 보냄
     @GetMapping("/display")
-    public ResponseEntity<byte[]> getFile(String fileName, String size) {
-        ResponseEntity<byte[]> result;
+    public void getFile(String fileName, String size, ServletWebRequest webRequest,
+                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = resolve(fileName);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
 
-        try {
-            String srcFileName = URLDecoder.decode(fileName, "UTF-8");
-            log.info("fileName: " + srcFileName);
-            File file = new File(uploadPath + File.separator + srcFileName);
+        String originalName = thumbnailService.originalName(file.getFileName().toString());
+        if (originalName != null) {
+            if (size != null && size.equals("1")) {
+                file = file.resolveSibling(originalName);
+                originalName = null;
+            } else {
+                uploadService.awaitThumbnail(file.toFile());
+            }
+        }
+        if (!Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
 
-            if(size != null && size.equals("1")) {
-                file = new File(file.getParent(), file.getName().substring(2));
+        String etag = "\"" + DigestUtils.md5DigestAsHex(uploadRoot.relativize(file).toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (webRequest.checkNotModified(etag)) {
+            return;
+        }
+        response.setContentType(contentType(file));
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        long length = Files.size(file);
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null && originalName != null) {
+            byte[] bytes = thumbnailCache.get(file, length);
+            if (bytes != null) {
+                response.setContentLength(bytes.length);
+                response.getOutputStream().write(bytes);
+                return;
             }
+        }
 
-            log.info("file: " + file);
-            HttpHeaders header = new HttpHeaders();
+        long start = 0;
+        long count = length;
+        List<HttpRange> ranges = parseRanges(rangeHeader);
+        if (ranges.size() == 1) {
+            HttpRange range = ranges.get(0);
+            try {
+                start = range.getRangeStart(length);
+                count = range.getRangeEnd(length) - start + 1;
+            } catch (IllegalArgumentException e) {
+                count = 0;
+            }
+            // 시작 위치가 파일 끝 이후인 구간 (HttpRange 는 bytes=N- 의 N 을 검사하지 않음)
+            if (count <= 0) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + count - 1) + "/" + length);
+        }
+        response.setContentLengthLong(count);
 
-            header.add("Content-Type", Files.probeContentType(file.toPath()));
-            result = new ResponseEntity<>(FileCopyUtils.copyToByteArray(file), header, HttpStatus.OK);
-        } catch (Exception e) {
-            log.error(e.getMessage());
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long end = start + count;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
         }
-        return result;
     }
 
+    // /display 와 같이 업로드 폴더 밖을 가리키는 이름은 404
     @PostMapping("/removeFile")
     public ResponseEntity<Boolean> removeFile(String fileName) {
-        String srcFileName = null;
         try {
-            srcFileName = URLDecoder.decode(fileName, "UTF-8");
-            File file = new File(uploadPath + File.separator + srcFileName);
+            Path path = resolve(fileName);
+            if (path == null) {
+                return new ResponseEntity<>(false, HttpStatus.NOT_FOUND);
+            }
+            File file = path.toFile();
             boolean result = file.delete();
 
-            File thumbnail = new File(file.getParent(), "s_" + file.getName());
-            result = thumbnail.delete();
+            for (Path thumbnail : thumbnailService.thumbnailsOf(path)) {
+                uploadService.awaitThumbnail(thumbnail.toFile());
+                thumbnailCache.evict(thumbnail);
+                result = thumbnail.toFile().delete() && result;
+            }
             return new ResponseEntity<>(result, HttpStatus.OK);
         } catch (UnsupportedEncodingException e) {
             e.printStackTrace();
@@ -116,4 +192,53 @@ public class UploadController {
         }
     }
 
+    // 업로드 폴더 밖을 가리키는 경로(../ 등)는 null
+    private Path resolve(String fileName) throws UnsupportedEncodingException {
+        if (fileName == null) {
+            return null;
+        }
+        String srcFileName = URLDecoder.decode(fileName, "UTF-8");
+        Path file = uploadRoot.resolve(srcFileName).normalize();
+        return file.startsWith(uploadRoot) && !file.equals(uploadRoot) ? file : null;
+    }
+
+    private String contentType(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        // 확장자가 없으면 파일 이름 전체(uuid 포함)가 키가 되므로 캐시하지 않음
+        if (dot < 0) {
+            return DEFAULT_CONTENT_TYPE;
+        }
+        String extension = name.substring(dot + 1).toLowerCase(Locale.ROOT);
+        String cached = contentTypes.get(extension);
+        if (cached != null) {
+            return cached;
+        }
+        String type = probeContentType(file);
+        if (contentTypes.size() < MAX_CONTENT_TYPES) {
+            contentTypes.putIfAbsent(extension, type);
+        }
+        return type;
+    }
+
+    private static String probeContentType(Path file) {
+        try {
+            String type = Files.probeContentType(file);
+            return type == null ? DEFAULT_CONTENT_TYPE : type;
+        } catch (IOException e) {
+            return DEFAULT_CONTENT_TYPE;
+        }
+    }
+
+    // 형식이 잘못된 Range 헤더는 무시하고 전체를 보냄
+    private static List<HttpRange> parseRanges(String rangeHeader) {
+        if (rangeHeader == null) {
+            return Collections.emptyList();
+        }
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return Collections.emptyList();
+        }
+    }
 }
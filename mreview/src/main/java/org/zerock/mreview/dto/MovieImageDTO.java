@@ -21,6 +21,10 @@ public class MovieImageDTO {
         return URLEncoder.encode(path + "/" + uuid + "_" + imgName, StandardCharsets.UTF_8);
     }
     public String getThumbnailURL() {
-        return URLEncoder.encode(path+"/s_"+uuid+imgName, StandardCharsets.UTF_8);
+        return getThumbnailURL("s");
+    }
+    // 크기별 썸네일 (thumbnail.sizes 의 이름: s, m, l)
+    public String getThumbnailURL(String size) {
+        return URLEncoder.encode(path + "/" + size + "_" + uuid + "_" + imgName, StandardCharsets.UTF_8);
     }
 }
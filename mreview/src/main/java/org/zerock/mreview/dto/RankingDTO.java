@@ -0,0 +1,20 @@
+package org.zerock.mreview.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankingDTO {
+    private int rank;
+    private Long mno;
+    private String title;
+    private double avg;
+    private long reviewCnt;
+    // trending 점수 (최근 리뷰일수록 1 에 가깝게 더해짐)
+    private double score;
+}
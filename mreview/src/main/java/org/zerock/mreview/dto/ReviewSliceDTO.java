@@ -0,0 +1,21 @@
+package org.zerock.mreview.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// 리뷰 피드 한 조각
+// 다음 조각은 nextCursor(마지막 리뷰 번호)와, 평점순이면 nextGrade(마지막 리뷰 평점)를 그대로 넘겨 요청
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewSliceDTO {
+    private List<ReviewDTO> dtoList;
+    private boolean hasNext;
+    private Long nextCursor;
+    private Integer nextGrade;
+}
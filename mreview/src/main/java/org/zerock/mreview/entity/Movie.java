@@ -1,7 +1,9 @@
 package org.zerock.mreview.entity;
 
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -19,4 +21,24 @@ public class Movie extends BaseEntity{
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long mno;
     private String title;
+
+    // 리뷰 수와 평점 합계
+    // 리뷰 등록/수정/삭제 시 MovieRepository.addRating 으로만 증감하고 MovieRatingReconciler 가 주기적으로 보정
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long reviewCount;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long gradeSum;
+
+    // addRating 마다 1씩 증가 (행 잠금 안에서 바뀌므로 영화마다 커밋 순서와 같음)
+    // 순위표 전체 생성 중에 커밋된 리뷰 변경이 생성 시점에 이미 읽혔는지 구분하는 데 사용
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long ratingVersion;
+
+    public double getAvg() {
+        return reviewCount == 0 ? 0 : (double) gradeSum / reviewCount;
+    }
 }
@@ -10,6 +10,9 @@ import javax.persistence.*;
 @AllArgsConstructor
 @Getter
 @ToString(exclude = "movie")
+@Table(indexes = {
+        @Index(columnList = "movie_mno, representative"),
+        @Index(columnList = "uuid")})
 public class MovieImage {
 
     @Id
@@ -20,4 +23,7 @@ public class MovieImage {
     private String path;
     @ManyToOne(fetch = FetchType.LAZY)
     private Movie movie;
+
+    // 목록에 쓰는 대표 이미지 여부 (영화마다 한 장, 등록 시 첫 번째 이미지)
+    private boolean representative;
 }
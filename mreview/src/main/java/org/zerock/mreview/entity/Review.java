@@ -10,6 +10,10 @@ import javax.persistence.*;
 @NoArgsConstructor
 @Getter
 @ToString(exclude ={"movie", "member"})
+@Table(indexes = {
+        @Index(columnList = "movie_mno, reviewnum"),
+        @Index(columnList = "movie_mno, grade, reviewnum"),
+        @Index(columnList = "regdate")})
 public class Review extends BaseEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
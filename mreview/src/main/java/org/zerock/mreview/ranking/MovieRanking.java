@@ -0,0 +1,248 @@
+package org.zerock.mreview.ranking;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// 영화 순위표
+// topRated: 리뷰가 minReviews 개 이상인 영화를 평균 평점 높은 순 (같으면 리뷰 많은 순)
+// trending: 리뷰 하나마다 시간이 지날수록 줄어드는 가중치 exp(-(now - t) / tau) 의 합이 큰 순
+//
+// 가중치는 고정된 기준 시각(epoch) 으로 exp((t - epoch) / tau) 로 저장하므로 시간이 흘러도 순서가 바뀌지 않아
+// 리뷰가 들어올 때 해당 영화 한 편만 다시 넣으면 됨 (현재 점수는 읽을 때 exp(-(now - epoch) / tau) 를 곱함)
+//
+// 변경은 synchronized 로 한 번에 하나씩, 조회는 잠금 없이 ConcurrentSkipListSet 을 앞에서부터 size 개만 읽음
+public class MovieRanking {
+    private static final int SNAPSHOT_VERSION = 1;
+
+    // 저장된 가중치의 지수가 이 값을 넘으면 epoch 을 옮겨 double 범위를 넘지 않게 함
+    private static final double REBASE_EXPONENT = 300;
+
+    private static final Comparator<Entry> BY_RATING = Comparator
+            .comparingDouble(Entry::getAvg).reversed()
+            .thenComparing(Comparator.comparingLong(Entry::getReviewCount).reversed())
+            .thenComparingLong(Entry::getMno);
+
+    private static final Comparator<Entry> BY_TREND = Comparator
+            .comparingDouble(Entry::getWeight).reversed()
+            .thenComparingLong(Entry::getMno);
+
+    private final int minReviews;
+    private final double tauMillis;
+    private volatile long epochMillis;
+    private long lastReviewnum;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ConcurrentSkipListSet<Entry> topRated = new ConcurrentSkipListSet<>(BY_RATING);
+    private final ConcurrentSkipListSet<Entry> trending = new ConcurrentSkipListSet<>(BY_TREND);
+
+    // halfLifeMillis 가 지나면 리뷰 하나의 가중치가 절반
+    public MovieRanking(int minReviews, long halfLifeMillis, long epochMillis) {
+        this.minReviews = minReviews;
+        this.tauMillis = halfLifeMillis / Math.log(2);
+        this.epochMillis = epochMillis;
+    }
+
+    // 리뷰 수와 평점 합계 증감 (title 이 null 이면 그대로)
+    public synchronized void rate(long mno, String title, long countDelta, long gradeDelta) {
+        Entry entry = entries.get(mno);
+        if (entry == null) {
+            entry = new Entry(mno, title, 0, 0, 0);
+        }
+        put(entry, new Entry(mno, title != null ? title : entry.title,
+                Math.max(0, entry.reviewCount + countDelta), entry.gradeSum + gradeDelta, entry.weight));
+    }
+
+    // eventMillis 에 작성된 리뷰 하나를 더하거나(sign 1) 뺌(sign -1)
+    public synchronized void trend(long mno, long eventMillis, int sign) {
+        if ((eventMillis - epochMillis) / tauMillis > REBASE_EXPONENT) {
+            rebase(eventMillis);
+        }
+        Entry entry = entries.get(mno);
+        if (entry == null) {
+            entry = new Entry(mno, null, 0, 0, 0);
+        }
+        double weight = entry.weight + sign * Math.exp((eventMillis - epochMillis) / tauMillis);
+        // 뺄셈 오차로 남는 아주 작은 값은 0
+        if (weight < 1e-9) {
+            weight = 0;
+        }
+        put(entry, new Entry(mno, entry.title, entry.reviewCount, entry.gradeSum, weight));
+    }
+
+    // DB 에 저장된 리뷰 수와 평점 합계로 덮어씀 (가중치는 그대로)
+    public synchronized void reset(long mno, String title, long reviewCount, long gradeSum) {
+        Entry entry = entries.get(mno);
+        put(entry, new Entry(mno, title, reviewCount, gradeSum, entry == null ? 0 : entry.weight));
+    }
+
+    public synchronized void title(long mno, String title) {
+        Entry entry = entries.get(mno);
+        if (entry != null) {
+            put(entry, new Entry(mno, title, entry.reviewCount, entry.gradeSum, entry.weight));
+        }
+    }
+
+    public synchronized String getTitle(long mno) {
+        Entry entry = entries.get(mno);
+        return entry == null ? null : entry.title;
+    }
+
+    // 제목을 아직 모르는 영화
+    public synchronized List<Long> untitled() {
+        List<Long> result = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.title == null) {
+                result.add(entry.mno);
+            }
+        }
+        return result;
+    }
+
+    public synchronized long getLastReviewnum() {
+        return lastReviewnum;
+    }
+
+    public synchronized void updateLastReviewnum(long reviewnum) {
+        lastReviewnum = Math.max(lastReviewnum, reviewnum);
+    }
+
+    public List<Entry> topRated(int size) {
+        return first(topRated, size);
+    }
+
+    public List<Entry> trending(int size) {
+        return first(trending, size);
+    }
+
+    // now 시점의 trending 점수 (지금 막 작성된 리뷰 하나가 1)
+    public double score(Entry entry, long now) {
+        return entry.weight * Math.exp((epochMillis - now) / tauMillis);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeInt(minReviews);
+        out.writeDouble(tauMillis);
+        out.writeLong(epochMillis);
+        out.writeLong(lastReviewnum);
+        out.writeInt(entries.size());
+        for (Entry entry : entries.values()) {
+            out.writeLong(entry.mno);
+            out.writeBoolean(entry.title != null);
+            if (entry.title != null) {
+                out.writeUTF(entry.title);
+            }
+            out.writeLong(entry.reviewCount);
+            out.writeLong(entry.gradeSum);
+            out.writeDouble(entry.weight);
+        }
+    }
+
+    // 설정(minReviews, 반감기)이 다르게 저장된 스냅샷이면 null (처음부터 다시 만들어야 함)
+    public static MovieRanking readFrom(DataInputStream in, int minReviews, long halfLifeMillis) throws IOException {
+        if (in.readInt() != SNAPSHOT_VERSION) {
+            return null;
+        }
+        int storedMinReviews = in.readInt();
+        double storedTau = in.readDouble();
+        long epochMillis = in.readLong();
+        MovieRanking ranking = new MovieRanking(minReviews, halfLifeMillis, epochMillis);
+        if (storedMinReviews != minReviews || Math.abs(storedTau - ranking.tauMillis) > 1e-6) {
+            return null;
+        }
+        ranking.lastReviewnum = in.readLong();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            long mno = in.readLong();
+            String title = in.readBoolean() ? in.readUTF() : null;
+            ranking.put(null, new Entry(mno, title, in.readLong(), in.readLong(), in.readDouble()));
+        }
+        return ranking;
+    }
+
+    private void put(Entry previous, Entry entry) {
+        if (previous != null) {
+            topRated.remove(previous);
+            trending.remove(previous);
+        }
+        entries.put(entry.mno, entry);
+        if (entry.reviewCount >= minReviews && entry.reviewCount > 0) {
+            topRated.add(entry);
+        }
+        if (entry.weight > 0) {
+            trending.add(entry);
+        }
+    }
+
+    // 모든 가중치를 새 기준 시각에 맞춰 줄임 (순서는 그대로)
+    private void rebase(long newEpochMillis) {
+        double factor = Math.exp((epochMillis - newEpochMillis) / tauMillis);
+        List<Entry> previous = new ArrayList<>(entries.values());
+        epochMillis = newEpochMillis;
+        for (Entry entry : previous) {
+            put(entry, new Entry(entry.mno, entry.title, entry.reviewCount, entry.gradeSum, entry.weight * factor));
+        }
+    }
+
+    private static List<Entry> first(ConcurrentSkipListSet<Entry> set, int size) {
+        List<Entry> result = new ArrayList<>(size);
+        Iterator<Entry> iterator = set.iterator();
+        while (result.size() < size && iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    // 바뀔 때마다 새로 만들어 넣으므로 정렬 기준 값이 set 안에서 바뀌지 않음
+    public static final class Entry {
+        private final long mno;
+        private final String title;
+        private final long reviewCount;
+        private final long gradeSum;
+        private final double weight;
+
+        Entry(long mno, String title, long reviewCount, long gradeSum, double weight) {
+            this.mno = mno;
+            this.title = title;
+            this.reviewCount = reviewCount;
+            this.gradeSum = gradeSum;
+            this.weight = weight;
+        }
+
+        public long getMno() {
+            return mno;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public long getReviewCount() {
+            return reviewCount;
+        }
+
+        public long getGradeSum() {
+            return gradeSum;
+        }
+
+        public double getAvg() {
+            return reviewCount == 0 ? 0 : (double) gradeSum / reviewCount;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+    }
+}
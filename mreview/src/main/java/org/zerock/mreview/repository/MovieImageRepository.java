@@ -1,7 +1,28 @@
 package org.zerock.mreview.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import org.zerock.mreview.entity.MovieImage;
 
-public interface MovieImageRepository extends JpaRepository<MovieImage, Long> {
+import java.util.Collection;
+import java.util.List;
+
+public interface MovieImageRepository extends JpaRepository<MovieImage, Long>, MovieImageRepositoryCustom {
+    // 대표 이미지가 없는 영화는 inum 이 가장 작은 이미지를 대표 이미지로 지정
+    // (representative 컬럼이 생기기 전에 등록된 영화용)
+    @Transactional
+    @Modifying
+    @Query(value = "update movie_image set representative = true" +
+            " where inum in (select t.inum from (select min(i.inum) as inum from movie_image i" +
+            " group by i.movie_mno" +
+            " having sum(case when i.representative then 1 else 0 end) = 0) t)",
+            nativeQuery = true)
+    int markRepresentatives();
+
+    // 업로드 파일 정리: 주어진 uuid 중 MovieImage 로 등록된 것
+    @Query("select mi.uuid from MovieImage mi where mi.uuid in :uuids")
+    List<String> findExistingUuids(@Param("uuids") Collection<String> uuids);
 }
@@ -0,0 +1,10 @@
+package org.zerock.mreview.repository;
+
+import org.zerock.mreview.entity.MovieImage;
+
+import java.util.List;
+
+public interface MovieImageRepositoryCustom {
+    // 이미지 행을 JDBC batch 한 번으로 저장 (inum 은 채워지지 않음)
+    int insertAll(List<MovieImage> movieImages);
+}
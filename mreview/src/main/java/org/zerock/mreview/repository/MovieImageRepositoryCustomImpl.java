@@ -0,0 +1,34 @@
+package org.zerock.mreview.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.zerock.mreview.entity.MovieImage;
+
+import java.util.List;
+
+// MovieImage 는 IDENTITY 키라 Hibernate 가 insert 를 batch 로 묶지 못하므로 JdbcTemplate 으로 직접 batch insert
+// 같은 트랜잭션의 커넥션을 쓰므로 먼저 save 한 Movie 와 함께 커밋/롤백됨
+public class MovieImageRepositoryCustomImpl implements MovieImageRepositoryCustom {
+    private static final String INSERT = "insert into movie_image (uuid, img_name, path, movie_mno, representative)" +
+            " values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MovieImageRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int insertAll(List<MovieImage> movieImages) {
+        if (movieImages.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT, movieImages, movieImages.size(), (ps, movieImage) -> {
+            ps.setString(1, movieImage.getUuid());
+            ps.setString(2, movieImage.getImgName());
+            ps.setString(3, movieImage.getPath());
+            ps.setLong(4, movieImage.getMovie().getMno());
+            ps.setBoolean(5, movieImage.isRepresentative());
+        });
+        return movieImages.size();
+    }
+}
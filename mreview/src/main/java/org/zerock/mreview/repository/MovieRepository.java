@@ -3,23 +3,63 @@ package org.zerock.mreview.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import org.zerock.mreview.entity.Movie;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface MovieRepository extends JpaRepository<Movie, Long> {
-    @Query("select m, mi, avg(coalesce(r.grade, 0)), " +
-            "count(distinct r) from Movie m " +
-            "left outer join MovieImage mi on mi.movie = m " +
-            "left outer join Review r on r.movie = m " +
-            "group by m")
+    // 평점은 m.reviewCount, m.gradeSum 에 유지되므로 Review 조인, group by 없음
+    // 이미지는 대표 이미지 한 장만 조인하므로 영화마다 정확히 한 행 (이미지가 없으면 mi 는 null)
+    @Query(value = "select m, mi from Movie m " +
+            "left outer join MovieImage mi on mi.movie = m and mi.representative = true",
+            countQuery = "select count(m) from Movie m")
     Page<Object[]> getListPage(Pageable pageable);
 
-    @Query("select m, mi, avg(coalesce(r.grade, 0)), count(r)" +
+    @Query("select m, mi " +
     "from Movie m left outer join MovieImage  mi on mi.movie = m " +
-            "left outer join Review r on r.movie = m " +
-    "where m.mno = :mno group by mi")
+    "where m.mno = :mno order by mi.inum")
     List<Object[]> getMovieWithAll(Long mno);
 
+    // 리뷰 등록/수정/삭제 시 리뷰 수와 평점 합계 증감 (DB 에서 원자적으로 처리)
+    @Modifying
+    @Query("update Movie m set m.reviewCount = m.reviewCount + :countDelta, " +
+            "m.gradeSum = m.gradeSum + :gradeDelta, m.ratingVersion = m.ratingVersion + 1 where m.mno = :mno")
+    int addRating(@Param("mno") Long mno, @Param("countDelta") long countDelta, @Param("gradeDelta") long gradeDelta);
+
+    // addRating 직후 같은 트랜잭션에서 호출 (행 잠금을 쥐고 있으므로 이 변경의 버전)
+    @Query("select m.ratingVersion from Movie m where m.mno = :mno")
+    long getRatingVersion(@Param("mno") Long mno);
+
+    @Query("select max(m.mno) from Movie m")
+    Long getMaxMno();
+
+    // 순위표 전체 생성용: 영화마다 mno, title, reviewCount, gradeSum, ratingVersion
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select m.mno, m.title, m.reviewCount, m.gradeSum, m.ratingVersion from Movie m")
+    Stream<Object[]> streamRatings();
+
+    @Query("select m.mno, m.title from Movie m where m.mno in :mnos")
+    List<Object[]> getTitles(@Param("mnos") Collection<Long> mnos);
+
+    // 평점 보정: 범위 안에서 실제 리뷰 수/평점 합계와 다른 영화만 갱신
+    @Transactional
+    @Modifying
+    @Query(value = "update movie m" +
+            " set m.review_count = (select count(*) from review r where r.movie_mno = m.mno)," +
+            " m.grade_sum = (select coalesce(sum(r.grade), 0) from review r where r.movie_mno = m.mno)" +
+            " where m.mno between :fromMno and :toMno" +
+            " and (m.review_count <> (select count(*) from review r2 where r2.movie_mno = m.mno)" +
+            " or m.grade_sum <> (select coalesce(sum(r2.grade), 0) from review r2 where r2.movie_mno = m.mno))",
+            nativeQuery = true)
+    int reconcileRating(@Param("fromMno") Long fromMno, @Param("toMno") Long toMno);
 }
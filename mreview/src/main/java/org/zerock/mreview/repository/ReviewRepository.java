@@ -1,20 +1,72 @@
 package org.zerock.mreview.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.zerock.mreview.dto.ReviewDTO;
 import org.zerock.mreview.entity.Member;
 import org.zerock.mreview.entity.Movie;
 import org.zerock.mreview.entity.Review;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     @EntityGraph(attributePaths = {"member"}, type = EntityGraph.EntityGraphType.FETCH)
     List<Review> findByMovie(Movie movie);
 
+    // 리뷰 피드: ReviewDTO 에 필요한 컬럼만 읽고 (Member 엔티티, pw 는 읽지 않음) 키셋으로 다음 조각을 찾음
+    // Slice 라 count 쿼리 없이 pageable 크기 + 1 건만 읽음
+    String FEED = "select new org.zerock.mreview.dto.ReviewDTO(r.reviewnum, r.movie.mno, m.mid, m.nickname, m.email," +
+            " r.grade, r.text, r.regDate, r.modDate) from Review r join r.member m where r.movie.mno = :mno";
+
+    // 최신순 (movie_mno, reviewnum 인덱스)
+    @Query(FEED + " order by r.reviewnum desc")
+    Slice<ReviewDTO> getFeed(@Param("mno") Long mno, Pageable pageable);
+
+    @Query(FEED + " and r.reviewnum < :cursor order by r.reviewnum desc")
+    Slice<ReviewDTO> getFeedAfter(@Param("mno") Long mno, @Param("cursor") Long cursor, Pageable pageable);
+
+    // 평점 높은 순, 같은 평점은 최신순 (movie_mno, grade, reviewnum 인덱스)
+    @Query(FEED + " order by r.grade desc, r.reviewnum desc")
+    Slice<ReviewDTO> getFeedByGrade(@Param("mno") Long mno, Pageable pageable);
+
+    @Query(FEED + " and (r.grade < :grade or (r.grade = :grade and r.reviewnum < :cursor))" +
+            " order by r.grade desc, r.reviewnum desc")
+    Slice<ReviewDTO> getFeedByGradeAfter(@Param("mno") Long mno, @Param("grade") int grade,
+                                         @Param("cursor") Long cursor, Pageable pageable);
+
     @Modifying
     @Query("delete from Review mr where mr.member = :member")
     void deleteByMember(Member member);
+
+    @Query("select max(r.reviewnum) from Review r")
+    Long getMaxReviewnum();
+
+    // 순위표 trending 생성용: since 이후 작성된 리뷰의 mno, regDate (regdate 인덱스)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select r.movie.mno, r.regDate from Review r where r.regDate >= :since")
+    Stream<Object[]> streamWrittenSince(@Param("since") LocalDateTime since);
+
+    // 스냅샷 이후 등록된 리뷰의 mno, grade, regDate, reviewnum
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select r.movie.mno, r.grade, r.regDate, r.reviewnum from Review r where r.reviewnum > :reviewnum")
+    Stream<Object[]> streamAfter(@Param("reviewnum") Long reviewnum);
+
+    // 평점 증감 계산용: 수정/삭제가 동시에 들어와도 같은 리뷰의 이전 평점을 두 번 반영하지 않도록 잠금
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Review r where r.reviewnum = :reviewnum")
+    Optional<Review> findForUpdate(@Param("reviewnum") Long reviewnum);
 }
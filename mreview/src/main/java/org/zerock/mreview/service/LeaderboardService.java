@@ -0,0 +1,349 @@
+package org.zerock.mreview.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.zerock.mreview.dto.RankingDTO;
+import org.zerock.mreview.ranking.MovieRanking;
+import org.zerock.mreview.repository.MovieRepository;
+import org.zerock.mreview.repository.ReviewRepository;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// 평점 상위 / 최근 인기 영화 순위표 (MovieRanking) 를 메모리에 유지
+// 리뷰 등록/수정/삭제가 커밋되면 해당 영화만 갱신하고, 조회는 DB 를 거치지 않음
+// leaderboard.snapshot-ms 마다와 종료 시 파일로 저장해 재시작하면 스냅샷 + 영화별 리뷰 수/평점 합계 + 그 뒤에 등록된 리뷰만 읽어 이어감
+// 제목은 생성/불러오기 때 함께 읽고, 그 뒤 처음 리뷰가 달린 영화만 커밋 후 한 번 읽음
+// 스냅샷 이후 삭제된 리뷰의 trending 가중치와 ReviewService 를 거치지 않은 변경(회원 탈퇴 등)은 rebuild-cron 의 전체 생성에서 맞춰짐
+@Service
+@Log4j2
+public class LeaderboardService {
+    private static final int MAX_SIZE = 100;
+    // trending 생성 시 반감기의 이 배수보다 오래된 리뷰는 읽지 않음 (가중치 100만분의 1 미만)
+    private static final int TRENDING_WINDOW_HALF_LIVES = 20;
+
+    private final MovieRepository movieRepository;
+    private final ReviewRepository reviewRepository;
+    private final TransactionTemplate readTemplate;
+    private final int minReviews;
+    private final long halfLifeMillis;
+    private final Path snapshotFile;
+
+    private volatile MovieRanking ranking;
+
+    // 전체 생성/스냅샷 불러오기 중에 커밋된 리뷰 변경은 모아 두었다가 끝난 뒤 반영
+    private final Object lock = new Object();
+    private boolean loading;
+    private final List<ReviewEvent> pending = new ArrayList<>();
+
+    public LeaderboardService(MovieRepository movieRepository, ReviewRepository reviewRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${leaderboard.min-reviews}") int minReviews,
+                              @Value("${leaderboard.trending-half-life-hours}") long halfLifeHours,
+                              @Value("${leaderboard.snapshot-file}") String snapshotFile) {
+        this.movieRepository = movieRepository;
+        this.reviewRepository = reviewRepository;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        // 영화/리뷰를 같은 시점 기준으로 읽음
+        this.readTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.minReviews = minReviews;
+        this.halfLifeMillis = halfLifeHours * 3_600_000L;
+        this.snapshotFile = Paths.get(snapshotFile);
+        this.ranking = new MovieRanking(minReviews, halfLifeMillis, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        MovieRanking snapshot = readSnapshot();
+        if (snapshot == null) {
+            rebuild();
+        }
+        else {
+            load(versions -> catchUp(snapshot, versions));
+        }
+    }
+
+    @Scheduled(cron = "${leaderboard.rebuild-cron}")
+    public void rebuild() {
+        load(this::build);
+    }
+
+    public List<RankingDTO> getTopRated(int size) {
+        MovieRanking current = ranking;
+        return toDTOList(current, current.topRated(Math.max(1, Math.min(size, MAX_SIZE))));
+    }
+
+    public List<RankingDTO> getTrending(int size) {
+        MovieRanking current = ranking;
+        return toDTOList(current, current.trending(Math.max(1, Math.min(size, MAX_SIZE))));
+    }
+
+    // ReviewService 에서 addRating 뒤에 호출 (트랜잭션 안이면 커밋 후 반영)
+    // ratingVersion 은 그 addRating 으로 바뀐 영화의 버전
+    public void onRegister(Long mno, Long reviewnum, int grade, LocalDateTime regDate, long ratingVersion) {
+        afterCommit(new ReviewEvent(mno, reviewnum, ratingVersion, 1, grade, toMillis(regDate), 1));
+    }
+
+    public void onModify(Long mno, int gradeDelta, long ratingVersion) {
+        afterCommit(new ReviewEvent(mno, 0, ratingVersion, 0, gradeDelta, 0, 0));
+    }
+
+    public void onRemove(Long mno, int grade, LocalDateTime regDate, long ratingVersion) {
+        afterCommit(new ReviewEvent(mno, 0, ratingVersion, -1, -grade, toMillis(regDate), -1));
+    }
+
+    public Map<String, Object> getStats() {
+        MovieRanking current = ranking;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("movies", current.size());
+        stats.put("lastReviewnum", current.getLastReviewnum());
+        synchronized (lock) {
+            stats.put("loading", loading);
+            stats.put("pending", pending.size());
+        }
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.snapshot-ms}", initialDelayString = "${leaderboard.snapshot-ms}")
+    public void snapshot() {
+        MovieRanking current = ranking;
+        try {
+            Path parent = snapshotFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                current.writeTo(out);
+            }
+            Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("leaderboard snapshot failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (lock) {
+            if (loading) {
+                return;
+            }
+        }
+        snapshot();
+    }
+
+    private void load(Loader loader) {
+        synchronized (lock) {
+            if (loading) {
+                return;
+            }
+            loading = true;
+        }
+        long start = System.currentTimeMillis();
+        MovieRanking next = null;
+        // 읽은 시점의 영화별 ratingVersion
+        Map<Long, Long> versions = new HashMap<>();
+        try {
+            next = loader.load(versions);
+        } catch (RuntimeException e) {
+            log.warn("leaderboard load failed: " + e.getMessage());
+        }
+        synchronized (lock) {
+            MovieRanking target = next != null ? next : ranking;
+            // 읽는 동안 커밋된 등록/수정/삭제 중 읽은 시점에 이미 반영돼 있던 것(버전이 읽은 버전 이하)은 건너뜀
+            // 커밋 시점과 읽기 시점의 앞뒤는 커밋 후 호출 순서로는 알 수 없으므로 DB 의 버전으로 판단
+            for (ReviewEvent event : pending) {
+                if (next == null || event.ratingVersion > versions.getOrDefault(event.mno, 0L)) {
+                    event.applyTo(target);
+                }
+            }
+            pending.clear();
+            ranking = target;
+            loading = false;
+        }
+        // 불러오는 동안 처음 리뷰가 달린 영화
+        loadTitles(ranking, ranking.untitled());
+        log.info("leaderboard loaded: " + ranking.size() + " movies (" + (System.currentTimeMillis() - start) + "ms)");
+    }
+
+    private MovieRanking build(Map<Long, Long> versions) {
+        long now = System.currentTimeMillis();
+        MovieRanking next = new MovieRanking(minReviews, halfLifeMillis, now);
+        LocalDateTime since = LocalDateTime.now().minus(Duration.ofMillis(halfLifeMillis * TRENDING_WINDOW_HALF_LIVES));
+        readTemplate.executeWithoutResult(status -> {
+            Long maxReviewnum = reviewRepository.getMaxReviewnum();
+            next.updateLastReviewnum(maxReviewnum == null ? 0 : maxReviewnum);
+            try (Stream<Object[]> rows = movieRepository.streamRatings()) {
+                rows.forEach(row -> {
+                    next.rate((Long) row[0], (String) row[1], (Long) row[2], (Long) row[3]);
+                    versions.put((Long) row[0], (Long) row[4]);
+                });
+            }
+            try (Stream<Object[]> rows = reviewRepository.streamWrittenSince(since)) {
+                rows.forEach(row -> next.trend((Long) row[0], toMillis((LocalDateTime) row[1]), 1));
+            }
+        });
+        return next;
+    }
+
+    // 리뷰 수/평점 합계와 제목은 영화 테이블 값으로 덮어써 스냅샷 이후의 수정/삭제도 반영하고,
+    // trending 가중치는 스냅샷 이후 등록된 리뷰만 더함
+    private MovieRanking catchUp(MovieRanking snapshot, Map<Long, Long> versions) {
+        readTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = movieRepository.streamRatings()) {
+                rows.forEach(row -> {
+                    snapshot.reset((Long) row[0], (String) row[1], (Long) row[2], (Long) row[3]);
+                    versions.put((Long) row[0], (Long) row[4]);
+                });
+            }
+            try (Stream<Object[]> rows = reviewRepository.streamAfter(snapshot.getLastReviewnum())) {
+                rows.forEach(row -> {
+                    snapshot.trend((Long) row[0], toMillis((LocalDateTime) row[2]), 1);
+                    snapshot.updateLastReviewnum((Long) row[3]);
+                });
+            }
+        });
+        return snapshot;
+    }
+
+    private MovieRanking readSnapshot() {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            return MovieRanking.readFrom(in, minReviews, halfLifeMillis);
+        } catch (IOException e) {
+            log.warn("leaderboard snapshot unreadable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private List<RankingDTO> toDTOList(MovieRanking current, List<MovieRanking.Entry> entries) {
+        long now = System.currentTimeMillis();
+        List<RankingDTO> result = new ArrayList<>(entries.size());
+        for (MovieRanking.Entry entry : entries) {
+            result.add(RankingDTO.builder()
+                    .rank(result.size() + 1)
+                    .mno(entry.getMno())
+                    .title(entry.getTitle())
+                    .avg(entry.getAvg())
+                    .reviewCnt(entry.getReviewCount())
+                    .score(current.score(entry, now))
+                    .build());
+        }
+        return result;
+    }
+
+    private void afterCommit(ReviewEvent event) {
+        Runnable task = () -> {
+            MovieRanking target;
+            // 잠금 안에서 반영해야 load 가 순위표를 바꿔 끼우는 사이에 반영한 변경을 잃지 않음
+            synchronized (lock) {
+                if (loading) {
+                    pending.add(event);
+                    return;
+                }
+                target = ranking;
+                event.applyTo(target);
+            }
+            if (event.countDelta > 0 && target.getTitle(event.mno) == null) {
+                loadTitles(target, Collections.singletonList(event.mno));
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        }
+        else {
+            task.run();
+        }
+    }
+
+    // 실패하면 제목 없이 두고 다음 전체 생성에서 채움
+    private void loadTitles(MovieRanking target, List<Long> mnos) {
+        if (mnos.isEmpty()) {
+            return;
+        }
+        try {
+            for (Object[] row : movieRepository.getTitles(mnos)) {
+                target.title((Long) row[0], (String) row[1]);
+            }
+        } catch (RuntimeException e) {
+            log.warn("leaderboard title load failed: " + e.getMessage());
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime == null ? System.currentTimeMillis()
+                : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private interface Loader {
+        // 읽은 영화의 ratingVersion 을 versions 에 채움
+        MovieRanking load(Map<Long, Long> versions);
+    }
+
+    private static class ReviewEvent {
+        private final long mno;
+        // 등록일 때만 있음
+        private final long reviewnum;
+        private final long ratingVersion;
+        private final int countDelta;
+        private final int gradeDelta;
+        private final long eventMillis;
+        private final int trendSign;
+
+        ReviewEvent(long mno, long reviewnum, long ratingVersion, int countDelta, int gradeDelta, long eventMillis,
+                    int trendSign) {
+            this.mno = mno;
+            this.reviewnum = reviewnum;
+            this.ratingVersion = ratingVersion;
+            this.countDelta = countDelta;
+            this.gradeDelta = gradeDelta;
+            this.eventMillis = eventMillis;
+            this.trendSign = trendSign;
+        }
+
+        void applyTo(MovieRanking target) {
+            target.rate(mno, null, countDelta, gradeDelta);
+            if (trendSign != 0) {
+                target.trend(mno, eventMillis, trendSign);
+            }
+            if (reviewnum > 0) {
+                target.updateLastReviewnum(reviewnum);
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.zerock.mreview.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.zerock.mreview.dto.MovieDTO;
+import org.zerock.mreview.dto.MovieImageDTO;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// 영화 상세(MovieService.getMovie) 결과 캐시
+// 항목 수(maxEntries) 기준 LRU 와 저장 후 ttlMillis 가 지나면 만료
+// 영화 번호로 나눈 구간(segment)마다 따로 잠그고 LRU 를 유지하므로 서로 다른 영화의 조회가 한 잠금에 몰리지 않음
+// (항목이 적으면 구간 하나 = 전체 LRU)
+// 리뷰가 등록/수정/삭제되면 그 영화 항목을 뺌 (상세 조회 수천 번에 리뷰 변경 한 번 정도라 다시 읽는 비용은 작음)
+// DB 에서 읽는 동안 그 영화의 리뷰가 바뀌었을 수 있으므로 읽기 전에 받은 stamp 가 그 사이 바뀌었으면 저장하지 않음
+// MovieDTO 는 변경 가능하므로 저장할 때와 꺼낼 때 복사해 호출한 쪽끼리 공유하지 않음
+@Component
+public class MovieDetailCache {
+    // 영화 번호를 이 개수의 구간으로 나눠 구간별로 변경 횟수를 셈 (구간 수의 배수)
+    private static final int STAMP_STRIPES = 1024;
+    private static final int MAX_SEGMENTS = 16;
+    // 구간 하나에 이보다 적게 들어가면 구간을 나누지 않음
+    private static final int MIN_SEGMENT_ENTRIES = 64;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Segment[] segments;
+
+    // 리뷰 변경마다 그 영화의 구간만 증가
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder skippedPuts = new LongAdder();
+
+    public MovieDetailCache(@Value("${movie.detail-cache.max-entries}") int maxEntries,
+                            @Value("${movie.detail-cache.ttl-ms}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        // 2의 거듭제곱이어야 같은 stamp 구간의 영화가 항상 같은 segment 에 들어감
+        int count = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, maxEntries / MIN_SEGMENT_ENTRIES)));
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(Math.max(1, (maxEntries + count - 1) / count));
+        }
+    }
+
+    public MovieDTO get(Long mno) {
+        Segment segment = segmentOf(mno);
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.entries.get(mno);
+            if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+                segment.entries.remove(mno);
+                expirations.increment();
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copy(entry.movieDTO);
+    }
+
+    // DB 에서 읽기 전에 받아 put 에 넘김
+    public long stamp(Long mno) {
+        return stamps.get(stripe(mno));
+    }
+
+    public void put(Long mno, MovieDTO movieDTO, long stamp) {
+        Entry entry = new Entry(copy(movieDTO), System.nanoTime() + ttlNanos);
+        Segment segment = segmentOf(mno);
+        synchronized (segment) {
+            if (stamps.get(stripe(mno)) != stamp) {
+                skippedPuts.increment();
+                return;
+            }
+            segment.entries.put(mno, entry);
+            Iterator<Entry> iterator = segment.entries.values().iterator();
+            while (segment.entries.size() > segment.capacity && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    // 리뷰 변경이 커밋된 뒤 호출
+    // 평점/리뷰 수를 캐시에서 직접 고치면 커밋 직후 읽어 간 값과 겹쳐 두 번 반영될 수 있으므로 빼고 다음 조회에서 다시 읽음
+    public void invalidate(Long mno) {
+        Segment segment = segmentOf(mno);
+        synchronized (segment) {
+            stamps.incrementAndGet(stripe(mno));
+            if (segment.entries.remove(mno) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < segments.length; i++) {
+            synchronized (segments[i]) {
+                for (int stripe = i; stripe < STAMP_STRIPES; stripe += segments.length) {
+                    stamps.incrementAndGet(stripe);
+                }
+                segments[i].entries.clear();
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("segments", segments.length);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("skippedPuts", skippedPuts.sum());
+        return stats;
+    }
+
+    private Segment segmentOf(Long mno) {
+        return segments[stripe(mno) % segments.length];
+    }
+
+    private static int stripe(Long mno) {
+        return (Long.hashCode(mno) & 0x7fffffff) % STAMP_STRIPES;
+    }
+
+    private static MovieDTO copy(MovieDTO movieDTO) {
+        List<MovieImageDTO> imageDTOList = new ArrayList<>(movieDTO.getImageDTOList().size());
+        for (MovieImageDTO imageDTO : movieDTO.getImageDTOList()) {
+            imageDTOList.add(new MovieImageDTO(imageDTO.getUuid(), imageDTO.getImgName(), imageDTO.getPath()));
+        }
+        return MovieDTO.builder()
+                .mno(movieDTO.getMno())
+                .title(movieDTO.getTitle())
+                .imageDTOList(imageDTOList)
+                .avg(movieDTO.getAvg())
+                .reviewCnt(movieDTO.getReviewCnt())
+                .regDate(movieDTO.getRegDate())
+                .modDate(movieDTO.getModDate())
+                .build();
+    }
+
+    private static class Segment {
+        private final int capacity;
+        // 접근 순서 유지 (가장 오래 안 쓴 항목이 맨 앞)
+        private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+        }
+    }
+
+    private static class Entry {
+        private final MovieDTO movieDTO;
+        private final long expiresAt;
+
+        Entry(MovieDTO movieDTO, long expiresAt) {
+            this.movieDTO = movieDTO;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.zerock.mreview.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.zerock.mreview.dto.MovieDTO;
+import org.zerock.mreview.dto.MovieImageDTO;
+import org.zerock.mreview.entity.Movie;
+import org.zerock.mreview.entity.MovieImage;
+import org.zerock.mreview.repository.MovieImageRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// JSON-lines 파일(한 줄에 MovieDTO 하나: {"title": ..., "imageDTOList": [{"uuid", "imgName", "path"}, ...]})로 영화 대량 등록
+// chunkSize 줄마다 한 트랜잭션에서 영화 batch insert 한 번(생성된 mno 를 돌려받음) + 이미지 batch insert 한 번
+// 앞 chunk 는 이미 커밋되므로 중간에 실패하면 결과의 movies 까지만 들어간 상태
+// 형식이 잘못된 줄은 건너뛰고 skipped 로 셈
+@Service
+@Log4j2
+public class MovieImportService {
+    private static final String INSERT_MOVIE = "insert into movie (title, regdate, moddate) values (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MovieImageRepository imageRepository;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public MovieImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              MovieImageRepository imageRepository, ObjectMapper objectMapper,
+                              @Value("${movie.import.chunk-size}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.imageRepository = imageRepository;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public Map<String, Object> importJsonLines(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        long lines = 0;
+        long movies = 0;
+        long images = 0;
+        long skipped = 0;
+        long chunks = 0;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<MovieDTO> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines++;
+            if (line.isBlank()) {
+                continue;
+            }
+            MovieDTO movieDTO = parse(line, lines);
+            if (movieDTO == null) {
+                skipped++;
+                continue;
+            }
+            chunk.add(movieDTO);
+            if (chunk.size() == chunkSize) {
+                images += insertChunk(chunk);
+                movies += chunk.size();
+                chunks++;
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            images += insertChunk(chunk);
+            movies += chunk.size();
+            chunks++;
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("lines", lines);
+        result.put("movies", movies);
+        result.put("images", images);
+        result.put("skipped", skipped);
+        result.put("chunks", chunks);
+        result.put("millis", (System.nanoTime() - start) / 1_000_000);
+        log.info("movie import: " + result);
+        return result;
+    }
+
+    private MovieDTO parse(String line, long lineNumber) {
+        try {
+            MovieDTO movieDTO = objectMapper.readValue(line, MovieDTO.class);
+            if (movieDTO.getTitle() == null || movieDTO.getTitle().isBlank()) {
+                log.warn("movie import: line " + lineNumber + " has no title");
+                return null;
+            }
+            return movieDTO;
+        } catch (JsonProcessingException e) {
+            log.warn("movie import: line " + lineNumber + " is not valid json: " + e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    // 저장한 이미지 수
+    private int insertChunk(List<MovieDTO> chunk) {
+        Integer inserted = transactionTemplate.execute(status -> {
+            List<Long> mnos = insertMovies(chunk);
+
+            // 등록 화면과 같이 첫 번째 이미지가 대표 이미지
+            List<MovieImage> movieImages = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                Movie movie = Movie.builder().mno(mnos.get(i)).build();
+                List<MovieImageDTO> imageDTOList = chunk.get(i).getImageDTOList();
+                if (imageDTOList == null) {
+                    continue;
+                }
+                for (int j = 0; j < imageDTOList.size(); j++) {
+                    MovieImageDTO movieImageDTO = imageDTOList.get(j);
+                    movieImages.add(MovieImage.builder()
+                            .uuid(movieImageDTO.getUuid())
+                            .imgName(movieImageDTO.getImgName())
+                            .path(movieImageDTO.getPath())
+                            .movie(movie)
+                            .representative(j == 0)
+                            .build());
+                }
+            }
+            return imageRepository.insertAll(movieImages);
+        });
+        return inserted == null ? 0 : inserted;
+    }
+
+    // 생성된 mno 를 입력 순서대로 반환
+    private List<Long> insertMovies(List<MovieDTO> chunk) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_MOVIE, Statement.RETURN_GENERATED_KEYS)) {
+                for (MovieDTO movieDTO : chunk) {
+                    ps.setString(1, movieDTO.getTitle());
+                    ps.setTimestamp(2, now);
+                    ps.setTimestamp(3, now);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> mnos = new ArrayList<>(chunk.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        mnos.add(keys.getLong(1));
+                    }
+                }
+                if (mnos.size() != chunk.size()) {
+                    throw new IllegalStateException("generated keys: " + mnos.size() + ", movies: " + chunk.size());
+                }
+                return mnos;
+            }
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package org.zerock.mreview.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.zerock.mreview.repository.MovieRepository;
+
+// Movie.reviewCount, gradeSum 이 실제 리뷰와 어긋난 영화를 mno 구간 단위로 보정
+// (회원 탈퇴 시 deleteByMember 처럼 ReviewService 를 거치지 않고 지워진 리뷰 등)
+// 구간마다 별도 트랜잭션이라 한 번에 movie 테이블 전체를 잠그지 않음
+@Component
+@Log4j2
+public class MovieRatingReconciler {
+    private final MovieRepository movieRepository;
+    private final MovieDetailCache movieDetailCache;
+    private final long chunkSize;
+
+    public MovieRatingReconciler(MovieRepository movieRepository, MovieDetailCache movieDetailCache,
+                                 @Value("${movie.rating.reconcile-chunk}") long chunkSize) {
+        this.movieRepository = movieRepository;
+        this.movieDetailCache = movieDetailCache;
+        this.chunkSize = chunkSize;
+    }
+
+    // review_count, grade_sum 컬럼이 추가되기 전에 등록된 영화는 0 으로 시작하므로 기동 시 한 번 보정
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(cron = "${movie.rating.reconcile-cron}")
+    public int reconcile() {
+        Long maxMno = movieRepository.getMaxMno();
+        if (maxMno == null) {
+            return 0;
+        }
+
+        int repaired = 0;
+        for (long from = 1; from <= maxMno; from += chunkSize) {
+            repaired += movieRepository.reconcileRating(from, from + chunkSize - 1);
+        }
+        // 보정된 영화가 캐시에 예전 평점으로 남지 않도록
+        if (repaired > 0) {
+            movieDetailCache.clear();
+        }
+        log.info("movie rating reconciled: " + repaired);
+        return repaired;
+    }
+}
@@ -7,6 +7,7 @@ import org.zerock.mreview.dto.PageResultDTO;
 import org.zerock.mreview.entity.Movie;
 import org.zerock.mreview.entity.MovieImage;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -53,13 +54,18 @@ public interface MovieService {
         List<MovieImageDTO> imageDTOList = movieDTO.getImageDTOList();
 
         if(imageDTOList != null && imageDTOList.size() > 0) {
-            List<MovieImage> movieImageList = imageDTOList.stream()
-                    .map(movieImageDTO -> MovieImage.builder()
-                            .path(movieImageDTO.getPath())
-                            .imgName(movieImageDTO.getImgName())
-                            .uuid(movieImageDTO.getUuid())
-                            .movie(movie)
-                            .build()).collect(Collectors.toList());
+            // 첫 번째 이미지를 목록에 쓰는 대표 이미지로 지정
+            List<MovieImage> movieImageList = new ArrayList<>();
+            for (int i = 0; i < imageDTOList.size(); i++) {
+                MovieImageDTO movieImageDTO = imageDTOList.get(i);
+                movieImageList.add(MovieImage.builder()
+                        .path(movieImageDTO.getPath())
+                        .imgName(movieImageDTO.getImgName())
+                        .uuid(movieImageDTO.getUuid())
+                        .movie(movie)
+                        .representative(i == 0)
+                        .build());
+            }
             entityMap.put("imgList", movieImageList);
         }
         return entityMap;
@@ -17,6 +17,7 @@ import org.zerock.mreview.repository.MovieRepository;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -27,6 +28,7 @@ import java.util.function.Function;
 public class MovieServiceImpl implements MovieService{
     private final MovieRepository movieRepository;
     private final MovieImageRepository imageRepository;
+    private final MovieDetailCache movieDetailCache;
 
     @Transactional
     @Override
@@ -35,9 +37,10 @@ public class MovieServiceImpl implements MovieService{
         Movie movie = (Movie)entityMap.get("movie");
         List<MovieImage> movieImageList = (List<MovieImage>) entityMap.get("imgList");
         movieRepository.save(movie);
-        movieImageList.forEach(movieImage -> {
-            imageRepository.save(movieImage);
-        });
+        // 이미지는 한 장씩 save 하지 않고 batch insert 한 번으로 저장
+        if (movieImageList != null) {
+            imageRepository.insertAll(movieImageList);
+        }
         return movie.getMno();
     }
 
@@ -52,17 +55,26 @@ public class MovieServiceImpl implements MovieService{
             log.info(Arrays.toString(arr));
         });
 
-        Function<Object[], MovieDTO> fn = (arr -> entitiesToDTO(
-                (Movie)arr[0],
-                (List<MovieImage>)(Arrays.asList((MovieImage)arr[1])),
-                (Double)arr[2],
-                (Long)arr[3])
-        );
+        // 평점은 Movie 에 미리 집계된 값 사용, 이미지는 대표 이미지 한 장 (없으면 빈 목록)
+        Function<Object[], MovieDTO> fn = (arr -> {
+            Movie movie = (Movie) arr[0];
+            MovieImage movieImage = (MovieImage) arr[1];
+            List<MovieImage> movieImages = movieImage == null
+                    ? Collections.emptyList() : Collections.singletonList(movieImage);
+            return entitiesToDTO(movie, movieImages, movie.getAvg(), movie.getReviewCount());
+        });
         return new PageResultDTO<>(result, fn);
     }
 
+    // 같은 영화 상세는 MovieDetailCache 에서 (리뷰가 바뀌면 ReviewService 가 그 영화 항목을 뺌)
     @Override
     public MovieDTO getMovie(Long mno) {
+        MovieDTO cached = movieDetailCache.get(mno);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = movieDetailCache.stamp(mno);
+
         List<Object[]> result = movieRepository.getMovieWithAll(mno);
         Movie movie = (Movie) result.get(0)[0];
 
@@ -70,11 +82,13 @@ public class MovieServiceImpl implements MovieService{
 
         result.forEach(arr -> {
             MovieImage movieImage = (MovieImage) arr[1];
-            movieImageList.add(movieImage);
+            if (movieImage != null) {
+                movieImageList.add(movieImage);
+            }
         });
 
-        Double avg = (Double) result.get(0)[2];
-        Long reviewCnt = (Long) result.get(0)[3];
-        return entitiesToDTO(movie, movieImageList, avg, reviewCnt);
+        MovieDTO movieDTO = entitiesToDTO(movie, movieImageList, movie.getAvg(), movie.getReviewCount());
+        movieDetailCache.put(mno, movieDTO, stamp);
+        return movieDTO;
     }
 }
@@ -0,0 +1,24 @@
+package org.zerock.mreview.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.zerock.mreview.repository.MovieImageRepository;
+
+// 기동 시 대표 이미지가 없는 영화에 대표 이미지를 지정
+// 이후 등록되는 영화는 MovieService.dtoToEntity 에서 첫 번째 이미지를 대표 이미지로 지정하므로 한 번이면 충분
+@Component
+@Log4j2
+@RequiredArgsConstructor
+public class RepresentativeImageBackfill {
+    private final MovieImageRepository imageRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public int backfill() {
+        int marked = imageRepository.markRepresentatives();
+        log.info("representative images marked: " + marked);
+        return marked;
+    }
+}
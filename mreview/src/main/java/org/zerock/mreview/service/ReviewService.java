@@ -1,6 +1,7 @@
 package org.zerock.mreview.service;
 
 import org.zerock.mreview.dto.ReviewDTO;
+import org.zerock.mreview.dto.ReviewSliceDTO;
 import org.zerock.mreview.entity.Member;
 import org.zerock.mreview.entity.Movie;
 import org.zerock.mreview.entity.Review;
@@ -9,6 +10,8 @@ import java.util.List;
 
 public interface ReviewService {
     List<ReviewDTO> getListOfMovie(Long mno);
+    // sort 가 "grade" 면 평점순, 아니면 최신순. cursor 가 없으면 첫 조각
+    ReviewSliceDTO getFeed(Long mno, String sort, Long cursor, Integer grade, int size);
     Long register(ReviewDTO movieReviewDTO);
     void modify(ReviewDTO movieReviewDTO);
     void remove(Long reviewnum);
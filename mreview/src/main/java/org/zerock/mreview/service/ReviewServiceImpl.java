@@ -2,10 +2,17 @@ package org.zerock.mreview.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.zerock.mreview.dto.ReviewDTO;
+import org.zerock.mreview.dto.ReviewSliceDTO;
 import org.zerock.mreview.entity.Movie;
 import org.zerock.mreview.entity.Review;
+import org.zerock.mreview.repository.MovieRepository;
 import org.zerock.mreview.repository.ReviewRepository;
 
 import java.util.List;
@@ -16,7 +23,12 @@ import java.util.stream.Collectors;
 @Log4j2
 @RequiredArgsConstructor
 public class ReviewServiceImpl implements ReviewService {
+    private static final int MAX_FEED_SIZE = 100;
+
     private final ReviewRepository reviewRepository;
+    private final MovieRepository movieRepository;
+    private final LeaderboardService leaderboardService;
+    private final MovieDetailCache movieDetailCache;
 
     @Override
     public List<ReviewDTO> getListOfMovie(Long mno) {
@@ -27,27 +39,94 @@ public class ReviewServiceImpl implements ReviewService {
                 .collect(Collectors.toList());
     }
 
+    // 조각 크기만큼만 읽으므로 리뷰 수와 상관없이 메모리 사용량이 일정
+    @Override
+    public ReviewSliceDTO getFeed(Long mno, String sort, Long cursor, Integer grade, int size) {
+        PageRequest pageable = PageRequest.of(0, Math.max(1, Math.min(size, MAX_FEED_SIZE)));
+        boolean byGrade = "grade".equals(sort);
+
+        Slice<ReviewDTO> result;
+        if (byGrade) {
+            result = cursor == null || grade == null
+                    ? reviewRepository.getFeedByGrade(mno, pageable)
+                    : reviewRepository.getFeedByGradeAfter(mno, grade, cursor, pageable);
+        } else {
+            result = cursor == null
+                    ? reviewRepository.getFeed(mno, pageable)
+                    : reviewRepository.getFeedAfter(mno, cursor, pageable);
+        }
+
+        List<ReviewDTO> dtoList = result.getContent();
+        ReviewSliceDTO sliceDTO = ReviewSliceDTO.builder()
+                .dtoList(dtoList)
+                .hasNext(result.hasNext())
+                .build();
+        if (!dtoList.isEmpty()) {
+            ReviewDTO last = dtoList.get(dtoList.size() - 1);
+            sliceDTO.setNextCursor(last.getReviewnum());
+            sliceDTO.setNextGrade(byGrade ? last.getGrade() : null);
+        }
+        return sliceDTO;
+    }
+
+    // 리뷰 저장과 영화의 리뷰 수/평점 합계 증가를 한 트랜잭션으로 (순위표는 커밋 후 반영)
+    @Transactional
     @Override
     public Long register(ReviewDTO movieReviewDTO) {
         Review movieReview = dtoToEntity(movieReviewDTO);
         reviewRepository.save(movieReview);
+        movieRepository.addRating(movieReviewDTO.getMno(), 1, movieReview.getGrade());
+        leaderboardService.onRegister(movieReviewDTO.getMno(), movieReview.getReviewnum(),
+                movieReview.getGrade(), movieReview.getRegDate(), movieRepository.getRatingVersion(movieReviewDTO.getMno()));
+        invalidateAfterCommit(movieReviewDTO.getMno());
         return movieReview.getReviewnum();
     }
 
+    @Transactional
     @Override
     public void modify(ReviewDTO movieReviewDTO) {
         Optional<Review> result =
-                reviewRepository.findById(movieReviewDTO.getReviewnum());
+                reviewRepository.findForUpdate(movieReviewDTO.getReviewnum());
         if(result.isPresent()) {
             Review movieReview = result.get();
+            int gradeDelta = movieReviewDTO.getGrade() - movieReview.getGrade();
             movieReview.changeGrade(movieReviewDTO.getGrade());
             movieReview.changeText(movieReviewDTO.getText());
             reviewRepository.save(movieReview);
+            if (gradeDelta != 0) {
+                Long mno = movieReview.getMovie().getMno();
+                movieRepository.addRating(mno, 0, gradeDelta);
+                leaderboardService.onModify(mno, gradeDelta, movieRepository.getRatingVersion(mno));
+                invalidateAfterCommit(mno);
+            }
         }
     }
 
+    @Transactional
     @Override
     public void remove(Long reviewnum) {
-        reviewRepository.deleteById(reviewnum);
+        reviewRepository.findForUpdate(reviewnum).ifPresent(movieReview -> {
+            reviewRepository.delete(movieReview);
+            Long mno = movieReview.getMovie().getMno();
+            movieRepository.addRating(mno, -1, -movieReview.getGrade());
+            leaderboardService.onRemove(mno, movieReview.getGrade(), movieReview.getRegDate(),
+                    movieRepository.getRatingVersion(mno));
+            invalidateAfterCommit(mno);
+        });
+    }
+
+    // 롤백된 변경으로 캐시를 비우지 않도록 커밋 후에
+    private void invalidateAfterCommit(Long mno) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    movieDetailCache.invalidate(mno);
+                }
+            });
+        }
+        else {
+            movieDetailCache.invalidate(mno);
+        }
     }
 }
@@ -0,0 +1,82 @@
+package org.zerock.mreview.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// /display 로 자주 읽히는 썸네일(s_, m_ 등) 파일 내용을 메모리에 보관
+// 파일 이름에 uuid 가 들어 있어 같은 이름의 내용이 바뀌지 않으므로 만료 없이 전체 크기(maxBytes) 기준 LRU 로만 비움
+// maxEntryBytes 보다 큰 파일은 보관하지 않음
+@Component
+public class ThumbnailCache {
+    private final long maxBytes;
+    private final int maxEntryBytes;
+
+    // 접근 순서 유지 (가장 오래 안 쓴 항목이 맨 앞)
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ThumbnailCache(@Value("${display.thumbnail-cache.max-bytes}") long maxBytes,
+                          @Value("${display.thumbnail-cache.max-entry-bytes}") int maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    // 보관할 수 없는 크기면 null (호출하는 쪽에서 파일로 보냄)
+    public byte[] get(Path file, long length) throws IOException {
+        String key = file.toString();
+        synchronized (this) {
+            byte[] bytes = entries.get(key);
+            if (bytes != null) {
+                hits.increment();
+                return bytes;
+            }
+        }
+        misses.increment();
+        if (length > maxEntryBytes) {
+            return null;
+        }
+
+        byte[] bytes = Files.readAllBytes(file);
+        synchronized (this) {
+            byte[] previous = entries.put(key, bytes);
+            totalBytes += bytes.length - (previous == null ? 0 : previous.length);
+            Iterator<byte[]> iterator = entries.values().iterator();
+            while (totalBytes > maxBytes && iterator.hasNext()) {
+                totalBytes -= iterator.next().length;
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+        return bytes;
+    }
+
+    public synchronized void evict(Path file) {
+        byte[] removed = entries.remove(file.toString());
+        if (removed != null) {
+            totalBytes -= removed.length;
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("bytes", totalBytes);
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+}
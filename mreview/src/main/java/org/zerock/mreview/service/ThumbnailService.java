@@ -0,0 +1,417 @@
+package org.zerock.mreview.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// 업로드한 원본 이미지로 여러 크기의 썸네일을 만듦 (thumbnail.sizes, 예: s:100 이면 s_원본이름 을 100x100 안에 맞춤)
+// 작업은 업로드 폴더 아래 .thumbnail-queue 에 파일로 남겨 두고 끝나면 지우므로, 서버가 재시작돼도 기동 시 이어서 처리
+// 전용 worker 스레드가 원본을 한 번만 읽어 가장 큰 썸네일의 두 배 정도로만 디코딩한 뒤 큰 크기부터 차례로 줄여 나감
+// 축소 결과를 그리는 이미지는 worker 마다 크기별로 하나씩 만들어 재사용
+@Service
+@Log4j2
+public class ThumbnailService {
+    private static final String QUEUE_DIR = ".thumbnail-queue";
+    private static final String FAILED_DIR = "failed";
+    private static final int MAX_ATTEMPTS = 3;
+    // 원본 파일 이름: uuid_원래이름
+    private static final Pattern ORIGINAL_NAME = Pattern.compile("^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}_.+");
+
+    private final Path uploadRoot;
+    private final Path queueDir;
+    // 큰 크기부터
+    private final List<ThumbnailSize> sizes;
+    private final boolean backfillOnStart;
+
+    // 처리할 작업 파일 (디스크에 있는 작업 중 메모리 큐에 올라온 것)
+    private final BlockingQueue<Path> jobs = new LinkedBlockingQueue<>();
+    private final Set<Path> queued = ConcurrentHashMap.newKeySet();
+    // 원본 경로 -> 처리 완료
+    private final Map<String, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+    private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public ThumbnailService(@Value("${org.zerock.upload.path}") String uploadPath,
+                            @Value("${thumbnail.sizes}") String sizes,
+                            @Value("${thumbnail.threads}") int threads,
+                            @Value("${thumbnail.backfill-on-start}") boolean backfillOnStart) throws IOException {
+        this.uploadRoot = Paths.get(uploadPath).toAbsolutePath().normalize();
+        this.queueDir = uploadRoot.resolve(QUEUE_DIR);
+        this.sizes = parseSizes(sizes);
+        this.backfillOnStart = backfillOnStart;
+        Files.createDirectories(queueDir.resolve(FAILED_DIR));
+
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(this::work, "thumbnail-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            workers.add(thread);
+        }
+    }
+
+    // "s:100,m:300" -> 크기 내림차순 목록
+    static List<ThumbnailSize> parseSizes(String sizes) {
+        List<ThumbnailSize> result = new ArrayList<>();
+        for (String entry : sizes.split(",")) {
+            String[] pair = entry.trim().split(":");
+            result.add(new ThumbnailSize(pair[0].trim(), Integer.parseInt(pair[1].trim())));
+        }
+        result.sort(Comparator.comparingInt((ThumbnailSize size) -> size.pixels).reversed());
+        return result;
+    }
+
+    // 기동 시 이전에 끝나지 않은 작업을 다시 올리고, 설정에 따라 썸네일이 빠진 기존 이미지도 채움
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        int resumed = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(queueDir, "*.job")) {
+            for (Path jobFile : stream) {
+                // 기동 직후 /display 가 이 썸네일을 기다릴 수 있도록 원본 경로로 등록
+                Path original = uploadRoot.resolve(new String(Files.readAllBytes(jobFile), StandardCharsets.UTF_8)).normalize();
+                pending.computeIfAbsent(original.toString(), key -> new CompletableFuture<>());
+                enqueue(jobFile);
+                resumed++;
+            }
+        }
+        log.info("thumbnail jobs resumed: " + resumed);
+        if (backfillOnStart) {
+            backfill();
+        }
+    }
+
+    // 업로드 폴더 전체에서 설정된 크기 중 하나라도 없는 원본의 작업을 만듦
+    public int backfill() throws IOException {
+        int submitted = 0;
+        try (Stream<Path> files = Files.walk(uploadRoot)) {
+            Iterator<Path> iterator = files.iterator();
+            while (iterator.hasNext()) {
+                Path file = iterator.next();
+                if (file.startsWith(queueDir) || !isOriginal(file.getFileName().toString())) {
+                    continue;
+                }
+                for (ThumbnailSize size : sizes) {
+                    if (!Files.exists(thumbnailOf(file, size))) {
+                        submit(file);
+                        submitted++;
+                        break;
+                    }
+                }
+            }
+        }
+        log.info("thumbnail backfill submitted: " + submitted);
+        return submitted;
+    }
+
+    public CompletableFuture<Void> submit(Path original) {
+        Path file = original.toAbsolutePath().normalize();
+        CompletableFuture<Void> future = pending.computeIfAbsent(file.toString(), key -> new CompletableFuture<>());
+        Path jobFile = queueDir.resolve(file.getFileName() + ".job");
+        try {
+            Files.write(jobFile, uploadRoot.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.error("thumbnail job not saved: " + file, e);
+            future.completeExceptionally(e);
+            pending.remove(file.toString(), future);
+            return future;
+        }
+        enqueue(jobFile);
+        return future;
+    }
+
+    // 원본의 썸네일 작업이 진행 중이면 끝날 때까지 (최대 waitMillis) 기다림
+    public void await(Path original, long waitMillis) {
+        CompletableFuture<Void> future = pending.get(original.toAbsolutePath().normalize().toString());
+        if (future == null) {
+            return;
+        }
+        try {
+            future.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("thumbnail not ready: " + original);
+        }
+    }
+
+    // 썸네일 파일 이름이면 원본 파일 이름, 아니면 null
+    public String originalName(String fileName) {
+        int index = fileName.indexOf('_');
+        if (index < 0 || isOriginal(fileName)) {
+            return null;
+        }
+        String prefix = fileName.substring(0, index);
+        for (ThumbnailSize size : sizes) {
+            if (size.prefix.equals(prefix)) {
+                return fileName.substring(index + 1);
+            }
+        }
+        return null;
+    }
+
+    public List<Path> thumbnailsOf(Path original) {
+        List<Path> thumbnails = new ArrayList<>(sizes.size());
+        for (ThumbnailSize size : sizes) {
+            thumbnails.add(thumbnailOf(original, size));
+        }
+        return thumbnails;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", jobs.size());
+        stats.put("pending", pending.size());
+        stats.put("processed", processed.sum());
+        stats.put("generated", generated.sum());
+        stats.put("failed", failed.sum());
+        return stats;
+    }
+
+    static boolean isOriginal(String fileName) {
+        return ORIGINAL_NAME.matcher(fileName).matches() && !fileName.endsWith(".tmp");
+    }
+
+    private static Path thumbnailOf(Path original, ThumbnailSize size) {
+        return original.resolveSibling(size.prefix + "_" + original.getFileName());
+    }
+
+    private void enqueue(Path jobFile) {
+        if (queued.add(jobFile)) {
+            jobs.add(jobFile);
+        }
+    }
+
+    private void work() {
+        Scratch scratch = new Scratch();
+        while (true) {
+            Path jobFile;
+            try {
+                jobFile = jobs.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            queued.remove(jobFile);
+            process(jobFile, scratch);
+        }
+    }
+
+    private void process(Path jobFile, Scratch scratch) {
+        Path original;
+        try {
+            original = uploadRoot.resolve(new String(Files.readAllBytes(jobFile), StandardCharsets.UTF_8)).normalize();
+        } catch (NoSuchFileException e) {
+            // 같은 작업이 이미 처리됨
+            return;
+        } catch (IOException e) {
+            log.error("thumbnail job unreadable: " + jobFile, e);
+            return;
+        }
+
+        String key = original.toString();
+        try {
+            // 그 사이 원본이 지워졌으면 만들 것이 없음
+            if (Files.exists(original)) {
+                generate(original, scratch);
+            }
+            Files.deleteIfExists(jobFile);
+            processed.increment();
+            attempts.remove(key);
+            complete(key, null);
+        } catch (IOException | RuntimeException e) {
+            int attempt = attempts.merge(key, 1, Integer::sum);
+            if (attempt < MAX_ATTEMPTS) {
+                log.warn("thumbnail retry " + attempt + ": " + original, e);
+                enqueue(jobFile);
+                return;
+            }
+            log.error("thumbnail failed: " + original, e);
+            failed.increment();
+            attempts.remove(key);
+            try {
+                Files.move(jobFile, queueDir.resolve(FAILED_DIR).resolve(jobFile.getFileName()),
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException moveError) {
+                log.error("thumbnail job not moved: " + jobFile, moveError);
+            }
+            complete(key, e);
+        }
+    }
+
+    private void complete(String key, Exception error) {
+        CompletableFuture<Void> future = pending.remove(key);
+        if (future == null) {
+            return;
+        }
+        if (error == null) {
+            future.complete(null);
+        } else {
+            future.completeExceptionally(error);
+        }
+    }
+
+    // 없는 크기만 만듦
+    void generate(Path original, Scratch scratch) throws IOException {
+        List<ThumbnailSize> missing = new ArrayList<>(sizes.size());
+        for (ThumbnailSize size : sizes) {
+            if (!Files.exists(thumbnailOf(original, size))) {
+                missing.add(size);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        BufferedImage image;
+        String formatName;
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("지원하지 않는 이미지 형식입니다: " + original);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longSide / (missing.get(0).pixels * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                image = reader.read(0, param);
+                formatName = reader.getFormatName().toLowerCase(Locale.ROOT);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        // 큰 크기의 결과를 다음 크기의 입력으로 사용
+        BufferedImage source = image;
+        // 투명한 이미지(png, gif 등)는 투명도를 살리고, 투명도를 저장할 수 없는 형식이면 흰 배경 위에 그림
+        boolean alpha = image.getColorModel().hasAlpha() && canWriteAlpha(formatName);
+        for (ThumbnailSize size : missing) {
+            BufferedImage scaled = scratch.scale(source, size, alpha);
+            write(scaled, formatName, thumbnailOf(original, size));
+            generated.increment();
+            source = scaled;
+        }
+    }
+
+    private static boolean canWriteAlpha(String formatName) {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(formatName);
+        return writers.hasNext() && writers.next().getOriginatingProvider()
+                .canEncodeImage(ImageTypeSpecifier.createFromBufferedImageType(BufferedImage.TYPE_INT_ARGB));
+    }
+
+    // 임시 파일에 쓰고 이름을 바꾸므로 /display 가 쓰는 중인 썸네일을 읽지 않음
+    private static void write(BufferedImage image, String formatName, Path target) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            if (!ImageIO.write(image, formatName, out)) {
+                throw new IOException("저장할 수 없는 이미지 형식입니다: " + formatName);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    static class ThumbnailSize {
+        final String prefix;
+        final int pixels;
+
+        ThumbnailSize(String prefix, int pixels) {
+            this.prefix = prefix;
+            this.pixels = pixels;
+        }
+    }
+
+    // worker 하나가 쓰는 축소용 이미지 (크기 x 크기, 알파 여부별로 하나씩)
+    // 결과는 필요한 크기만큼 잘라낸 subimage 라 다음 작업에서 덮어써지므로 저장한 뒤에는 쓰지 않음
+    // 이전 작업의 픽셀이 투명한 부분으로 비치지 않도록 그릴 영역을 매번 모두 덮어씀
+    static class Scratch {
+        private final Map<String, BufferedImage> canvases = new HashMap<>();
+
+        BufferedImage scale(BufferedImage source, ThumbnailSize size, boolean alpha) {
+            int box = size.pixels;
+            int width = source.getWidth();
+            int height = source.getHeight();
+            double ratio = Math.min(1.0, (double) box / Math.max(width, height));
+            int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+            int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+            BufferedImage canvas = canvases.computeIfAbsent(alpha ? size.prefix + "_alpha" : size.prefix, key -> new BufferedImage(box, box,
+                    alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB));
+            BufferedImage target = canvas.getSubimage(0, 0, targetWidth, targetHeight);
+
+            Graphics2D graphics = target.createGraphics();
+            try {
+                if (alpha) {
+                    // 알파까지 그대로 복사 (투명한 부분은 투명하게)
+                    graphics.setComposite(AlphaComposite.Src);
+                }
+                else {
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, targetWidth, targetHeight);
+                }
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            return target;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package org.zerock.mreview.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.zerock.mreview.repository.MovieImageRepository;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// 어떤 MovieImage 에도 연결되지 않은 업로드 파일(원본, 썸네일) 정리
+// 등록하지 않고 떠난 화면, removeFile 실패 등으로 남은 파일이 대상
+// 한 번에 yyyy/MM/dd 폴더를 foldersPerRun 개씩 이어서 검사하고 (다음 실행은 그 다음 폴더부터)
+// 폴더 안의 파일을 uuid 별로 모은 뒤 uuid batchSize 개씩 MovieImage 를 한 번에 조회 (한 uuid 의 원본/썸네일은 같은 조회)
+// 수정된 지 graceHours 가 지나지 않은 파일은 등록 중일 수 있으므로 건드리지 않음
+// 업로드 후 등록 전 파일은 이 유예 시간으로만 보호되므로 MIN_GRACE_HOURS 보다 짧게 설정할 수 없음
+// 삭제는 초당 maxDeletesPerSecond 개로 제한하고, dryRun 이면 지우지 않고 로그와 통계만 남김
+@Component
+@Log4j2
+public class UploadGarbageCollector {
+    private static final Pattern YEAR = Pattern.compile("\\d{4}");
+    private static final Pattern MONTH_OR_DAY = Pattern.compile("\\d{2}");
+    private static final int UUID_LENGTH = 36;
+    // 등록 화면에서 업로드한 뒤 저장하기까지 걸릴 수 있는 시간보다 충분히 길게
+    static final long MIN_GRACE_HOURS = 6;
+
+    private final MovieImageRepository imageRepository;
+    private final ThumbnailService thumbnailService;
+    private final ThumbnailCache thumbnailCache;
+    private final Path uploadRoot;
+    private final long graceMillis;
+    private final int foldersPerRun;
+    private final int batchSize;
+    private final long deleteIntervalNanos;
+    private final boolean dryRun;
+    private final long intervalMillis;
+
+    // 마지막으로 검사한 폴더 (uploadRoot 기준 상대 경로)
+    private volatile String cursor;
+    private long nextDeleteNanos;
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder folders = new LongAdder();
+    private final LongAdder scanned = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder orphans = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+    private final LongAdder bytesFreed = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile long lastRunMillis;
+    private volatile double lastFilesPerSecond;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "upload-gc");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public UploadGarbageCollector(MovieImageRepository imageRepository, ThumbnailService thumbnailService,
+                                  ThumbnailCache thumbnailCache,
+                                  @Value("${org.zerock.upload.path}") String uploadPath,
+                                  @Value("${upload.gc.grace-hours}") long graceHours,
+                                  @Value("${upload.gc.folders-per-run}") int foldersPerRun,
+                                  @Value("${upload.gc.batch-size}") int batchSize,
+                                  @Value("${upload.gc.max-deletes-per-second}") int maxDeletesPerSecond,
+                                  @Value("${upload.gc.dry-run}") boolean dryRun,
+                                  @Value("${upload.gc.interval-ms}") long intervalMillis) {
+        if (graceHours < MIN_GRACE_HOURS) {
+            throw new IllegalArgumentException("upload.gc.grace-hours must be at least " + MIN_GRACE_HOURS + ": " + graceHours);
+        }
+        this.imageRepository = imageRepository;
+        this.thumbnailService = thumbnailService;
+        this.thumbnailCache = thumbnailCache;
+        this.uploadRoot = Paths.get(uploadPath).toAbsolutePath().normalize();
+        this.graceMillis = graceHours * 3_600_000L;
+        this.foldersPerRun = foldersPerRun;
+        this.batchSize = batchSize;
+        this.deleteIntervalNanos = 1_000_000_000L / Math.max(1, maxDeletesPerSecond);
+        this.dryRun = dryRun;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                runOnce();
+            } catch (Exception e) {
+                log.warn("upload gc failed: " + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // 이번 실행에서 찾은 고아 파일 수
+    public synchronized long runOnce() throws IOException {
+        long start = System.nanoTime();
+        long scannedBefore = scanned.sum();
+        long found = 0;
+
+        List<String> targets = nextFolders();
+        for (String folder : targets) {
+            found += collect(folder);
+            folders.increment();
+            cursor = folder;
+        }
+
+        runs.increment();
+        lastRunMillis = (System.nanoTime() - start) / 1_000_000;
+        lastFilesPerSecond = (scanned.sum() - scannedBefore) / Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+        log.info("upload gc: " + targets.size() + " folders, " + found + " orphans" + (dryRun ? " (dry run)" : ""));
+        return found;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("dryRun", dryRun);
+        stats.put("cursor", cursor);
+        stats.put("runs", runs.sum());
+        stats.put("folders", folders.sum());
+        stats.put("scanned", scanned.sum());
+        stats.put("lookups", lookups.sum());
+        stats.put("orphans", orphans.sum());
+        stats.put("deleted", deleted.sum());
+        stats.put("bytesFreed", bytesFreed.sum());
+        stats.put("failures", failures.sum());
+        stats.put("lastRunMillis", lastRunMillis);
+        stats.put("lastFilesPerSecond", lastFilesPerSecond);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // cursor 다음 폴더부터 foldersPerRun 개 (끝까지 가면 처음부터 다시)
+    private List<String> nextFolders() throws IOException {
+        List<String> all = dayFolders();
+        List<String> result = new ArrayList<>();
+        if (all.isEmpty()) {
+            return result;
+        }
+        int from = 0;
+        if (cursor != null) {
+            while (from < all.size() && all.get(from).compareTo(cursor) <= 0) {
+                from++;
+            }
+            if (from == all.size()) {
+                from = 0;
+            }
+        }
+        for (int i = from; i < all.size() && result.size() < foldersPerRun; i++) {
+            result.add(all.get(i));
+        }
+        return result;
+    }
+
+    // yyyy/MM/dd 폴더 목록 (정렬). .thumbnail-queue 등 다른 폴더는 제외
+    private List<String> dayFolders() throws IOException {
+        List<String> result = new ArrayList<>();
+        for (String year : children(uploadRoot, YEAR)) {
+            for (String month : children(uploadRoot.resolve(year), MONTH_OR_DAY)) {
+                for (String day : children(uploadRoot.resolve(year).resolve(month), MONTH_OR_DAY)) {
+                    result.add(year + "/" + month + "/" + day);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<String> children(Path dir, Pattern name) throws IOException {
+        List<String> result = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir,
+                path -> name.matcher(path.getFileName().toString()).matches() && Files.isDirectory(path))) {
+            for (Path path : stream) {
+                result.add(path.getFileName().toString());
+            }
+        } catch (NoSuchFileException e) {
+            return result;
+        }
+        result.sort(null);
+        return result;
+    }
+
+    private long collect(String folder) throws IOException {
+        Path dir = uploadRoot.resolve(folder);
+        long now = System.currentTimeMillis();
+        long found = 0;
+        int entries = 0;
+        // uuid -> 그 uuid 의 원본/썸네일 파일 (폴더 하나는 하루치 업로드)
+        Map<String, List<Path>> candidates = new LinkedHashMap<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path file : stream) {
+                entries++;
+                String uuid = uuidOf(file.getFileName().toString());
+                if (uuid == null) {
+                    continue;
+                }
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+                scanned.increment();
+                if (now - attributes.lastModifiedTime().toMillis() < graceMillis) {
+                    continue;
+                }
+                candidates.computeIfAbsent(uuid, key -> new ArrayList<>(3)).add(file);
+            }
+        } catch (NoSuchFileException e) {
+            return found;
+        }
+
+        Map<String, List<Path>> batch = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Path>> entry : candidates.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() >= batchSize) {
+                found += sweep(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            found += sweep(batch);
+        }
+
+        // 지난 날짜의 빈 폴더는 지움 (UploadService 는 폴더가 없으면 다시 만듦)
+        if (entries == 0 && !dryRun && now - Files.getLastModifiedTime(dir).toMillis() >= graceMillis) {
+            try {
+                Files.delete(dir);
+            } catch (DirectoryNotEmptyException | NoSuchFileException e) {
+                // 그 사이 업로드가 들어왔거나 이미 지워짐
+            }
+        }
+        return found;
+    }
+
+    // MovieImage 에 없는 uuid 의 파일을 지움
+    // path 는 등록된 OS 에 따라 구분자가 달라 비교하지 않고, 업로드마다 새로 만드는 uuid 로만 판단
+    private long sweep(Map<String, List<Path>> batch) {
+        lookups.increment();
+        Set<String> referenced = new HashSet<>(imageRepository.findExistingUuids(batch.keySet()));
+        long found = 0;
+        for (Map.Entry<String, List<Path>> entry : batch.entrySet()) {
+            if (referenced.contains(entry.getKey())) {
+                continue;
+            }
+            for (Path file : entry.getValue()) {
+                found++;
+                orphans.increment();
+                delete(file);
+            }
+        }
+        return found;
+    }
+
+    private void delete(Path file) {
+        if (dryRun) {
+            log.info("upload gc (dry run): " + uploadRoot.relativize(file));
+            return;
+        }
+        throttle();
+        try {
+            long size = Files.size(file);
+            if (Files.deleteIfExists(file)) {
+                thumbnailCache.evict(file);
+                deleted.increment();
+                bytesFreed.add(size);
+            }
+        } catch (IOException e) {
+            failures.increment();
+            log.warn("upload gc: cannot delete " + file + ": " + e.getMessage());
+        }
+    }
+
+    // 삭제 사이 간격을 deleteIntervalNanos 이상으로
+    private void throttle() {
+        long wait = nextDeleteNanos - System.nanoTime();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        nextDeleteNanos = Math.max(nextDeleteNanos, System.nanoTime()) + deleteIntervalNanos;
+    }
+
+    // 원본(uuid_이름) 이나 썸네일(크기_uuid_이름) 이면 uuid, 그 밖의 파일은 null
+    private String uuidOf(String fileName) {
+        if (ThumbnailService.isOriginal(fileName)) {
+            return fileName.substring(0, UUID_LENGTH);
+        }
+        String originalName = thumbnailService.originalName(fileName);
+        if (originalName != null && ThumbnailService.isOriginal(originalName)) {
+            return originalName.substring(0, UUID_LENGTH);
+        }
+        return null;
+    }
+}
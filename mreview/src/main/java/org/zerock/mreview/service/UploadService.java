@@ -0,0 +1,192 @@
+package org.zerock.mreview.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.zerock.mreview.dto.UploadResultDTO;
+
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// 업로드 파일 저장
+// 원본은 writer 스레드들이 동시에 저장하고 디스크에 기록(fsync)된 뒤 바로 응답
+// 썸네일은 ThumbnailService 작업으로 넘겨 나중에 만들어지며, 만들어지는 중인 썸네일은 awaitThumbnail 로 기다릴 수 있음
+// writer 큐가 차면 요청 스레드가 직접 저장 (업로드가 몰려도 작업이 무한정 쌓이지 않음)
+@Service
+@Log4j2
+public class UploadService {
+    private static final DateTimeFormatter FOLDER_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+
+    private final String uploadPath;
+    private final ThumbnailService thumbnailService;
+    private final long thumbnailWaitMillis;
+    private final ThreadPoolExecutor writer;
+
+    // 오늘 날짜 폴더 (날짜가 바뀌거나 폴더가 지워졌을 때만 다시 확인)
+    private volatile DayFolder dayFolder;
+
+    public UploadService(@Value("${org.zerock.upload.path}") String uploadPath,
+                         ThumbnailService thumbnailService,
+                         @Value("${upload.write-threads}") int writeThreads,
+                         @Value("${upload.queue-size}") int queueSize,
+                         @Value("${upload.thumbnail-wait-ms}") long thumbnailWaitMillis) {
+        this.uploadPath = uploadPath;
+        this.thumbnailService = thumbnailService;
+        this.thumbnailWaitMillis = thumbnailWaitMillis;
+        this.writer = new ThreadPoolExecutor(writeThreads, writeThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "upload-write");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // 하나라도 저장하지 못하면 이번 요청에서 저장한 원본을 지우고 실패한 파일 이름을 담은 UncheckedIOException
+    public List<UploadResultDTO> upload(MultipartFile[] uploadFiles) {
+        List<CompletableFuture<UploadResultDTO>> writes = new ArrayList<>(uploadFiles.length);
+        for (MultipartFile uploadFile : uploadFiles) {
+            writes.add(CompletableFuture.supplyAsync(() -> write(uploadFile), writer));
+        }
+
+        // 요청이 끝나면 MultipartFile 의 임시 파일이 지워지므로 원본 저장은 모두 기다림
+        List<UploadResultDTO> resultDTOList = new ArrayList<>(uploadFiles.length);
+        List<String> failedNames = new ArrayList<>();
+        IOException failure = null;
+        for (CompletableFuture<UploadResultDTO> write : writes) {
+            try {
+                resultDTOList.add(write.join());
+            }
+            catch (CompletionException e) {
+                if (!(e.getCause() instanceof UploadFailure)) {
+                    throw e;
+                }
+                UploadFailure uploadFailure = (UploadFailure) e.getCause();
+                failedNames.add(uploadFailure.fileName);
+                if (failure == null) {
+                    failure = uploadFailure.getCause();
+                }
+                else {
+                    failure.addSuppressed(uploadFailure.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            for (UploadResultDTO resultDTO : resultDTOList) {
+                deleteQuietly(originalOf(resultDTO));
+            }
+            throw new UncheckedIOException("저장하지 못한 파일: " + String.join(", ", failedNames), failure);
+        }
+
+        for (UploadResultDTO resultDTO : resultDTOList) {
+            thumbnailService.submit(originalOf(resultDTO));
+        }
+        return resultDTOList;
+    }
+
+    // thumbnail 이 만들어지는 중이면 끝날 때까지 (최대 thumbnailWaitMillis) 기다림
+    public void awaitThumbnail(File thumbnail) {
+        String originalName = thumbnailService.originalName(thumbnail.getName());
+        if (originalName != null) {
+            thumbnailService.await(thumbnail.toPath().resolveSibling(originalName), thumbnailWaitMillis);
+        }
+    }
+
+    private UploadResultDTO write(MultipartFile uploadFile) {
+        String originalName = uploadFile.getOriginalFilename();
+        String fileName = originalName.substring(originalName.lastIndexOf("\\") + 1);
+        String uuid = UUID.randomUUID().toString();
+
+        try {
+            String folderPath = dayFolder(false);
+            Path savePath = Paths.get(uploadPath, folderPath, uuid + "_" + fileName);
+            try {
+                uploadFile.transferTo(savePath);
+            }
+            catch (NoSuchFileException e) {
+                // 오늘 폴더가 밖에서 지워진 경우 한 번만 다시 만들고 재시도
+                folderPath = dayFolder(true);
+                savePath = Paths.get(uploadPath, folderPath, uuid + "_" + fileName);
+                uploadFile.transferTo(savePath);
+            }
+            try (FileChannel channel = FileChannel.open(savePath, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            log.info("saved: " + savePath);
+            return new UploadResultDTO(fileName, uuid, folderPath);
+        }
+        catch (IOException e) {
+            log.error("upload failed: " + fileName, e);
+            throw new UploadFailure(fileName, e);
+        }
+    }
+
+    private Path originalOf(UploadResultDTO resultDTO) {
+        return Paths.get(uploadPath, resultDTO.getFolderPath(), resultDTO.getUuid() + "_" + resultDTO.getFileName());
+    }
+
+    // 지우지 못한 파일은 UploadGarbageCollector 가 정리
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        }
+        catch (IOException e) {
+            log.warn("upload cleanup failed: " + file + " " + e.getMessage());
+        }
+    }
+
+    private String dayFolder(boolean recheck) throws IOException {
+        LocalDate today = LocalDate.now();
+        DayFolder folder = dayFolder;
+        if (recheck || folder == null || !folder.date.equals(today)) {
+            String folderPath = today.format(FOLDER_FORMAT).replace("/", File.separator);
+            Files.createDirectories(Paths.get(uploadPath, folderPath));
+            folder = new DayFolder(today, folderPath);
+            dayFolder = folder;
+        }
+        return folder.path;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+    }
+
+    // writer 스레드에서 저장에 실패한 파일 이름을 upload 로 넘김
+    private static class UploadFailure extends UncheckedIOException {
+        final String fileName;
+
+        UploadFailure(String fileName, IOException cause) {
+            super(cause);
+            this.fileName = fileName;
+        }
+    }
+
+    private static class DayFolder {
+        final LocalDate date;
+        final String path;
+
+        DayFolder(LocalDate date, String path) {
+            this.date = date;
+            this.path = path;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.zerock.mreview.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.zerock.mreview.service.ThumbnailCache;
+import org.zerock.mreview.service.ThumbnailService;
+import org.zerock.mreview.service.UploadService;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+public class UploadControllerTests {
+    @TempDir
+    Path uploadDir;
+
+    private ThumbnailService thumbnailService;
+    private UploadService uploadService;
+    private ThumbnailCache thumbnailCache;
+    private MockMvc mockMvc;
+
+    private byte[] original;
+    private byte[] thumbnail;
+    private String originalName;
+    private String thumbnailName;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Random random = new Random(42);
+        original = new byte[200_000];
+        thumbnail = new byte[8_000];
+        random.nextBytes(original);
+        random.nextBytes(thumbnail);
+
+        Path folder = Files.createDirectories(uploadDir.resolve("2026").resolve("10").resolve("19"));
+        String uuid = UUID.randomUUID().toString();
+        Files.write(folder.resolve(uuid + "_poster.jpg"), original);
+        Files.write(folder.resolve("s_" + uuid + "_poster.jpg"), thumbnail);
+        originalName = URLEncoder.encode("2026/10/19/" + uuid + "_poster.jpg", StandardCharsets.UTF_8);
+        thumbnailName = URLEncoder.encode("2026/10/19/s_" + uuid + "_poster.jpg", StandardCharsets.UTF_8);
+
+        thumbnailService = new ThumbnailService(uploadDir.toString(), "s:100", 1, false);
+        uploadService = new UploadService(uploadDir.toString(), thumbnailService, 1, 10, 1000);
+        thumbnailCache = new ThumbnailCache(1_000_000, 100_000);
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new UploadController(uploadService, thumbnailCache, thumbnailService, uploadDir.toString()),
+                new LegacyDisplayController(uploadDir.toString())).build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        uploadService.shutdown();
+        thumbnailService.shutdown();
+    }
+
+    @Test
+    public void testDisplay() throws Exception {
+        MvcResult result = mockMvc.perform(get("/display").param("fileName", originalName)).andReturn();
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals("image/jpeg", result.getResponse().getContentType());
+        assertTrue(result.getResponse().getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+        assertArrayEquals(original, result.getResponse().getContentAsByteArray());
+
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(etag.startsWith("\""));
+
+        MvcResult notModified = mockMvc.perform(get("/display").param("fileName", originalName)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn();
+        assertEquals(304, notModified.getResponse().getStatus());
+        assertEquals(0, notModified.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testRange() throws Exception {
+        MvcResult result = mockMvc.perform(get("/display").param("fileName", originalName)
+                .header(HttpHeaders.RANGE, "bytes=100-199")).andReturn();
+        assertEquals(206, result.getResponse().getStatus());
+        assertEquals("bytes 100-199/" + original.length, result.getResponse().getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(original, 100, 200), result.getResponse().getContentAsByteArray());
+
+        MvcResult unsatisfiable = mockMvc.perform(get("/display").param("fileName", originalName)
+                .header(HttpHeaders.RANGE, "bytes=" + original.length + "-")).andReturn();
+        assertEquals(416, unsatisfiable.getResponse().getStatus());
+    }
+
+    @Test
+    public void testThumbnailCache() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MvcResult result = mockMvc.perform(get("/display").param("fileName", thumbnailName)).andReturn();
+            assertArrayEquals(thumbnail, result.getResponse().getContentAsByteArray());
+        }
+        System.out.println(thumbnailCache.getStats());
+        assertEquals(2L, thumbnailCache.getStats().get("hits"));
+
+        // size=1 이면 썸네일 이름으로 원본을 보냄
+        MvcResult result = mockMvc.perform(get("/display").param("fileName", thumbnailName).param("size", "1")).andReturn();
+        assertArrayEquals(original, result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    public void testOutsideUploadPath() throws Exception {
+        MvcResult result = mockMvc.perform(get("/display").param("fileName", "../../etc/passwd")).andReturn();
+        assertEquals(404, result.getResponse().getStatus());
+    }
+
+    @Test
+    public void testRemoveFile() throws Exception {
+        MvcResult result = mockMvc.perform(post("/removeFile").param("fileName", originalName)).andReturn();
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals("true", result.getResponse().getContentAsString());
+        assertFalse(Files.exists(uploadDir.resolve(URLDecoder.decode(originalName, StandardCharsets.UTF_8))));
+        assertFalse(Files.exists(uploadDir.resolve(URLDecoder.decode(thumbnailName, StandardCharsets.UTF_8))));
+    }
+
+    // 업로드 폴더 밖의 파일은 지우지 않음
+    @Test
+    public void testRemoveOutsideUploadPath() throws Exception {
+        Path outside = Files.write(uploadDir.resolveSibling(uploadDir.getFileName() + "-outside.txt"), new byte[]{1});
+        try {
+            String fileName = URLEncoder.encode("../" + outside.getFileName(), StandardCharsets.UTF_8);
+            MvcResult result = mockMvc.perform(post("/removeFile").param("fileName", fileName)).andReturn();
+            assertEquals(404, result.getResponse().getStatus());
+            assertTrue(Files.exists(outside));
+        }
+        finally {
+            Files.deleteIfExists(outside);
+        }
+    }
+
+    // 요청 하나를 처리하는 동안 현재 스레드에서 할당한 바이트 (MockMvc 자체와 응답 버퍼 할당이 양쪽에 똑같이 포함됨)
+    // -Dbench.display=10000 처럼 요청 수를 지정했을 때만 실행
+    @Test
+    @EnabledIfSystemProperty(named = "bench.display", matches = "\\d+")
+    public void testAllocation() throws Exception {
+        int requests = Integer.getInteger("bench.display");
+
+        System.out.println("ORIGINAL " + original.length + " bytes, THUMBNAIL " + thumbnail.length + " bytes");
+        System.out.println("BEFORE original  (B/req): " + allocated(get("/legacy/display").param("fileName", originalName), requests));
+        System.out.println("AFTER  original  (B/req): " + allocated(get("/display").param("fileName", originalName), requests));
+        System.out.println("BEFORE thumbnail (B/req): " + allocated(get("/legacy/display").param("fileName", thumbnailName), requests));
+        System.out.println("AFTER  thumbnail (B/req): " + allocated(get("/display").param("fileName", thumbnailName), requests));
+
+        String etag = mockMvc.perform(get("/display").param("fileName", thumbnailName)).andReturn()
+                .getResponse().getHeader(HttpHeaders.ETAG);
+        System.out.println("AFTER  304       (B/req): " + allocated(get("/display").param("fileName", thumbnailName)
+                .header(HttpHeaders.IF_NONE_MATCH, etag), requests));
+    }
+
+    private long allocated(RequestBuilder request, int requests) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // 워밍업
+        for (int i = 0; i < requests / 10; i++) {
+            mockMvc.perform(request);
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < requests; i++) {
+            mockMvc.perform(request);
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / requests;
+    }
+
+    // 변경 전 /display 구현
+    @RestController
+    static class LegacyDisplayController {
+        private final String uploadPath;
+
+        LegacyDisplayController(String uploadPath) {
+            this.uploadPath = uploadPath;
+        }
+
+        @GetMapping("/legacy/display")
+        public ResponseEntity<byte[]> getFile(String fileName) throws Exception {
+            File file = new File(uploadPath + File.separator + URLDecoder.decode(fileName, "UTF-8"));
+            HttpHeaders header = new HttpHeaders();
+            header.add("Content-Type", Files.probeContentType(file.toPath()));
+            return new ResponseEntity<>(FileCopyUtils.copyToByteArray(file), header, HttpStatus.OK);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.zerock.mreview.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MovieRankingTests {
+    private static final long HOUR = 3_600_000L;
+    private static final long NOW = 1_760_000_000_000L;
+
+    @Test
+    public void testTopRated() {
+        MovieRanking ranking = new MovieRanking(3, 24 * HOUR, NOW);
+        ranking.rate(1, "A", 3, 12);   // 4.0
+        ranking.rate(2, "B", 5, 23);   // 4.6
+        ranking.rate(3, "C", 2, 10);   // 5.0 이지만 리뷰 2개
+        ranking.rate(4, "D", 10, 46);  // 4.6, 리뷰가 더 많음
+
+        assertEquals(List.of(4L, 2L, 1L), mnos(ranking.topRated(10)));
+
+        // 리뷰 하나가 더 달려 기준을 넘음
+        ranking.rate(3, null, 1, 5);
+        assertEquals(List.of(3L, 4L, 2L, 1L), mnos(ranking.topRated(10)));
+        assertEquals("C", ranking.topRated(1).get(0).getTitle());
+
+        // 리뷰 삭제로 다시 빠짐
+        ranking.rate(3, null, -1, -5);
+        assertEquals(List.of(4L, 2L), mnos(ranking.topRated(2)));
+    }
+
+    // 스냅샷을 불러온 뒤 영화 테이블 값으로 덮어쓰면 수정/삭제가 반영되고 가중치는 그대로
+    @Test
+    public void testReset() {
+        MovieRanking ranking = new MovieRanking(1, 24 * HOUR, NOW);
+        ranking.rate(1, "A", 2, 10);
+        ranking.trend(1, NOW, 1);
+        ranking.rate(2, null, 1, 3);
+
+        ranking.reset(1, "A", 1, 4);
+        assertEquals(4.0, ranking.topRated(1).get(0).getAvg(), 1e-9);
+        assertEquals(1.0, ranking.score(ranking.trending(1).get(0), NOW), 1e-9);
+        assertEquals(List.of(2L), ranking.untitled());
+
+        ranking.title(2, "B");
+        assertEquals("B", ranking.getTitle(2));
+        assertTrue(ranking.untitled().isEmpty());
+    }
+
+    // 반감기 24시간: 이틀 전 리뷰 5개(1.25) < 지금 리뷰 3개(3)
+    @Test
+    public void testTrending() {
+        MovieRanking ranking = new MovieRanking(1, 24 * HOUR, NOW - 48 * HOUR);
+        for (int i = 0; i < 5; i++) {
+            ranking.trend(1, NOW - 48 * HOUR, 1);
+        }
+        for (int i = 0; i < 3; i++) {
+            ranking.trend(2, NOW, 1);
+        }
+
+        List<MovieRanking.Entry> trending = ranking.trending(10);
+        assertEquals(List.of(2L, 1L), mnos(trending));
+        assertEquals(3.0, ranking.score(trending.get(0), NOW), 1e-9);
+        assertEquals(1.25, ranking.score(trending.get(1), NOW), 1e-9);
+
+        ranking.trend(2, NOW, -1);
+        ranking.trend(2, NOW, -1);
+        ranking.trend(2, NOW, -1);
+        assertEquals(List.of(1L), mnos(ranking.trending(10)));
+    }
+
+    // 기준 시각에서 오래 지나 epoch 을 옮겨도 순서와 점수는 그대로
+    @Test
+    public void testRebase() {
+        long halfLife = HOUR;
+        MovieRanking ranking = new MovieRanking(1, halfLife, NOW);
+        ranking.trend(1, NOW + 500 * halfLife, 1);
+        ranking.trend(2, NOW + 500 * halfLife, 1);
+        ranking.trend(2, NOW + 500 * halfLife, 1);
+        long later = NOW + 1000 * halfLife;
+        ranking.trend(3, later, 1);
+
+        List<MovieRanking.Entry> trending = ranking.trending(10);
+        assertEquals(List.of(3L, 2L, 1L), mnos(trending));
+        assertEquals(1.0, ranking.score(trending.get(0), later), 1e-9);
+        assertTrue(Double.isFinite(trending.get(1).getWeight()));
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        MovieRanking ranking = new MovieRanking(2, 24 * HOUR, NOW);
+        ranking.rate(1, "A", 4, 18);
+        ranking.rate(2, null, 2, 6);
+        ranking.trend(1, NOW + HOUR, 1);
+        ranking.updateLastReviewnum(1234);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ranking.writeTo(new DataOutputStream(bytes));
+
+        MovieRanking restored = MovieRanking.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 2, 24 * HOUR);
+        assertEquals(1234, restored.getLastReviewnum());
+        assertEquals(mnos(ranking.topRated(10)), mnos(restored.topRated(10)));
+        assertEquals(mnos(ranking.trending(10)), mnos(restored.trending(10)));
+        assertEquals("A", restored.topRated(1).get(0).getTitle());
+        assertEquals(ranking.score(ranking.trending(1).get(0), NOW), restored.score(restored.trending(1).get(0), NOW), 1e-12);
+
+        // 반감기가 바뀌면 사용하지 않음
+        assertNull(MovieRanking.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 2, 12 * HOUR));
+    }
+
+    // 영화 10만 편에서 상위 10개 조회 평균 시간
+    @Test
+    public void testReadLatency() {
+        MovieRanking ranking = new MovieRanking(10, 24 * HOUR, NOW);
+        Random random = new Random(42);
+        for (long mno = 1; mno <= 100_000; mno++) {
+            int count = random.nextInt(200);
+            ranking.rate(mno, "Movie...." + mno, count, count * (1 + random.nextInt(5)));
+            ranking.trend(mno, NOW - random.nextInt(72) * HOUR, 1);
+        }
+
+        int rounds = 100_000;
+        for (int i = 0; i < rounds / 10; i++) {
+            ranking.topRated(10);
+            ranking.trending(10);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            ranking.topRated(10);
+            ranking.trending(10);
+        }
+        double micros = (System.nanoTime() - start) / 1000.0 / rounds / 2;
+        System.out.println("MOVIES: " + ranking.size() + " top 10 read (us): " + micros);
+        assertTrue(micros < 1000);
+    }
+
+    private static List<Long> mnos(List<MovieRanking.Entry> entries) {
+        return entries.stream().map(MovieRanking.Entry::getMno).collect(Collectors.toList());
+    }
+}
@@ -1,5 +1,7 @@
 package org.zerock.mreview.repository;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -8,14 +10,22 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.Commit;
 import org.springframework.transaction.annotation.Transactional;
+import org.zerock.mreview.entity.Member;
 import org.zerock.mreview.entity.Movie;
 import org.zerock.mreview.entity.MovieImage;
+import org.zerock.mreview.entity.Review;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 @SpringBootTest
 public class MovieRepositoryTests {
     @Autowired
@@ -24,6 +34,15 @@ public class MovieRepositoryTests {
     @Autowired
     private MovieImageRepository imageRepository;
 
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Commit
     @Transactional
     @Test
@@ -38,6 +57,7 @@ public class MovieRepositoryTests {
                 MovieImage movieImage = MovieImage.builder()
                         .uuid(UUID.randomUUID().toString())
                         .movie(movie)
+                        .representative(j == 0)
                         .imgName("test" + j + ".jpg").build();
                 imageRepository.save(movieImage);
             }
@@ -66,4 +86,54 @@ public class MovieRepositoryTests {
             System.out.println(Arrays.toString(arr));
         }
     }
+
+    // 이미지 5장, 리뷰 4개씩 달린 영화로 목록을 조회해도 SQL 결과 행 수는 페이지 크기와 같아야 함
+    @Transactional
+    @Test
+    public void testListPageRowCount() {
+        Member member = memberRepository.save(Member.builder()
+                .email("rows@zerock.org").pw("1111").nickname("rows").build());
+        for (int i = 1; i <= 30; i++) {
+            Movie movie = movieRepository.save(Movie.builder().title("Rows...." + i).build());
+            for (int j = 0; j < 5; j++) {
+                imageRepository.save(MovieImage.builder()
+                        .uuid(UUID.randomUUID().toString())
+                        .movie(movie)
+                        .representative(j == 0)
+                        .imgName("rows" + j + ".jpg").build());
+            }
+            for (int j = 0; j < 4; j++) {
+                reviewRepository.save(Review.builder()
+                        .movie(movie).member(member).grade(j + 1).text("rows..." + j).build());
+            }
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            for (int size : new int[]{5, 10, 20}) {
+                statistics.clear();
+                Page<Object[]> result = movieRepository.getListPage(
+                        PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "mno")));
+
+                long rows = 0;
+                for (String query : statistics.getQueries()) {
+                    if (query.contains("MovieImage")) {
+                        rows += statistics.getQueryStatistics(query).getExecutionRowCount();
+                    }
+                }
+                Set<Long> mnos = new HashSet<>();
+                for (Object[] arr : result.getContent()) {
+                    mnos.add(((Movie) arr[0]).getMno());
+                    assertTrue(((MovieImage) arr[1]).isRepresentative());
+                }
+                System.out.println("PAGE SIZE: " + size + " SQL ROWS: " + rows);
+                assertEquals(size, rows);
+                assertEquals(size, mnos.size());
+            }
+        }
+        finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
 }
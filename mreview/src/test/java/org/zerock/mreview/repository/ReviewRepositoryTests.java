@@ -1,21 +1,44 @@
 package org.zerock.mreview.repository;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+import org.zerock.mreview.dto.ReviewDTO;
 import org.zerock.mreview.entity.Member;
 import org.zerock.mreview.entity.Movie;
 import org.zerock.mreview.entity.Review;
 
+import javax.persistence.EntityManagerFactory;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 @SpringBootTest
 public class ReviewRepositoryTests {
 
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     public void insertMovieReviews() {
         IntStream.rangeClosed(1, 200).forEach(i -> {
@@ -47,4 +70,71 @@ public class ReviewRepositoryTests {
             System.out.println("----------------------------------");
         });
     }
+
+    // 리뷰 95개를 20개씩 끝까지 읽으면 빠지거나 겹치는 리뷰 없이 순서대로 5조각
+    // 엔티티(Review, Member)는 하나도 읽지 않음
+    @Transactional
+    @Test
+    public void testFeed() {
+        Member member = memberRepository.save(Member.builder()
+                .email("feed@zerock.org").pw("1111").nickname("feed").build());
+        Movie movie = movieRepository.save(Movie.builder().title("Feed....").build());
+        Random random = new Random(42);
+        for (int i = 0; i < 95; i++) {
+            reviewRepository.save(Review.builder()
+                    .movie(movie).member(member).grade(random.nextInt(5) + 1).text("feed..." + i).build());
+        }
+        reviewRepository.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            PageRequest pageable = PageRequest.of(0, 20);
+            Set<Long> seen = new HashSet<>();
+            ReviewDTO previous = null;
+            int slices = 0;
+            Slice<ReviewDTO> slice = reviewRepository.getFeed(movie.getMno(), pageable);
+            while (true) {
+                slices++;
+                assertTrue(slice.getContent().size() <= 20);
+                for (ReviewDTO reviewDTO : slice.getContent()) {
+                    assertTrue(seen.add(reviewDTO.getReviewnum()));
+                    assertTrue(previous == null || previous.getReviewnum() > reviewDTO.getReviewnum());
+                    assertEquals("feed", reviewDTO.getNickname());
+                    previous = reviewDTO;
+                }
+                if (!slice.hasNext()) {
+                    break;
+                }
+                slice = reviewRepository.getFeedAfter(movie.getMno(), previous.getReviewnum(), pageable);
+            }
+            assertEquals(95, seen.size());
+            assertEquals(5, slices);
+
+            seen.clear();
+            previous = null;
+            slice = reviewRepository.getFeedByGrade(movie.getMno(), pageable);
+            while (true) {
+                for (ReviewDTO reviewDTO : slice.getContent()) {
+                    assertTrue(seen.add(reviewDTO.getReviewnum()));
+                    assertTrue(previous == null || previous.getGrade() > reviewDTO.getGrade()
+                            || (previous.getGrade() == reviewDTO.getGrade() && previous.getReviewnum() > reviewDTO.getReviewnum()));
+                    previous = reviewDTO;
+                }
+                if (!slice.hasNext()) {
+                    break;
+                }
+                slice = reviewRepository.getFeedByGradeAfter(movie.getMno(), previous.getGrade(), previous.getReviewnum(), pageable);
+            }
+            assertEquals(95, seen.size());
+
+            System.out.println("ENTITY LOADS: " + statistics.getEntityLoadCount());
+            assertEquals(0, statistics.getEntityLoadCount());
+            assertFalse(slice.hasNext());
+        }
+        finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package org.zerock.mreview.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.zerock.mreview.dto.RankingDTO;
+import org.zerock.mreview.repository.MovieRepository;
+import org.zerock.mreview.repository.ReviewRepository;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LeaderboardServiceTests {
+
+    @TempDir
+    Path snapshotDir;
+
+    private MovieRepository movieRepository;
+    private LeaderboardService leaderboardService;
+
+    // 전체 생성이 영화 테이블을 읽을 때 돌려줄 행 (mno, title, reviewCount, gradeSum, ratingVersion)
+    private Object[] movieRow;
+    // 영화 테이블을 읽는 도중에 실행 (그 사이 커밋된 리뷰 변경)
+    private Runnable duringRead;
+
+    @BeforeEach
+    public void setUp() {
+        movieRepository = mock(MovieRepository.class);
+        ReviewRepository reviewRepository = mock(ReviewRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(reviewRepository.getMaxReviewnum()).thenReturn(10L);
+        when(reviewRepository.streamWrittenSince(any())).thenAnswer(invocation -> Stream.empty());
+        when(movieRepository.streamRatings()).thenAnswer(invocation -> {
+            if (duringRead != null) {
+                duringRead.run();
+            }
+            return Stream.<Object[]>of(movieRow.clone());
+        });
+        leaderboardService = new LeaderboardService(movieRepository, reviewRepository, transactionManager,
+                1, 24, snapshotDir.resolve("leaderboard.bin").toString());
+    }
+
+    // 전체 생성 중에 커밋된 수정/삭제 가운데 읽은 시점에 이미 반영돼 있던 것은 다시 더하지 않음
+    @Test
+    public void testModifyDuringRebuild() {
+        movieRow = new Object[]{1L, "A", 2L, 8L, 2L};
+        leaderboardService.start();
+        assertRating(2, 4.0);
+
+        LocalDateTime regDate = LocalDateTime.now();
+        duringRead = () -> {
+            // 읽기 전에 커밋: 영화 테이블에 이미 반영됨 (버전 3)
+            leaderboardService.onModify(1L, 2, 3);
+            // 읽은 뒤에 커밋 (버전 4, 5)
+            leaderboardService.onModify(1L, -1, 4);
+            leaderboardService.onRemove(1L, 5, regDate, 5);
+        };
+        movieRow = new Object[]{1L, "A", 2L, 10L, 3L};
+        leaderboardService.rebuild();
+
+        // 2개 / 10 - 1 - 5, 버전 3 의 +2 가 두 번 더해지면 평균 6.0
+        assertRating(1, 4.0);
+        assertEquals(0, leaderboardService.getStats().get("pending"));
+
+        // 생성이 끝난 뒤의 변경은 바로 반영
+        duringRead = null;
+        leaderboardService.onModify(1L, 1, 6);
+        assertRating(1, 5.0);
+    }
+
+    // 생성 중에 처음 리뷰가 달린 영화 (읽은 시점에 없던 영화는 모두 반영)
+    @Test
+    public void testRegisterNewMovieDuringRebuild() {
+        movieRow = new Object[]{1L, "A", 2L, 8L, 2L};
+        when(movieRepository.getTitles(any())).thenReturn(List.<Object[]>of(new Object[]{2L, "B"}));
+        duringRead = () -> leaderboardService.onRegister(2L, 11L, 5, LocalDateTime.now(), 1);
+        leaderboardService.start();
+
+        List<RankingDTO> topRated = leaderboardService.getTopRated(10);
+        assertEquals(2, topRated.size());
+        assertEquals(2L, topRated.get(0).getMno());
+        assertEquals("B", topRated.get(0).getTitle());
+        assertEquals(1, topRated.get(0).getReviewCnt());
+        assertEquals(11L, leaderboardService.getStats().get("lastReviewnum"));
+    }
+
+    private void assertRating(long reviewCnt, double avg) {
+        List<RankingDTO> topRated = leaderboardService.getTopRated(10);
+        assertEquals(1, topRated.size());
+        assertEquals(reviewCnt, topRated.get(0).getReviewCnt());
+        assertEquals(avg, topRated.get(0).getAvg(), 1e-9);
+    }
+}
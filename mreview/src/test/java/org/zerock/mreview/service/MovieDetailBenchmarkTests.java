@@ -0,0 +1,89 @@
+package org.zerock.mreview.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.zerock.mreview.dto.MovieDTO;
+import org.zerock.mreview.dto.MovieImageDTO;
+import org.zerock.mreview.dto.ReviewDTO;
+import org.zerock.mreview.entity.Member;
+import org.zerock.mreview.repository.MemberRepository;
+import org.zerock.mreview.repository.MovieRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 영화 상세 조회 1000 번 사이에 리뷰 10 개가 등록될 때 상세 조회로 실행되는 SQL 수
+// 이전 방식: 조회마다 getMovieWithAll, 현재 방식: MovieService.getMovie (MovieDetailCache)
+@SpringBootTest
+public class MovieDetailBenchmarkTests {
+    private static final int READS = 1000;
+    private static final int READS_PER_REVIEW = 100;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void testDetailQueries() {
+        Member member = memberRepository.save(Member.builder()
+                .email(UUID.randomUUID() + "@zerock.org").pw("1111").nickname("detail").build());
+        List<MovieImageDTO> imageDTOList = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            imageDTOList.add(MovieImageDTO.builder()
+                    .uuid(UUID.randomUUID().toString()).imgName("detail" + i + ".jpg").path("2026/10/19").build());
+        }
+        Long mno = movieService.register(MovieDTO.builder().title("Detail....").imageDTOList(imageDTOList).build());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            long before = 0;
+            long after = 0;
+            for (int i = 0; i < READS; i++) {
+                if (i % READS_PER_REVIEW == 0) {
+                    reviewService.register(ReviewDTO.builder()
+                            .mno(mno).mid(member.getMid()).grade(i / READS_PER_REVIEW % 5 + 1).text("detail..." + i).build());
+                }
+
+                long statements = statistics.getPrepareStatementCount();
+                movieRepository.getMovieWithAll(mno);
+                before += statistics.getPrepareStatementCount() - statements;
+
+                statements = statistics.getPrepareStatementCount();
+                MovieDTO movieDTO = movieService.getMovie(mno);
+                after += statistics.getPrepareStatementCount() - statements;
+
+                // 캐시된 값도 방금 등록한 리뷰까지 반영
+                assertEquals(i / READS_PER_REVIEW + 1, movieDTO.getReviewCnt());
+                assertEquals(5, movieDTO.getImageDTOList().size());
+            }
+
+            System.out.println("READS: " + READS + " REVIEWS: " + READS / READS_PER_REVIEW);
+            System.out.println("BEFORE statements: " + before);
+            System.out.println("AFTER  statements: " + after);
+            assertTrue(after * 10 <= before, "before: " + before + ", after: " + after);
+        }
+        finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.zerock.mreview.service;
+
+import org.junit.jupiter.api.Test;
+import org.zerock.mreview.dto.MovieDTO;
+import org.zerock.mreview.dto.MovieImageDTO;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class MovieDetailCacheTests {
+
+    @Test
+    public void testLru() {
+        MovieDetailCache cache = new MovieDetailCache(2, 60_000);
+        cache.put(1L, movie(1L), cache.stamp(1L));
+        cache.put(2L, movie(2L), cache.stamp(2L));
+        // 1 을 최근에 읽었으므로 3 이 들어오면 2 가 빠짐
+        assertNotNull(cache.get(1L));
+        cache.put(3L, movie(3L), cache.stamp(3L));
+
+        assertNull(cache.get(2L));
+        assertNotNull(cache.get(1L));
+        assertNotNull(cache.get(3L));
+        assertEquals(1L, cache.getStats().get("evictions"));
+    }
+
+    @Test
+    public void testTtl() throws Exception {
+        MovieDetailCache cache = new MovieDetailCache(10, 50);
+        MovieDTO movieDTO = movie(1L);
+        cache.put(1L, movieDTO, cache.stamp(1L));
+        assertEquals(movieDTO, cache.get(1L));
+
+        Thread.sleep(100);
+        assertNull(cache.get(1L));
+        assertEquals(1L, cache.getStats().get("expirations"));
+    }
+
+    // 리뷰가 바뀌면 항목을 빼고, DB 에서 읽는 도중에 바뀌었으면 읽은 값을 저장하지 않음
+    @Test
+    public void testInvalidate() {
+        MovieDetailCache cache = new MovieDetailCache(10, 60_000);
+        cache.put(1L, movie(1L), cache.stamp(1L));
+        cache.invalidate(1L);
+        assertNull(cache.get(1L));
+
+        long stamp = cache.stamp(1L);
+        cache.invalidate(1L);
+        cache.put(1L, movie(1L), stamp);
+        assertNull(cache.get(1L));
+        assertEquals(1L, cache.getStats().get("skippedPuts"));
+
+        cache.put(1L, movie(1L), cache.stamp(1L));
+        assertNotNull(cache.get(1L));
+    }
+
+    // 다른 영화의 리뷰가 바뀌어도 읽던 영화는 저장
+    @Test
+    public void testStampPerMovie() {
+        MovieDetailCache cache = new MovieDetailCache(10, 60_000);
+        long stamp = cache.stamp(1L);
+        cache.invalidate(2L);
+        cache.put(1L, movie(1L), stamp);
+        assertNotNull(cache.get(1L));
+        assertEquals(0L, cache.getStats().get("skippedPuts"));
+
+        // clear 는 모든 영화의 읽던 값을 버림
+        stamp = cache.stamp(3L);
+        cache.clear();
+        cache.put(3L, movie(3L), stamp);
+        assertNull(cache.get(3L));
+        assertEquals(1L, cache.getStats().get("skippedPuts"));
+    }
+
+    // 저장한 값이나 꺼낸 값을 고쳐도 캐시 안의 값은 그대로
+    @Test
+    public void testCopy() {
+        MovieDetailCache cache = new MovieDetailCache(10, 60_000);
+        MovieDTO movieDTO = movie(1L);
+        movieDTO.getImageDTOList().add(new MovieImageDTO("uuid", "poster.jpg", "2026/10/19"));
+        cache.put(1L, movieDTO, cache.stamp(1L));
+        movieDTO.setTitle("changed");
+        movieDTO.getImageDTOList().get(0).setImgName("changed.jpg");
+
+        MovieDTO cached = cache.get(1L);
+        assertNotSame(cached, cache.get(1L));
+        cached.setReviewCnt(100);
+        cached.getImageDTOList().clear();
+
+        MovieDTO again = cache.get(1L);
+        assertEquals("Movie....1", again.getTitle());
+        assertEquals(0, again.getReviewCnt());
+        assertEquals("poster.jpg", again.getImageDTOList().get(0).getImgName());
+    }
+
+    // 항목이 많으면 구간을 나누고, 전체 항목 수는 maxEntries 근처로 유지
+    @Test
+    public void testSegments() {
+        MovieDetailCache cache = new MovieDetailCache(1000, 60_000);
+        assertEquals(8, cache.getStats().get("segments"));
+        for (long mno = 1; mno <= 5000; mno++) {
+            cache.put(mno, movie(mno), cache.stamp(mno));
+        }
+        assertEquals(1000, cache.getStats().get("entries"));
+        assertNotNull(cache.get(5000L));
+        assertNull(cache.get(1L));
+    }
+
+    private static MovieDTO movie(Long mno) {
+        return MovieDTO.builder().mno(mno).title("Movie...." + mno).build();
+    }
+}
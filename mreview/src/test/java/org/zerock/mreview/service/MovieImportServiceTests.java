@@ -0,0 +1,187 @@
+package org.zerock.mreview.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.zerock.mreview.dto.MovieDTO;
+import org.zerock.mreview.dto.MovieImageDTO;
+import org.zerock.mreview.entity.Movie;
+import org.zerock.mreview.entity.MovieImage;
+import org.zerock.mreview.repository.MovieImageRepository;
+import org.zerock.mreview.repository.MovieRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class MovieImportServiceTests {
+    @Autowired
+    private MovieImportService importService;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MovieImageRepository imageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @TempDir
+    Path tempDir;
+
+    // 이미지 5장짜리 영화 등록: Hibernate 를 거치는 SQL 은 movie insert 하나, 이미지는 insert 문 하나로 저장
+    @Test
+    public void testRegisterStatements() {
+        List<MovieImageDTO> imageDTOList = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            imageDTOList.add(MovieImageDTO.builder()
+                    .uuid(UUID.randomUUID().toString()).imgName("register" + i + ".jpg").path("2026/10/19").build());
+        }
+        MovieDTO movieDTO = MovieDTO.builder().title("Register....").imageDTOList(imageDTOList).build();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            long inserts = insertCount();
+            Long mno = movieService.register(movieDTO);
+            inserts = insertCount() - inserts;
+
+            System.out.println("HIBERNATE STATEMENTS: " + statistics.getPrepareStatementCount() + " INSERTS: " + inserts);
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertEquals(2, inserts);
+            assertEquals(5, count("select count(*) from movie_image where movie_mno = ?", mno));
+            assertEquals(1, count("select count(*) from movie_image where movie_mno = ? and representative = true", mno));
+        }
+        finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    // 2500 편(chunk 1000 -> 3 트랜잭션)과 잘못된 줄 하나
+    // chunk 마다 영화/이미지 insert 문이 하나씩이므로 전체 insert 문 수는 영화 수와 상관없이 chunk 수 * 2 이하
+    @Test
+    public void testImport() throws Exception {
+        Path file = tempDir.resolve("movies.jsonl");
+        write(file, 2500, 3, "import");
+        Files.write(file, "{\"title\": \n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        long movies = count("select count(*) from movie");
+        long images = count("select count(*) from movie_image");
+        long inserts = insertCount();
+        Map<String, Object> result;
+        try (InputStream in = Files.newInputStream(file)) {
+            result = importService.importJsonLines(in);
+        }
+        inserts = insertCount() - inserts;
+
+        System.out.println(result + " INSERTS: " + inserts);
+        assertEquals(2500L, result.get("movies"));
+        assertEquals(7500L, result.get("images"));
+        assertEquals(1L, result.get("skipped"));
+        assertEquals(3L, result.get("chunks"));
+        assertEquals(2500, count("select count(*) from movie") - movies);
+        assertEquals(7500, count("select count(*) from movie_image") - images);
+        assertTrue(inserts <= 3 * 2, "inserts: " + inserts);
+
+        Long lastMno = movieRepository.getMaxMno();
+        assertEquals(3, count("select count(*) from movie_image where movie_mno = ?", lastMno));
+        assertEquals(1, count("select count(*) from movie_image where movie_mno = ? and representative = true", lastMno));
+    }
+
+    // 영화 한 편 + 이미지 3장씩 N 편을 등록하는 처리량
+    // 이전 방식: chunk 트랜잭션 안에서 Movie, MovieImage 를 한 건씩 save
+    // -Dbench.import=100000 처럼 영화 수를 지정했을 때만 실행
+    @Test
+    @EnabledIfSystemProperty(named = "bench.import", matches = "\\d+")
+    public void testThroughput() throws Exception {
+        int movies = Integer.getInteger("bench.import");
+        Path file = tempDir.resolve("bench.jsonl");
+        write(file, movies, 3, "bench");
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        for (int from = 0; from < movies; from += 1000) {
+            int to = Math.min(movies, from + 1000);
+            int first = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = first; i < to; i++) {
+                    Movie movie = movieRepository.save(Movie.builder().title("Before...." + i).build());
+                    for (int j = 0; j < 3; j++) {
+                        imageRepository.save(MovieImage.builder()
+                                .uuid(UUID.randomUUID().toString()).imgName("before" + j + ".jpg").path("2026/10/19")
+                                .movie(movie).representative(j == 0).build());
+                    }
+                }
+            });
+        }
+        double beforeSeconds = (System.nanoTime() - start) / 1e9;
+
+        start = System.nanoTime();
+        Map<String, Object> result;
+        try (InputStream in = Files.newInputStream(file)) {
+            result = importService.importJsonLines(in);
+        }
+        double afterSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("MOVIES: " + movies + " (3 images each) " + result);
+        System.out.println("BEFORE movies/sec: " + movies / beforeSeconds);
+        System.out.println("AFTER  movies/sec: " + movies / afterSeconds);
+    }
+
+    private static void write(Path file, int movies, int imagesPerMovie, String prefix) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < movies; i++) {
+                StringBuilder line = new StringBuilder("{\"title\":\"" + prefix + "...." + i + "\",\"imageDTOList\":[");
+                for (int j = 0; j < imagesPerMovie; j++) {
+                    if (j > 0) {
+                        line.append(',');
+                    }
+                    line.append("{\"uuid\":\"").append(UUID.randomUUID())
+                            .append("\",\"imgName\":\"").append(prefix).append(j).append(".jpg\",\"path\":\"2026/10/19\"}");
+                }
+                writer.write(line.append("]}").toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    // 서버가 실행한 INSERT 문 수 (여러 행을 넣는 INSERT 도 하나로 셈)
+    private long insertCount() {
+        return Long.parseLong(jdbcTemplate.queryForMap("show global status like 'Com_insert'").get("Value").toString());
+    }
+}
@@ -0,0 +1,163 @@
+package org.zerock.mreview.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.zerock.mreview.entity.Movie;
+import org.zerock.mreview.repository.MovieRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// 영화 목록 첫 페이지 조회 시간 비교
+// 이전 방식: Movie, MovieImage, Review 를 모두 조인해 매번 avg/count 를 group by 로 계산
+// 현재 방식: Movie 에 미리 집계된 reviewCount/gradeSum 과 대표 이미지 한 장만 조인
+// 데이터가 많이 필요하므로 -Dbench.reviews=1000000 처럼 리뷰 수를 지정했을 때만 실행 (영화 수는 bench.movies, 기본 10000)
+@SpringBootTest
+@EnabledIfSystemProperty(named = "bench.reviews", matches = "\\d+")
+public class MovieListBenchmarkTests {
+    private static final int BATCH_SIZE = 10_000;
+    private static final int ROUNDS = 20;
+
+    private static final String OLD_LIST = "select m, mi, avg(coalesce(r.grade, 0)), count(distinct r) from Movie m " +
+            "left outer join MovieImage mi on mi.movie = m " +
+            "left outer join Review r on r.movie = m " +
+            "group by m order by m.mno desc";
+    private static final String OLD_COUNT = "select count(distinct m) from Movie m " +
+            "left outer join MovieImage mi on mi.movie = m " +
+            "left outer join Review r on r.movie = m";
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MovieRatingReconciler reconciler;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testListPage() {
+        long reviews = Long.parseLong(System.getProperty("bench.reviews"));
+        int movies = Integer.getInteger("bench.movies", 10_000);
+        fill(movies, reviews);
+        // JDBC 로 넣은 리뷰는 집계에 반영되지 않았으므로 보정 작업으로 맞춤
+        System.out.println("RECONCILED: " + reconciler.reconcile());
+
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("mno").descending());
+        List<Object[]> before = oldList(pageable);
+        Page<Object[]> after = movieRepository.getListPage(pageable);
+        assertEquals(before.size(), after.getContent().size());
+        for (int i = 0; i < before.size(); i++) {
+            Movie movie = (Movie) after.getContent().get(i)[0];
+            assertEquals(((Movie) before.get(i)[0]).getMno(), movie.getMno());
+            assertEquals((Double) before.get(i)[2], movie.getAvg(), 1e-9);
+            assertEquals((long) (Long) before.get(i)[3], movie.getReviewCount());
+        }
+
+        long[] beforeNanos = new long[ROUNDS];
+        long[] afterNanos = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            oldList(pageable);
+            beforeNanos[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            movieRepository.getListPage(pageable);
+            afterNanos[i] = System.nanoTime() - start;
+        }
+
+        System.out.println("MOVIES: " + movies + " REVIEWS: " + reviews);
+        System.out.println("BEFORE median(ms): " + median(beforeNanos) / 1_000_000.0);
+        System.out.println("AFTER  median(ms): " + median(afterNanos) / 1_000_000.0);
+    }
+
+    // 이전 getListPage 와 같은 쿼리 (목록 + 전체 개수)
+    private List<Object[]> oldList(PageRequest pageable) {
+        entityManager.createQuery(OLD_COUNT).getSingleResult();
+        return entityManager.createQuery(OLD_LIST, Object[].class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    private void fill(int movies, long reviews) {
+        Random random = new Random(42);
+
+        Long memberCount = jdbcTemplate.queryForObject("select count(*) from m_member", Long.class);
+        if (memberCount == null || memberCount == 0) {
+            List<Object[]> args = new ArrayList<>();
+            for (int i = 1; i <= 100; i++) {
+                args.add(new Object[]{"r" + i + "@zerock.org", "1111", "reviewer" + i});
+            }
+            jdbcTemplate.batchUpdate("insert into m_member (email, pw, nickname, regdate, moddate) values (?, ?, ?, now(), now())", args);
+        }
+        long minMid = jdbcTemplate.queryForObject("select min(mid) from m_member", Long.class);
+        long maxMid = jdbcTemplate.queryForObject("select max(mid) from m_member", Long.class);
+
+        Long movieCount = jdbcTemplate.queryForObject("select count(*) from movie", Long.class);
+        int missingMovies = (int) Math.max(0, movies - (movieCount == null ? 0 : movieCount));
+        insert("insert into movie (title, regdate, moddate) values (?, now(), now())",
+                missingMovies, i -> new Object[]{"Movie...." + i});
+
+        long minMno = jdbcTemplate.queryForObject("select min(mno) from movie", Long.class);
+        long maxMno = jdbcTemplate.queryForObject("select max(mno) from movie", Long.class);
+
+        Long imageCount = jdbcTemplate.queryForObject("select count(*) from movie_image", Long.class);
+        if (imageCount == null || imageCount == 0) {
+            insert("insert into movie_image (uuid, img_name, path, movie_mno, representative) values (?, ?, ?, ?, ?)",
+                    (int) (maxMno - minMno + 1) * 3,
+                    i -> new Object[]{"bench-" + i, "test" + (i % 3) + ".jpg", "2026/01/01", minMno + i / 3, i % 3 == 0});
+        }
+
+        Long reviewCount = jdbcTemplate.queryForObject("select count(*) from review", Long.class);
+        long missingReviews = reviews - (reviewCount == null ? 0 : reviewCount);
+        while (missingReviews > 0) {
+            int batch = (int) Math.min(BATCH_SIZE, missingReviews);
+            insert("insert into review (movie_mno, member_mid, grade, text, regdate, moddate) values (?, ?, ?, ?, now(), now())",
+                    batch, i -> new Object[]{
+                            minMno + (long) (random.nextDouble() * (maxMno - minMno + 1)),
+                            minMid + (long) (random.nextDouble() * (maxMid - minMid + 1)),
+                            random.nextInt(5) + 1,
+                            "이 영화에 대한 느낌..." + i});
+            missingReviews -= batch;
+        }
+    }
+
+    private void insert(String sql, int rows, RowFactory factory) {
+        List<Object[]> args = new ArrayList<>(Math.min(rows, BATCH_SIZE));
+        for (int i = 0; i < rows; i++) {
+            args.add(factory.create(i));
+            if (args.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, args);
+                args.clear();
+            }
+        }
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, args);
+        }
+    }
+
+    private static long median(long[] nanos) {
+        long[] copy = nanos.clone();
+        Arrays.sort(copy);
+        return copy[copy.length / 2];
+    }
+
+    private interface RowFactory {
+        Object[] create(int index);
+    }
+}
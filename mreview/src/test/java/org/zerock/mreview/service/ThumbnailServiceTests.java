@@ -0,0 +1,211 @@
+package org.zerock.mreview.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ThumbnailServiceTests {
+    private static final String SIZES = "s:100,m:300,l:800";
+
+    @TempDir
+    Path uploadDir;
+
+    @Test
+    public void testSizes() throws Exception {
+        Path original = image(folder(), 1600, 900, 1);
+
+        ThumbnailService service = new ThumbnailService(uploadDir.toString(), SIZES, 2, false);
+        try {
+            service.submit(original).get();
+
+            assertSize(original.resolveSibling("s_" + original.getFileName()), 100, 56);
+            assertSize(original.resolveSibling("m_" + original.getFileName()), 300, 169);
+            assertSize(original.resolveSibling("l_" + original.getFileName()), 800, 450);
+            assertEquals(original.getFileName().toString(), service.originalName("m_" + original.getFileName()));
+            assertNull(service.originalName(original.getFileName().toString()));
+            System.out.println(service.getStats());
+        }
+        finally {
+            service.shutdown();
+        }
+    }
+
+    // 끝나지 않은 작업 파일은 재시작 후 처리되고, 썸네일이 빠진 기존 이미지는 backfill 로 채워짐
+    @Test
+    public void testResumeAndBackfill() throws Exception {
+        Path folder = folder();
+        Path queued = image(folder, 640, 480, 2);
+        Path existing = image(folder, 640, 480, 3);
+        Files.createDirectories(uploadDir.resolve(".thumbnail-queue"));
+        Files.write(uploadDir.resolve(".thumbnail-queue").resolve(queued.getFileName() + ".job"),
+                uploadDir.relativize(queued).toString().getBytes(StandardCharsets.UTF_8));
+
+        ThumbnailService service = new ThumbnailService(uploadDir.toString(), SIZES, 1, false);
+        try {
+            service.start();
+            service.await(queued, 10_000);
+            for (Path thumbnail : service.thumbnailsOf(queued)) {
+                assertTrue(Files.exists(thumbnail), thumbnail.toString());
+            }
+            assertFalse(Files.exists(uploadDir.resolve(".thumbnail-queue").resolve(queued.getFileName() + ".job")));
+
+            assertEquals(1, service.backfill());
+            service.await(existing, 10_000);
+            for (Path thumbnail : service.thumbnailsOf(existing)) {
+                assertTrue(Files.exists(thumbnail), thumbnail.toString());
+            }
+            // 모두 만들어졌으므로 다시 채울 것이 없음
+            assertEquals(0, service.backfill());
+        }
+        finally {
+            service.shutdown();
+        }
+    }
+
+    // 같은 worker 가 불투명한 jpg 다음에 투명한 gif/png 를 처리해도 이전 그림이 비치지 않음
+    @Test
+    public void testTransparentAfterOpaque() throws Exception {
+        Path folder = folder();
+        Path opaque = folder.resolve(UUID.randomUUID() + "_red.jpg");
+        BufferedImage red = new BufferedImage(400, 400, BufferedImage.TYPE_INT_RGB);
+        fill(red, 0xffff0000);
+        ImageIO.write(red, "jpg", opaque.toFile());
+        Path gif = transparent(folder, "gif");
+        Path png = transparent(folder, "png");
+
+        ThumbnailService service = new ThumbnailService(uploadDir.toString(), SIZES, 1, false);
+        try {
+            ThumbnailService.Scratch scratch = new ThumbnailService.Scratch();
+            service.generate(opaque, scratch);
+            service.generate(gif, scratch);
+            service.generate(png, scratch);
+
+            for (Path original : List.of(gif, png)) {
+                for (Path thumbnail : service.thumbnailsOf(original)) {
+                    BufferedImage image = ImageIO.read(thumbnail.toFile());
+                    // 구석은 원본처럼 투명
+                    assertEquals(0, image.getRGB(0, 0) >>> 24, thumbnail.toString());
+                    assertEquals(0, image.getRGB(image.getWidth() - 1, image.getHeight() - 1) >>> 24, thumbnail.toString());
+                }
+            }
+        }
+        finally {
+            service.shutdown();
+        }
+    }
+
+    // 4K(3840x2160) JPEG 의 썸네일 3종을 만드는 처리량과 그동안의 최대 힙 사용량
+    // -Dbench.thumbnails=200 처럼 이미지 수를 지정했을 때만 실행 (thumbnail.threads 는 bench.threads, 기본 2)
+    @Test
+    @EnabledIfSystemProperty(named = "bench.thumbnails", matches = "\\d+")
+    public void testThroughput() throws Exception {
+        int count = Integer.getInteger("bench.thumbnails");
+        int threads = Integer.getInteger("bench.threads", 2);
+        Path folder = folder();
+        Path source = image(folder, 3840, 2160, 42);
+        List<Path> originals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Path copy = folder.resolve(UUID.randomUUID() + "_4k.jpg");
+            Files.copy(source, copy);
+            originals.add(copy);
+        }
+        Files.delete(source);
+
+        ThumbnailService service = new ThumbnailService(uploadDir.toString(), SIZES, threads, false);
+        try {
+            System.gc();
+            List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    pool.resetPeakUsage();
+                    heapPools.add(pool);
+                }
+            }
+
+            long start = System.nanoTime();
+            for (Path original : originals) {
+                service.submit(original);
+            }
+            for (Path original : originals) {
+                service.await(original, 600_000);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long peak = 0;
+            for (MemoryPoolMXBean pool : heapPools) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+            System.out.println("IMAGES: " + count + " (3840x2160) THREADS: " + threads + " SIZES: " + SIZES);
+            System.out.println("images/sec: " + count / seconds);
+            System.out.println("peak heap (MB): " + peak / 1024 / 1024);
+            System.out.println(service.getStats());
+            assertEquals((long) count, service.getStats().get("processed"));
+        }
+        finally {
+            service.shutdown();
+        }
+    }
+
+    private Path folder() throws IOException {
+        return Files.createDirectories(uploadDir.resolve("2026").resolve("10").resolve("19"));
+    }
+
+    private static Path image(Path folder, int width, int height, long seed) throws IOException {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, (x * 255 / width) << 16 | (y * 255 / height) << 8 | random.nextInt(64));
+            }
+        }
+        Path file = folder.resolve(UUID.randomUUID() + "_image.jpg");
+        ImageIO.write(image, "jpg", file.toFile());
+        return file;
+    }
+
+    // 가운데만 파랗고 나머지는 투명한 400x400 이미지
+    private static Path transparent(Path folder, String formatName) throws IOException {
+        BufferedImage image = new BufferedImage(400, 400, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 150; y < 250; y++) {
+            for (int x = 150; x < 250; x++) {
+                image.setRGB(x, y, 0xff0000ff);
+            }
+        }
+        Path file = folder.resolve(UUID.randomUUID() + "_clear." + formatName);
+        ImageIO.write(image, formatName, file.toFile());
+        return file;
+    }
+
+    private static void fill(BufferedImage image, int argb) {
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, argb);
+            }
+        }
+    }
+
+    private static void assertSize(Path file, int width, int height) throws IOException {
+        BufferedImage image = ImageIO.read(file.toFile());
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+    }
+}
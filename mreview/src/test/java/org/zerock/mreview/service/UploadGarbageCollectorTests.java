@@ -0,0 +1,197 @@
+package org.zerock.mreview.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.zerock.mreview.repository.MovieImageRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class UploadGarbageCollectorTests {
+    private static final long DAY = 86_400_000L;
+
+    @TempDir
+    Path uploadDir;
+
+    private ThumbnailService thumbnailService;
+    private MovieImageRepository imageRepository;
+    // MovieImage 로 등록된 uuid
+    private final Set<String> registered = new HashSet<>();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        thumbnailService = new ThumbnailService(uploadDir.toString(), "s:100,m:300", 1, false);
+        imageRepository = mock(MovieImageRepository.class);
+        when(imageRepository.findExistingUuids(any())).thenAnswer(invocation -> {
+            List<String> result = new ArrayList<>();
+            for (String uuid : invocation.<Collection<String>>getArgument(0)) {
+                if (registered.contains(uuid)) {
+                    result.add(uuid);
+                }
+            }
+            return result;
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        thumbnailService.shutdown();
+    }
+
+    // 등록된 이미지, 유예 시간이 지난 고아, 방금 올린 고아, 업로드 이름이 아닌 파일
+    // 하루 폴더씩 이어서 검사하고 고아 파일(원본 + 썸네일 2개)만 지움
+    @Test
+    public void testCollect() throws Exception {
+        Path oldFolder = folder("2026/10/18");
+        Path newFolder = folder("2026/10/19");
+        Path emptyFolder = folder("2026/10/17");
+        setOld(emptyFolder);
+
+        String used = UUID.randomUUID().toString();
+        registered.add(used);
+        List<Path> usedFiles = files(oldFolder, used, true);
+        List<Path> orphanFiles = files(oldFolder, UUID.randomUUID().toString(), true);
+        List<Path> recentFiles = files(newFolder, UUID.randomUUID().toString(), false);
+        Path notes = Files.write(newFolder.resolve("notes.txt"), new byte[10]);
+        setOld(notes);
+
+        UploadGarbageCollector dryRun = collector(1, 2, 1000, true);
+        assertEquals(3, dryRun.runOnce() + dryRun.runOnce() + dryRun.runOnce());
+        orphanFiles.forEach(file -> assertTrue(Files.exists(file)));
+        assertTrue(Files.exists(emptyFolder));
+
+        UploadGarbageCollector collector = collector(1, 2, 1000, false);
+        assertEquals(0, collector.runOnce());
+        assertFalse(Files.exists(emptyFolder));
+        assertEquals("2026/10/17", collector.getStats().get("cursor"));
+
+        assertEquals(3, collector.runOnce());
+        assertEquals(0, collector.runOnce());
+
+        orphanFiles.forEach(file -> assertFalse(Files.exists(file)));
+        usedFiles.forEach(file -> assertTrue(Files.exists(file)));
+        recentFiles.forEach(file -> assertTrue(Files.exists(file)));
+        assertTrue(Files.exists(notes));
+        assertTrue(Files.isDirectory(uploadDir.resolve(".thumbnail-queue")));
+        assertEquals(3L, collector.getStats().get("deleted"));
+        assertEquals(30L, collector.getStats().get("bytesFreed"));
+        assertEquals(3L, collector.getStats().get("runs"));
+        assertEquals(3L, collector.getStats().get("folders"));
+        // 10/18 의 파일 6개 + 10/19 의 방금 올린 파일 3개 (notes.txt 는 업로드 이름이 아님)
+        assertEquals(9L, collector.getStats().get("scanned"));
+        assertEquals(3L, collector.getStats().get("orphans"));
+        assertEquals(0L, collector.getStats().get("failures"));
+        // uuid 2개(파일 6개)를 한 번에 조회하고, 유예 시간 안의 파일만 있는 폴더는 조회하지 않음
+        assertEquals(1L, collector.getStats().get("lookups"));
+
+        // 끝까지 검사했으면 처음 폴더부터 다시
+        collector.runOnce();
+        assertEquals("2026/10/18", collector.getStats().get("cursor"));
+    }
+
+    // 초당 100개로 제한하면 고아 파일 50개를 지우는 데 0.5초 가까이 걸림
+    @Test
+    public void testRateLimit() throws Exception {
+        Path folder = folder("2026/10/18");
+        for (int i = 0; i < 50; i++) {
+            setOld(Files.write(folder.resolve(UUID.randomUUID() + "_poster.jpg"), new byte[10]));
+        }
+
+        UploadGarbageCollector collector = collector(10, 500, 100, false);
+        long start = System.nanoTime();
+        assertEquals(50, collector.runOnce());
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(millis >= 450, "elapsed: " + millis);
+        assertEquals(50L, collector.getStats().get("deleted"));
+        assertEquals(500L, collector.getStats().get("bytesFreed"));
+        // uuid 500개씩 조회하므로 한 번
+        assertEquals(1L, collector.getStats().get("lookups"));
+    }
+
+    // 업로드 후 등록 전 파일을 지울 수 있는 짧은 유예 시간은 시작할 때 거부
+    @Test
+    public void testGraceFloor() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () ->
+                new UploadGarbageCollector(imageRepository, thumbnailService, new ThumbnailCache(1_000_000, 100_000),
+                        uploadDir.toString(), UploadGarbageCollector.MIN_GRACE_HOURS - 1, 1, 500, 100, true, 600_000));
+        assertTrue(e.getMessage().contains("grace-hours"));
+    }
+
+    // 날짜 폴더 30개에 파일 N개를 고르게 두고 (절반은 고아) dry-run 으로 한 번에 검사하는 속도
+    // -Dbench.gc=100000 처럼 파일 수를 지정했을 때만 실행
+    @Test
+    @EnabledIfSystemProperty(named = "bench.gc", matches = "\\d+")
+    public void testThroughput() throws Exception {
+        int count = Integer.getInteger("bench.gc");
+        FileTime old = FileTime.fromMillis(System.currentTimeMillis() - 2 * DAY);
+        for (int i = 0; i < count; i++) {
+            Path folder = folder(String.format("2026/09/%02d", i % 30 + 1));
+            String uuid = UUID.randomUUID().toString();
+            if (i % 2 == 0) {
+                registered.add(uuid);
+            }
+            Files.setLastModifiedTime(Files.write(folder.resolve(uuid + "_bench.jpg"), new byte[1]), old);
+        }
+
+        UploadGarbageCollector collector = collector(30, 500, 1000, true);
+        long start = System.nanoTime();
+        long found = collector.runOnce();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println("files/sec: " + count / seconds);
+
+        assertEquals(count / 2, found);
+        assertEquals((long) count, collector.getStats().get("scanned"));
+        assertEquals((long) count / 2, collector.getStats().get("orphans"));
+        assertEquals(0L, collector.getStats().get("deleted"));
+    }
+
+    private UploadGarbageCollector collector(int foldersPerRun, int batchSize, int maxDeletesPerSecond, boolean dryRun) {
+        return new UploadGarbageCollector(imageRepository, thumbnailService, new ThumbnailCache(1_000_000, 100_000),
+                uploadDir.toString(), 24, foldersPerRun, batchSize, maxDeletesPerSecond, dryRun, 600_000);
+    }
+
+    private Path folder(String folderPath) throws IOException {
+        return Files.createDirectories(uploadDir.resolve(folderPath));
+    }
+
+    // 원본과 s_, m_ 썸네일 (각 10바이트)
+    private List<Path> files(Path folder, String uuid, boolean old) throws IOException {
+        List<Path> files = new ArrayList<>();
+        Path original = Files.write(folder.resolve(uuid + "_poster.jpg"), new byte[10]);
+        files.add(original);
+        for (Path thumbnail : thumbnailService.thumbnailsOf(original)) {
+            files.add(Files.write(thumbnail, new byte[10]));
+        }
+        if (old) {
+            files.forEach(this::setOld);
+        }
+        return files;
+    }
+
+    private void setOld(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis() - 2 * DAY));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
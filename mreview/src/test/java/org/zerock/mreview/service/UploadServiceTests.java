@@ -0,0 +1,185 @@
+package org.zerock.mreview.service;
+
+import net.coobird.thumbnailator.Thumbnailator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+import org.zerock.mreview.dto.UploadResultDTO;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UploadServiceTests {
+    private static final int ROUNDS = 5;
+
+    @TempDir
+    Path uploadDir;
+
+    @Test
+    public void testUpload() throws IOException {
+        ThumbnailService thumbnailService = new ThumbnailService(uploadDir.toString(), "s:100,m:300", 2, false);
+        UploadService service = new UploadService(uploadDir.toString(), thumbnailService, 4, 100, 3000);
+        try {
+            MultipartFile[] files = new MultipartFile[3];
+            for (int i = 0; i < files.length; i++) {
+                files[i] = new MockMultipartFile("uploadFiles", "test" + i + ".jpg", "image/jpeg", jpeg(400 + i, 300, i));
+            }
+
+            List<UploadResultDTO> result = service.upload(files);
+            assertEquals(3, result.size());
+
+            for (UploadResultDTO resultDTO : result) {
+                File original = new File(uploadDir.toFile(), resultDTO.getFolderPath() + File.separator
+                        + resultDTO.getUuid() + "_" + resultDTO.getFileName());
+                // 응답 시점에 원본은 이미 저장되어 있음
+                assertTrue(original.exists());
+
+                File thumbnail = new File(original.getParent(), "s_" + original.getName());
+                service.awaitThumbnail(thumbnail);
+                BufferedImage image = ImageIO.read(thumbnail);
+                System.out.println(thumbnail.getName() + " " + image.getWidth() + "x" + image.getHeight());
+                assertEquals(100, image.getWidth());
+                assertTrue(image.getHeight() <= 100);
+                assertTrue(new File(original.getParent(), "m_" + original.getName()).exists());
+            }
+        }
+        finally {
+            service.shutdown();
+            thumbnailService.shutdown();
+        }
+    }
+
+    // 저장하지 못한 파일이 있으면 그 이름으로 실패하고, 같은 요청에서 저장한 파일도 남기지 않음
+    @Test
+    public void testUploadFailure() throws IOException {
+        ThumbnailService thumbnailService = new ThumbnailService(uploadDir.toString(), "s:100", 1, false);
+        UploadService service = new UploadService(uploadDir.toString(), thumbnailService, 2, 100, 3000);
+        try {
+            MultipartFile[] files = {
+                    new MockMultipartFile("uploadFiles", "ok.jpg", "image/jpeg", jpeg(200, 100, 1)),
+                    new MockMultipartFile("uploadFiles", "broken.jpg", "image/jpeg", jpeg(200, 100, 2)) {
+                        @Override
+                        public void transferTo(Path dest) throws IOException {
+                            throw new IOException("disk full");
+                        }
+                    }
+            };
+
+            UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> service.upload(files));
+            assertTrue(e.getMessage().contains("broken.jpg"));
+            assertFalse(e.getMessage().contains("ok.jpg"));
+            assertEquals("disk full", e.getCause().getMessage());
+
+            String folder = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
+            try (Stream<Path> saved = Files.list(uploadDir.resolve(folder))) {
+                assertEquals(0, saved.count());
+            }
+        }
+        finally {
+            service.shutdown();
+            thumbnailService.shutdown();
+        }
+    }
+
+    // 5MB 정도의 JPEG 20장(bench.uploads) 업로드
+    // 이전 방식: 요청 스레드에서 한 장씩 폴더 확인 -> 저장 -> 저장한 파일을 다시 읽어 썸네일
+    // 현재 방식: 응답까지 걸린 시간과 썸네일까지 모두 끝난 시간을 따로 측정 (이전 방식과 같이 s_ 한 가지 크기만)
+    // MockMultipartFile 은 transferTo 가 메모리 내용을 복사하므로 실제 요청(임시 파일 이동)보다 저장 시간이 깁니다
+    @Test
+    @EnabledIfSystemProperty(named = "bench.uploads", matches = "\\d+")
+    public void testUploadBenchmark() throws IOException {
+        int count = Integer.getInteger("bench.uploads");
+        byte[] jpeg = jpeg(3400, 2550, 42);
+        MultipartFile[] files = new MultipartFile[count];
+        for (int i = 0; i < count; i++) {
+            files[i] = new MockMultipartFile("uploadFiles", "bench" + i + ".jpg", "image/jpeg", jpeg);
+        }
+
+        ThumbnailService thumbnailService = new ThumbnailService(uploadDir.toString(), "s:100", 2, false);
+        UploadService service = new UploadService(uploadDir.toString(), thumbnailService, 4, 100, 60_000);
+        long[] serialNanos = new long[ROUNDS];
+        long[] responseNanos = new long[ROUNDS];
+        long[] completeNanos = new long[ROUNDS];
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (MultipartFile file : files) {
+                    uploadSerial(file);
+                }
+                serialNanos[round] = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                List<UploadResultDTO> result = service.upload(files);
+                responseNanos[round] = System.nanoTime() - start;
+                for (UploadResultDTO resultDTO : result) {
+                    service.awaitThumbnail(new File(uploadDir.toFile(), resultDTO.getFolderPath() + File.separator
+                            + "s_" + resultDTO.getUuid() + "_" + resultDTO.getFileName()));
+                }
+                completeNanos[round] = System.nanoTime() - start;
+                assertEquals(count, result.size());
+            }
+        }
+        finally {
+            service.shutdown();
+            thumbnailService.shutdown();
+        }
+
+        System.out.println("FILES: " + count + " x " + jpeg.length + " bytes");
+        System.out.println("SERIAL              median(ms): " + median(serialNanos) / 1_000_000.0);
+        System.out.println("PIPELINE response   median(ms): " + median(responseNanos) / 1_000_000.0);
+        System.out.println("PIPELINE thumbnails median(ms): " + median(completeNanos) / 1_000_000.0);
+    }
+
+    // 변경 전 UploadController.uploadFile 의 파일 한 개 처리
+    private void uploadSerial(MultipartFile uploadFile) throws IOException {
+        String folderPath = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd")).replace("/", File.separator);
+        File folder = new File(uploadDir.toFile(), folderPath);
+        if (!folder.exists()) {
+            folder.mkdirs();
+        }
+        String uuid = UUID.randomUUID().toString();
+        File saveFile = new File(folder, uuid + "_" + uploadFile.getOriginalFilename());
+        uploadFile.transferTo(saveFile);
+        Thumbnailator.createThumbnail(saveFile, new File(folder, "s_" + saveFile.getName()), 100, 100);
+    }
+
+    // 압축이 잘 안 되도록 무작위 색으로 채운 JPEG
+    private static byte[] jpeg(int width, int height, long seed) throws IOException {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static long median(long[] nanos) {
+        long[] copy = nanos.clone();
+        Arrays.sort(copy);
+        return copy[copy.length / 2];
+    }
+}
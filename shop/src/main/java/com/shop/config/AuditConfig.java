@@ -1,14 +0,0 @@
-package com.shop.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
-
-@Configuration
-@EnableJpaAuditing
-public class AuditConfig {
-    @Bean
-    public AuditorAwareImpl auditorProvider() {
-        return new AuditorAwareImpl();
-    }
-}
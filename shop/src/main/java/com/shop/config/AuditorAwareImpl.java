@@ -1,20 +0,0 @@
-package com.shop.config;
-
-import org.springframework.data.domain.AuditorAware;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-
-import java.util.Optional;
-
-public class AuditorAwareImpl implements AuditorAware {
-    @Override
-    public Optional<String> getCurrentAuditor() {
-        Authentication authentication =
-                SecurityContextHolder.getContext().getAuthentication();
-        String userid = "";
-        if (authentication != null) {
-            authentication.getName();
-        }
-        return Optional.of(userid);
-    }
-}
@@ -0,0 +1,46 @@
+package com.shop.config;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// com.shop.entity.AuditListener 가 createdBy/modifiedBy 에 넣을 감사자(로그인 아이디) 조회
+public class CurrentAuditorProvider {
+    // 트랜잭션에 바인딩해 두는 감사자(로그인 아이디) 리소스 키
+    private static final Object AUDITOR_KEY = new Object();
+
+    private CurrentAuditorProvider() {
+    }
+
+    // 트랜잭션 안에서는 처음 한 번만 SecurityContext 를 조회하고 트랜잭션이 끝날 때까지 재사용
+    // 주문 생성처럼 한 트랜잭션에서 엔티티를 여러 개 저장해도 조회는 한 번
+    public static String currentAuditor() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return resolveAuditor();
+        }
+
+        String auditor = (String) TransactionSynchronizationManager.getResource(AUDITOR_KEY);
+        if (auditor == null) {
+            auditor = resolveAuditor();
+            TransactionSynchronizationManager.bindResource(AUDITOR_KEY, auditor);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AUDITOR_KEY);
+                }
+            });
+        }
+        return auditor;
+    }
+
+    private static String resolveAuditor() {
+        Authentication authentication =
+                SecurityContextHolder.getContext().getAuthentication();
+        String userid = "";
+        if (authentication != null) {
+            userid = authentication.getName();
+        }
+        return userid;
+    }
+}
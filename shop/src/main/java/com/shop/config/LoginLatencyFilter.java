@@ -0,0 +1,49 @@
+package com.shop.config;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 로그인 요청(POST /members/login) 전체의 소요 시간
+// 시큐리티 필터 체인보다 앞에 등록해 CSRF 검사, 회원 조회, 비밀번호 검증, 세션 생성, 리다이렉트까지 포함
+// (LoginPasswordEncoder 의 verify* 는 그중 비밀번호 검증만)
+public class LoginLatencyFilter extends OncePerRequestFilter {
+    private final LatencyRecorder loginLatency = new LatencyRecorder(4096);
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        }
+        finally {
+            loginLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("logins", loginLatency.getCount());
+        stats.put("loginP50Ms", toMillis(loginLatency.percentileNanos(50)));
+        stats.put("loginP95Ms", toMillis(loginLatency.percentileNanos(95)));
+        stats.put("loginP99Ms", toMillis(loginLatency.percentileNanos(99)));
+        stats.put("loginMaxMs", toMillis(loginLatency.getMaxNanos()));
+        return stats;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
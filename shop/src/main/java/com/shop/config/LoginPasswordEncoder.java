@@ -0,0 +1,213 @@
+package com.shop.config;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 로그인용 비밀번호 인코더
+// 1. BCrypt 검증은 큐 크기가 제한된 전용 스레드 풀에서 수행 -> 동시에 해싱하는 수를 threads 개로 제한해 로그인 폭주 시 CPU 를 다 잡아먹지 않음
+//    요청 스레드는 결과를 기다리며 그대로 막혀 있으므로 요청 스레드를 아끼는 효과는 없음 (동시 실행 제한 + 대기 시간 제한 용도)
+//    큐가 차거나 timeoutMillis 안에 끝나지 않으면 바로 실패시켜 대기 중인 요청 스레드가 쌓이지 않게 함
+// 2. 성공한 검증 결과는 (비밀번호 + 저장된 해시)의 HMAC 을 키로 짧게 캐시 -> 중복 제출 시 해싱 생략
+//    cacheMaxSize 를 넘으면 가장 오래 안 쓴 항목부터 제거
+// 3. upgradeEncoding 으로 cost 를 올리면 로그인 성공 시 MemberService.updatePassword 가 해시를 다시 저장
+public class LoginPasswordEncoder implements PasswordEncoder {
+    private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final long cacheTtlNanos;
+    private final int cacheMaxSize;
+
+    // 서버 기동 시마다 새로 만드는 키 -> 캐시 키만으로는 비밀번호를 추측할 수 없음
+    private final SecretKeySpec cacheKey;
+    // 접근 순서 유지 (가장 오래 안 쓴 항목이 맨 앞), verified 로 동기화
+    private final LinkedHashMap<String, Long> verified = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LatencyRecorder verifyLatency = new LatencyRecorder(4096);
+    private final AtomicLong hashCount = new AtomicLong();
+    private final AtomicLong hashCpuNanos = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public LoginPasswordEncoder(int strength, int threads, int queueSize,
+                                long timeoutMillis, long cacheTtlMillis, int cacheMaxSize) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.timeoutMillis = timeoutMillis;
+        this.cacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(cacheTtlMillis);
+        this.cacheMaxSize = cacheMaxSize;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "auth-verify-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.cacheKey = new SecretKeySpec(key, "HmacSHA256");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+
+        long start = System.nanoTime();
+        try {
+            String key = cacheKey(rawPassword, encodedPassword);
+            if (isVerified(key, start)) {
+                cacheHits.incrementAndGet();
+                return true;
+            }
+
+            boolean matched = verify(rawPassword, encodedPassword);
+            if (matched) {
+                remember(key, start);
+            }
+            return matched;
+        }
+        finally {
+            verifyLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public Map<String, Object> getStats() {
+        long hashes = hashCount.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("verifications", verifyLatency.getCount());
+        stats.put("cacheHits", cacheHits.get());
+        stats.put("rejected", rejected.get());
+        stats.put("queued", executor.getQueue().size());
+        // 비밀번호 검증(matches)만의 시간. 로그인 요청 전체는 LoginLatencyFilter
+        stats.put("verifyP50Ms", toMillis(verifyLatency.percentileNanos(50)));
+        stats.put("verifyP95Ms", toMillis(verifyLatency.percentileNanos(95)));
+        stats.put("verifyP99Ms", toMillis(verifyLatency.percentileNanos(99)));
+        stats.put("verifyMaxMs", toMillis(verifyLatency.getMaxNanos()));
+        stats.put("hashes", hashes);
+        stats.put("hashCpuTotalMs", toMillis(hashCpuNanos.get()));
+        stats.put("hashCpuAvgMs", hashes == 0 ? 0.0 : toMillis(hashCpuNanos.get() / hashes));
+        return stats;
+    }
+
+    // 스프링 컨테이너 종료 시 호출 (destroyMethod 추론)
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean verify(CharSequence rawPassword, String encodedPassword) {
+        Future<Boolean> future;
+        try {
+            future = executor.submit(() -> hash(rawPassword, encodedPassword));
+        }
+        catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new AuthenticationServiceException("로그인 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.incrementAndGet();
+            throw new AuthenticationServiceException("로그인 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("비밀번호 검증이 중단되었습니다.", e);
+        }
+        catch (ExecutionException e) {
+            throw new AuthenticationServiceException("비밀번호 검증 중 오류가 발생했습니다.", e.getCause());
+        }
+    }
+
+    private boolean hash(CharSequence rawPassword, String encodedPassword) {
+        long cpuStart = threadMXBean.getCurrentThreadCpuTime();
+        boolean matched = delegate.matches(rawPassword, encodedPassword);
+        if (cpuStart >= 0) {
+            hashCpuNanos.addAndGet(threadMXBean.getCurrentThreadCpuTime() - cpuStart);
+        }
+        hashCount.incrementAndGet();
+        return matched;
+    }
+
+    private boolean isVerified(String key, long now) {
+        synchronized (verified) {
+            Long expiresAt = verified.get(key);
+            if (expiresAt == null) {
+                return false;
+            }
+            if (expiresAt - now > 0) {
+                return true;
+            }
+            verified.remove(key);
+            return false;
+        }
+    }
+
+    private void remember(String key, long now) {
+        synchronized (verified) {
+            verified.put(key, now + cacheTtlNanos);
+            Iterator<Long> iterator = verified.values().iterator();
+            while (verified.size() > cacheMaxSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    private String cacheKey(CharSequence rawPassword, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(cacheKey);
+            mac.update(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        }
+        catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -2,16 +2,17 @@ package com.shop.config;
 
 import com.shop.service.MemberService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
 @Configuration
@@ -21,13 +22,31 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     @Autowired
     MemberService memberService;
 
+    @Value("${login.bcrypt.strength}")
+    int bcryptStrength;
+
+    @Value("${login.verify.threads}")
+    int verifyThreads;
+
+    @Value("${login.verify.queue-size}")
+    int verifyQueueSize;
+
+    @Value("${login.verify.timeout-ms}")
+    long verifyTimeoutMillis;
+
+    @Value("${login.verify.cache-ttl-ms}")
+    long verifyCacheTtlMillis;
+
+    @Value("${login.verify.cache-max-size}")
+    int verifyCacheMaxSize;
+
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
 
         http.authorizeRequests()
                 .mvcMatchers("/", "/members/**", "/item/**",
-                        "/images/**").permitAll()
+                        "/images/**", "/catalog/**").permitAll()
                 .mvcMatchers("/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated();
 
@@ -55,7 +74,23 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public LoginLatencyFilter loginLatencyFilter() {
+        return new LoginLatencyFilter();
+    }
+
+    // 시큐리티 필터 체인보다 먼저 실행되도록 가장 앞에 로그인 처리 URL 에만 등록
+    @Bean
+    public FilterRegistrationBean<LoginLatencyFilter> loginLatencyFilterRegistration(LoginLatencyFilter loginLatencyFilter) {
+        FilterRegistrationBean<LoginLatencyFilter> registration = new FilterRegistrationBean<>(loginLatencyFilter);
+        registration.addUrlPatterns("/members/login");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // BCrypt 검증을 전용 스레드 풀에서 수행하고 성공 결과를 잠깐 캐시하는 인코더
+    @Bean
+    public LoginPasswordEncoder passwordEncoder() {
+        return new LoginPasswordEncoder(bcryptStrength, verifyThreads, verifyQueueSize,
+                verifyTimeoutMillis, verifyCacheTtlMillis, verifyCacheMaxSize);
     }
 }
\ No newline at end of file
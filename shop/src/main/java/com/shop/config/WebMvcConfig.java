@@ -1,7 +1,10 @@
 package com.shop.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -11,6 +14,38 @@ public class WebMvcConfig implements WebMvcConfigurer {
     @Value("${uploadPath}")
     String uploadPath;
 
+    @Value("${stream.query.threads}")
+    int streamQueryThreads;
+
+    // Callable/DeferredResult 등 스프링 MVC 비동기 요청을 처리하는 스레드 풀
+    // 기본값(SimpleAsyncTaskExecutor)은 요청마다 스레드를 새로 만드므로 크기를 제한
+    // 빈으로 등록해야 스프링이 초기화하고 종료 시 정리함
+    @Bean
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(32);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("mvc-async-");
+        return executor;
+    }
+
+    // 스트리밍 응답(com.shop.service.StreamConnection)에 보낼 목록을 DB 에서 읽는 스레드 풀
+    // 전송은 논블로킹이라 스레드를 쓰지 않고, 연결마다 대기 조회는 최대 하나라서 큐는 연결 수를 넘지 않으므로 크기를 따로 제한하지 않음
+    @Bean
+    public ThreadPoolTaskExecutor streamQueryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(streamQueryThreads);
+        executor.setMaxPoolSize(streamQueryThreads);
+        executor.setThreadNamePrefix("stream-query-");
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor());
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         registry.addResourceHandler("/images/**")
@@ -0,0 +1,32 @@
+package com.shop.controller;
+
+import com.shop.dto.ItemSearchDto;
+import com.shop.service.CatalogStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// 모바일 앱용 상품 카탈로그 JSON 피드 (MainController 의 메인 페이지와 같은 상품 목록)
+// 응답은 CatalogStreamService 가 서블릿 비동기 + 논블로킹 출력으로 직접 씀
+@Controller
+@RequiredArgsConstructor
+public class CatalogController {
+    private final CatalogStreamService catalogStreamService;
+
+    // 한 줄에 MainItemDto 하나씩 NDJSON (application/x-ndjson) 으로 스트리밍
+    @GetMapping(value = "/catalog/items")
+    public void catalogItems(ItemSearchDto itemSearchDto, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        catalogStreamService.streamCatalog(itemSearchDto, request, response);
+    }
+
+    // 상품 등록/수정 실시간 구독 (SSE, 구독자가 너무 많으면 503)
+    @GetMapping(value = "/catalog/items/updates")
+    public void catalogUpdates(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        catalogStreamService.subscribe(request, response);
+    }
+}
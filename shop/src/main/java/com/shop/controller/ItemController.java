@@ -3,11 +3,14 @@ package com.shop.controller;
 import com.shop.dto.ItemFormDto;
 import com.shop.dto.ItemSearchDto;
 import com.shop.entity.Item;
+import com.shop.service.ItemDtlCache;
 import com.shop.service.ItemService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.csrf.CsrfToken;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -15,17 +18,24 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.persistence.EntityNotFoundException;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Controller
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final ItemDtlCache itemDtlCache;
+
     @GetMapping(value = "/admin/item/new")
     public String itemForm(Model model) {
         model.addAttribute("itemFormDto", new ItemFormDto());
@@ -104,10 +114,31 @@ public class ItemController {
         return "item/itemMng";
     }
 
+    // 상품 상세 페이지: 본문은 ItemDtlCache 에서 미리 렌더링된 조각을 사용
+    // 같은 사용자/세션(CSRF 토큰)의 브라우저가 같은 버전을 가지고 있으면 304 응답
+    // Last-Modified 는 사용자별로 나눌 수 없으므로 보내지 않음
     @GetMapping(value = "/item/{itemId}")
-    public String itemDtl(Model model, @PathVariable("itemId") Long itemId) {
-        ItemFormDto itemFormDto = itemService.getItemDtl(itemId);
-        model.addAttribute("item", itemFormDto);
+    public String itemDtl(Model model, @PathVariable("itemId") Long itemId,
+                          WebRequest webRequest, HttpServletResponse response,
+                          Principal principal, CsrfToken csrfToken) {
+        ItemDtlCache.Entry entry = itemDtlCache.get(itemId, itemService::getItemDtl);
+
+        String viewer = (principal == null ? "" : principal.getName()) + ":"
+                + (csrfToken == null ? "" : csrfToken.getToken());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (webRequest.checkNotModified(entry.getETag(viewer))) {
+            return null;
+        }
+
+        model.addAttribute("item", entry.getItem());
+        model.addAttribute("itemDtlHtml", entry.getHtml());
         return "item/itemDtl";
     }
+
+    // 상품 상세 캐시 적중률, 절약한 렌더링 시간
+    @GetMapping(value = "/admin/item/cache")
+    @ResponseBody
+    public Map<String, Object> itemDtlCacheStats() {
+        return itemDtlCache.getStats();
+    }
 }
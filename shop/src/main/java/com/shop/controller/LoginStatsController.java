@@ -0,0 +1,27 @@
+package com.shop.controller;
+
+import com.shop.config.LoginLatencyFilter;
+import com.shop.config.LoginPasswordEncoder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Controller
+@RequiredArgsConstructor
+public class LoginStatsController {
+    private final LoginLatencyFilter loginLatencyFilter;
+    private final LoginPasswordEncoder loginPasswordEncoder;
+
+    // 로그인 요청 전체(login*)와 그중 비밀번호 검증(verify*)의 지연시간 백분위수, 해싱 CPU 시간, 캐시 적중/거절 건수
+    @GetMapping(value = "/admin/login/stats")
+    @ResponseBody
+    public Map<String, Object> loginStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(loginLatencyFilter.getStats());
+        stats.putAll(loginPasswordEncoder.getStats());
+        return stats;
+    }
+}
@@ -0,0 +1,33 @@
+package com.shop.controller;
+
+import com.shop.dto.ItemStockDto;
+import com.shop.service.StockBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Controller
+@RequiredArgsConstructor
+public class StockController {
+    private final StockBroadcaster stockBroadcaster;
+
+    // 주문 전 재고 사전 확인 (메모리 스냅샷)
+    @GetMapping(value = "/item/{itemId}/stock")
+    @ResponseBody
+    public ItemStockDto itemStock(@PathVariable("itemId") Long itemId) {
+        return new ItemStockDto(itemId, stockBroadcaster.getStock(itemId));
+    }
+
+    // 상품 상세 페이지에서 재고 변경 구독 (SSE, 응답은 StockBroadcaster 가 논블로킹 출력으로 직접 씀)
+    @GetMapping(value = "/item/{itemId}/stock/stream")
+    public void itemStockStream(@PathVariable("itemId") Long itemId, HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        stockBroadcaster.watch(itemId, request, response);
+    }
+}
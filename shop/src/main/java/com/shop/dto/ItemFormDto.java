@@ -8,6 +8,7 @@ import org.modelmapper.ModelMapper;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -29,6 +30,9 @@ public class ItemFormDto {
 
     private ItemSellStatus itemSellStatus;
 
+    // 상품 상세 캐시 버전(ETag)으로 사용
+    private LocalDateTime updateTime;
+
     private List<ItemImgDto> itemImgDtoList = new ArrayList<>();
     private List<Long> itemImgIds = new ArrayList<>();
 
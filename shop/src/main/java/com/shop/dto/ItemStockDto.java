@@ -0,0 +1,15 @@
+package com.shop.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter @Setter
+public class ItemStockDto {
+    private Long itemId;
+    private Integer stockNumber;
+
+    public ItemStockDto(Long itemId, Integer stockNumber) {
+        this.itemId = itemId;
+        this.stockNumber = stockNumber;
+    }
+}
@@ -0,0 +1,36 @@
+package com.shop.entity;
+
+import com.shop.config.CurrentAuditorProvider;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import java.time.LocalDateTime;
+
+// BaseTimeEntity/BaseEntity 감사 필드를 채우는 엔티티 리스너
+// AuditingEntityListener 는 엔티티마다 매핑 메타데이터와 프로퍼티 접근자를 거쳐 값을 넣으므로
+// 대량 저장 시에는 setter 를 직접 호출하고 감사자는 트랜잭션 단위로 캐시된 값을 사용
+public class AuditListener {
+
+    @PrePersist
+    public void prePersist(BaseTimeEntity entity) {
+        LocalDateTime now = LocalDateTime.now();
+        entity.setRegTime(now);
+        entity.setUpdateTime(now);
+
+        if (entity instanceof BaseEntity) {
+            String auditor = CurrentAuditorProvider.currentAuditor();
+            BaseEntity baseEntity = (BaseEntity) entity;
+            baseEntity.setCreatedBy(auditor);
+            baseEntity.setModifiedBy(auditor);
+        }
+    }
+
+    @PreUpdate
+    public void preUpdate(BaseTimeEntity entity) {
+        entity.setUpdateTime(LocalDateTime.now());
+
+        if (entity instanceof BaseEntity) {
+            ((BaseEntity) entity).setModifiedBy(CurrentAuditorProvider.currentAuditor());
+        }
+    }
+}
@@ -2,22 +2,16 @@ package com.shop.entity;
 
 import lombok.Getter;
 import lombok.Setter;
-import org.springframework.data.annotation.CreatedBy;
-import org.springframework.data.annotation.LastModifiedBy;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.Column;
-import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
 
-@EntityListeners(value = {AuditingEntityListener.class})
+// 감사 필드는 BaseTimeEntity 의 AuditListener 가 채움
 @MappedSuperclass
 @Getter @Setter
 public class BaseEntity extends BaseTimeEntity{
-    @CreatedBy
     @Column(updatable = false)
     private String createdBy;
 
-    @LastModifiedBy
     private String modifiedBy;
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long>,
@@ -15,4 +16,8 @@ public interface ItemRepository extends JpaRepository<Item, Long>,
     @Query("select i from Item i where i.itemDetail " +
             "like %:itemDetail% order by i.price desc")
     List<Item> findByItemDetail(@Param("itemDetail") String itemDetail);
+
+    // 재고 알림용: 상품 엔티티를 로딩하지 않고 [id, 재고] 만 조회
+    @Query("select i.id, i.stockNumber from Item i where i.id in :itemIds")
+    List<Object[]> findStockNumbers(@Param("itemIds") Collection<Long> itemIds);
 }
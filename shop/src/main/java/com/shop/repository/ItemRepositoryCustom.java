@@ -6,7 +6,11 @@ import com.shop.entity.Item;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface ItemRepositoryCustom {
     Page<Item> getAdminItemPage(ItemSearchDto itemSearchDto, Pageable pageable);
     Page<MainItemDto> getMainItemPage(ItemSearchDto itemSearchDto, Pageable pageable);
+    List<MainItemDto> getMainItemsAfter(ItemSearchDto itemSearchDto, Long lastItemId, int size);
+    MainItemDto getMainItem(Long itemId);
 }
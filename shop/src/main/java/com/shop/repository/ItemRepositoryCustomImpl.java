@@ -118,4 +118,51 @@ public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
                 .fetchOne();
         return new PageImpl<>(content, pageable, total);
     }
-}
\ No newline at end of file
+
+    // 카탈로그 스트리밍용: lastItemId 보다 작은 id 를 size 개씩 (offset, count 쿼리 없음)
+    @Override
+    public List<MainItemDto> getMainItemsAfter(ItemSearchDto itemSearchDto, Long lastItemId, int size) {
+        QItem item = QItem.item;
+        QItemImg itemImg = QItemImg.itemImg;
+
+        return queryFactory
+                .select(
+                        new QMainItemDto(
+                                item.id,
+                                item.itemNm,
+                                item.itemDetail,
+                                itemImg.imgUrl,
+                                item.price
+                        )
+                )
+                .from(itemImg)
+                .join(itemImg.item, item)
+                .where(itemImg.repimgYn.eq("Y"))
+                .where(itemNmLike(itemSearchDto.getSearchQuery()))
+                .where(lastItemId == null ? null : item.id.lt(lastItemId))
+                .orderBy(item.id.desc())
+                .limit(size)
+                .fetch();
+    }
+
+    @Override
+    public MainItemDto getMainItem(Long itemId) {
+        QItem item = QItem.item;
+        QItemImg itemImg = QItemImg.itemImg;
+
+        return queryFactory
+                .select(
+                        new QMainItemDto(
+                                item.id,
+                                item.itemNm,
+                                item.itemDetail,
+                                itemImg.imgUrl,
+                                item.price
+                        )
+                )
+                .from(itemImg)
+                .join(itemImg.item, item)
+                .where(itemImg.repimgYn.eq("Y"), item.id.eq(itemId))
+                .fetchOne();
+    }
+}
@@ -0,0 +1,227 @@
+package com.shop.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.dto.ItemSearchDto;
+import com.shop.dto.MainItemDto;
+import com.shop.repository.ItemRepository;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 모바일 앱용 카탈로그 피드
+// 1. 전체 목록은 NDJSON 으로 CHUNK_SIZE 개씩 id 내림차순 스트리밍
+//    앞 청크를 클라이언트가 모두 받은 뒤에 다음 청크를 조회하므로 (backpressure) 목록 전체를 메모리에 올리지 않음
+// 2. 상품 등록/수정은 SSE 로 구독자 전원에게 push
+//    변경된 상품 id 는 모아 두었다가 한 스레드가 상품별로 한 번씩 조회해 연결별 대기열(StreamConnection)에 넣음
+//    아직 보내지 못한 같은 상품의 변경은 합쳐지므로 알림을 버리지 않고, 느린 구독자는 자기 대기열이 차거나 전송 제한 시간이 지나면 끊김
+// 두 응답 모두 논블로킹 출력이라 연결마다 스레드를 점유하지 않고, DB 조회는 WebMvcConfig 의 제한된 스레드 풀에서 수행
+@Service
+@Log
+public class CatalogStreamService {
+    private static final int CHUNK_SIZE = 100;
+
+    private final ItemRepository itemRepository;
+    private final ObjectMapper objectMapper;
+    private final Executor queryExecutor;
+    private final long subscriberTimeoutMillis;
+    private final int maxSubscribers;
+    private final int maxPending;
+    private final long sendTimeoutMillis;
+
+    private final Set<StreamConnection> subscribers = ConcurrentHashMap.newKeySet();
+    // 전체 목록을 받고 있는 연결 (전송 제한 시간 검사용)
+    private final Set<StreamConnection> catalogStreams = ConcurrentHashMap.newKeySet();
+
+    // 아직 구독자에게 넘기지 않은 변경 상품 id
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    // 변경 상품 조회와 전송 제한 시간 검사 전용 스레드
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CatalogStreamService(ItemRepository itemRepository, ObjectMapper objectMapper,
+                                @Qualifier("streamQueryExecutor") Executor queryExecutor,
+                                @Value("${catalog.stream.timeout-ms}") long subscriberTimeoutMillis,
+                                @Value("${catalog.stream.max-subscribers}") int maxSubscribers,
+                                @Value("${stream.max-pending}") int maxPending,
+                                @Value("${stream.send-timeout-ms}") long sendTimeoutMillis) {
+        this.itemRepository = itemRepository;
+        this.objectMapper = objectMapper;
+        this.queryExecutor = queryExecutor;
+        this.subscriberTimeoutMillis = subscriberTimeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPending = maxPending;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        dispatcher.scheduleWithFixedDelay(this::expireBlocked, 1, 1, TimeUnit.SECONDS);
+    }
+
+    public void streamCatalog(ItemSearchDto itemSearchDto, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        // 한 청크를 다 보낸 뒤에 다음 청크를 넣으므로 대기열은 CHUNK_SIZE 를 넘지 않음
+        StreamConnection connection = StreamConnection.open(request, response, StreamConnection.APPLICATION_NDJSON,
+                subscriberTimeoutMillis, CHUNK_SIZE, sendTimeoutMillis, catalogStreams::remove);
+        streamCatalog(itemSearchDto, connection);
+    }
+
+    void streamCatalog(ItemSearchDto itemSearchDto, StreamConnection connection) {
+        catalogStreams.add(connection);
+        // 등록하기 전에 이미 끊긴 연결
+        if (connection.isClosed()) {
+            catalogStreams.remove(connection);
+            return;
+        }
+        writeChunk(itemSearchDto, null, connection);
+    }
+
+    // 구독자 수가 max-subscribers 에 이르렀으면 503
+    public void subscribe(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (subscribers.size() >= maxSubscribers) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "카탈로그 구독자 수가 너무 많습니다.");
+            return;
+        }
+        subscribe(StreamConnection.open(request, response, MediaType.TEXT_EVENT_STREAM,
+                subscriberTimeoutMillis, maxPending, sendTimeoutMillis, subscribers::remove));
+    }
+
+    void subscribe(StreamConnection connection) {
+        subscribers.add(connection);
+        if (connection.isClosed()) {
+            subscribers.remove(connection);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        changed.add(event.getItemId());
+        dispatch();
+    }
+
+    // 이벤트는 한 번만 직렬화해 모든 연결이 같은 배열을 공유
+    // 연결별 대기열에 넣고 소켓이 받을 수 있는 만큼만 바로 쓰므로 느린 구독자가 있어도 바로 반환
+    public void publish(MainItemDto mainItemDto) {
+        byte[] event;
+        try {
+            event = StreamConnection.sseEvent("item", String.valueOf(mainItemDto.getId()),
+                    objectMapper.writeValueAsBytes(mainItemDto));
+        }
+        catch (JsonProcessingException e) {
+            log.warning("카탈로그 변경 알림 직렬화 실패: " + e.getMessage());
+            return;
+        }
+        for (StreamConnection subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        for (StreamConnection connection : subscribers) {
+            connection.close(null);
+        }
+        for (StreamConnection connection : catalogStreams) {
+            connection.close(null);
+        }
+    }
+
+    // 청크 하나를 조회해 대기열에 넣고, 클라이언트가 모두 받으면 다음 청크를 조회
+    private void writeChunk(ItemSearchDto itemSearchDto, Long lastItemId, StreamConnection connection) {
+        try {
+            queryExecutor.execute(() -> {
+                try {
+                    List<MainItemDto> chunk = itemRepository.getMainItemsAfter(itemSearchDto, lastItemId, CHUNK_SIZE);
+                    for (MainItemDto mainItemDto : chunk) {
+                        if (!connection.offer(line(mainItemDto))) {
+                            return;
+                        }
+                    }
+                    if (chunk.size() < CHUNK_SIZE) {
+                        connection.finish();
+                        return;
+                    }
+                    Long nextItemId = chunk.get(chunk.size() - 1).getId();
+                    connection.whenDrained(() -> writeChunk(itemSearchDto, nextItemId, connection));
+                }
+                catch (RuntimeException | JsonProcessingException e) {
+                    log.warning("카탈로그 목록 전송 실패: " + e.getMessage());
+                    connection.close(e);
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            connection.close(e);
+        }
+    }
+
+    private byte[] line(MainItemDto mainItemDto) throws JsonProcessingException {
+        byte[] json = objectMapper.writeValueAsBytes(mainItemDto);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+
+    private void expireBlocked() {
+        long now = System.nanoTime();
+        for (StreamConnection connection : subscribers) {
+            connection.expireIfBlocked(now);
+        }
+        for (StreamConnection connection : catalogStreams) {
+            connection.expireIfBlocked(now);
+        }
+    }
+
+    // 조회 작업은 하나만 실행/대기 (그 사이 들어온 변경은 changed 에 합쳐짐)
+    private void dispatch() {
+        if (dispatching.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatchChanged);
+        }
+    }
+
+    private void dispatchChanged() {
+        try {
+            for (Long itemId : changed) {
+                changed.remove(itemId);
+                MainItemDto mainItemDto = itemRepository.getMainItem(itemId);
+                if (mainItemDto != null) {
+                    publish(mainItemDto);
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            log.warning("카탈로그 변경 알림 실패: " + e.getMessage());
+        }
+        finally {
+            dispatching.set(false);
+            if (!changed.isEmpty()) {
+                dispatch();
+            }
+        }
+    }
+}
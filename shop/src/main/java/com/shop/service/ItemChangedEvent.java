@@ -0,0 +1,13 @@
+package com.shop.service;
+
+import lombok.Getter;
+
+// 상품이 등록/수정되었을 때 발행 (커밋 후 카탈로그 구독자에게 전달)
+@Getter
+public class ItemChangedEvent {
+    private final Long itemId;
+
+    public ItemChangedEvent(Long itemId) {
+        this.itemId = itemId;
+    }
+}
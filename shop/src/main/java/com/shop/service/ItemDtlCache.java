@@ -0,0 +1,172 @@
+package com.shop.service;
+
+import com.shop.dto.ItemFormDto;
+import lombok.Getter;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+// 상품 상세 페이지(/item/{itemId}) 본문 조각 캐시
+// item/itemDtlContent 를 상품별로 한 번만 렌더링해 두고, 상품의 updateTime 과 렌더링 세대로 버전을 매겨 ETag 에 사용
+// 항목 수는 item.dtl-cache.max-size 까지 (가장 오래 안 쓴 상품부터 제거)
+@Service
+@Log
+public class ItemDtlCache {
+    // 상품 번호를 이 개수의 구간으로 나눠 구간별로 제거 횟수를 셈
+    private static final int STAMP_STRIPES = 1024;
+
+    private final ITemplateEngine templateEngine;
+    private final int maxSize;
+
+    // 접근 순서 유지 (가장 오래 안 쓴 항목이 맨 앞)
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // 조회 + 렌더링 중에 같은 상품이 제거되면 렌더링한 결과를 저장하지 않도록 제거할 때마다 증가
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    // 이미지만 바뀐 경우 상품 updateTime 이 그대로일 수 있으므로 렌더링할 때마다 세대 번호를 새로 매김
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong savedNanos = new AtomicLong();
+    private final AtomicLong skippedPuts = new AtomicLong();
+
+    public ItemDtlCache(ITemplateEngine templateEngine, @Value("${item.dtl-cache.max-size}") int maxSize) {
+        this.templateEngine = templateEngine;
+        this.maxSize = maxSize;
+    }
+
+    @Getter
+    public static class Entry {
+        private final ItemFormDto item;
+        private final String html;
+        private final long version;
+        private final long generation;
+        private final long renderNanos;
+
+        Entry(ItemFormDto item, String html, long version, long generation, long renderNanos) {
+            this.item = item;
+            this.html = html;
+            this.version = version;
+            this.generation = generation;
+            this.renderNanos = renderNanos;
+        }
+
+        // 본문 조각은 상품마다 같지만 페이지에는 CSRF 토큰과 로그인 여부에 따른 메뉴가 들어가므로
+        // 보는 사람(viewer: 사용자 + CSRF 토큰)이 바뀌면 ETag 도 바뀌어야 이전 세션의 페이지를 304 로 재사용하지 않음
+        public String getETag(String viewer) {
+            return "\"item-" + item.getId() + "-" + version + "." + generation + "-"
+                    + DigestUtils.md5DigestAsHex(viewer.getBytes(StandardCharsets.UTF_8)) + "\"";
+        }
+    }
+
+    // 캐시에 없으면 loader 로 상품 상세를 조회해 렌더링한 뒤 저장
+    // 조회 + 렌더링에 걸린 시간을 기록해 두었다가 적중할 때마다 절약한 시간으로 누적
+    public Entry get(Long itemId, Function<Long, ItemFormDto> loader) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(itemId);
+        }
+        if (entry != null) {
+            hits.incrementAndGet();
+            savedNanos.addAndGet(entry.getRenderNanos());
+            return entry;
+        }
+        misses.incrementAndGet();
+
+        int stripe = stripe(itemId);
+        long stamp = stamps.get(stripe);
+        long start = System.nanoTime();
+        ItemFormDto itemFormDto = loader.apply(itemId);
+
+        Context context = new Context(Locale.KOREA);
+        context.setVariable("item", itemFormDto);
+        String html = templateEngine.process("item/itemDtlContent",
+                Collections.singleton("content"), context);
+
+        entry = new Entry(itemFormDto, html, toVersion(itemFormDto.getUpdateTime()),
+                generation.incrementAndGet(), System.nanoTime() - start);
+        synchronized (entries) {
+            // 조회한 뒤에 상품이 수정되었으면 이번 요청에만 사용하고 저장하지 않음
+            if (stamps.get(stripe) != stamp) {
+                skippedPuts.incrementAndGet();
+                return entry;
+            }
+            entries.put(itemId, entry);
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() > maxSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return entry;
+    }
+
+    // 상품/이미지 수정 트랜잭션이 커밋된 뒤에 제거해야 커밋 전 데이터로 다시 채워지지 않음
+    public void evict(Long itemId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(itemId);
+                }
+            });
+        }
+        else {
+            remove(itemId);
+        }
+        log.fine("상품 상세 캐시 제거: " + itemId);
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", total - hitCount);
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("renderTimeSavedMs", savedNanos.get() / 1_000_000);
+        stats.put("skippedPuts", skippedPuts.get());
+        return stats;
+    }
+
+    private void remove(Long itemId) {
+        synchronized (entries) {
+            stamps.incrementAndGet(stripe(itemId));
+            entries.remove(itemId);
+        }
+    }
+
+    private static int stripe(Long itemId) {
+        return (Long.hashCode(itemId) & 0x7fffffff) % STAMP_STRIPES;
+    }
+
+    private long toVersion(LocalDateTime updateTime) {
+        if (updateTime == null) {
+            return -1L;
+        }
+        return updateTime.atZone(ZoneId.systemDefault()).toInstant().getEpochSecond() * 1000;
+    }
+}
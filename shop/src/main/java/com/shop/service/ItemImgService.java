@@ -21,6 +21,7 @@ public class ItemImgService {
 
     private final ItemImgRepository itemImgRepository;
     private final FileService fileService;
+    private final ItemDtlCache itemDtlCache;
 
     public void saveItemImg(ItemImg itemImg, MultipartFile itemImgFile) throws Exception{
         String oriImgName = itemImgFile.getOriginalFilename();
@@ -54,6 +55,7 @@ public class ItemImgService {
             String imgName = fileService.uploadFile(itemImgLocation, Objects.requireNonNull(oriImgName), itemImgFile.getBytes());
             String imgUrl = "/images/item/" + imgName;
             savedItemImg.updateItemImg(oriImgName, imgName, imgUrl);
+            itemDtlCache.evict(savedItemImg.getItem().getId());
         }
     }
 }
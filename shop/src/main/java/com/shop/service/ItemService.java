@@ -9,6 +9,7 @@ import com.shop.entity.ItemImg;
 import com.shop.repository.ItemImgRepository;
 import com.shop.repository.ItemRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -26,6 +27,8 @@ public class ItemService {
     private final ItemRepository itemRepository;
     private final ItemImgService itemImgService;
     private final ItemImgRepository itemImgRepository;
+    private final ItemDtlCache itemDtlCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Long saveItem(ItemFormDto itemFormDto, List<MultipartFile> itemImgFileList) throws Exception {
         Item item = itemFormDto.createItem();
@@ -40,6 +43,8 @@ public class ItemService {
 
             itemImgService.saveItemImg(itemImg, itemImgFileList.get(i));
         }
+
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId()));
         return item.getId();
     }
 
@@ -86,6 +91,10 @@ public class ItemService {
         for (int i = 0; i < itemImgFileList.size(); i++) {
             itemImgService.updateItemImg(itemImgIds.get(i), itemImgFileList.get(i));
         }
+
+        itemDtlCache.evict(item.getId());
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId()));
+        eventPublisher.publishEvent(new StockChangedEvent(item.getId()));
         return item.getId();
     }
 
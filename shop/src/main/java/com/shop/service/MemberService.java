@@ -5,6 +5,7 @@ import com.shop.repository.MemberRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -13,7 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @Transactional
 @RequiredArgsConstructor
-public class MemberService implements UserDetailsService {
+public class MemberService implements UserDetailsService, UserDetailsPasswordService {
     private final MemberRepository memberRepository;
 
     public Member saveMember(Member member) {
@@ -40,4 +41,17 @@ public class MemberService implements UserDetailsService {
                 .roles(member.getRole().toString())
                 .build();
     }
+
+    // 로그인 성공 시 저장된 해시의 cost 가 현재 설정보다 낮으면 DaoAuthenticationProvider 가 새 해시로 호출
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Member member = memberRepository.findByEmail(user.getUsername());
+        if (member == null) {
+            throw new UsernameNotFoundException(user.getUsername());
+        }
+        member.setPassword(newPassword);
+        return User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
 }
@@ -9,6 +9,7 @@ import com.shop.repository.ItemRepository;
 import com.shop.repository.MemberRepository;
 import com.shop.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -33,6 +34,7 @@ public class OrderService {
     private final MemberRepository memberRepository;
     private final OrderRepository orderRepository;
     private final ItemImgRepository itemImgRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Long order(OrderDto orderDto, String email) {
         Item item = itemRepository.findById(orderDto.getItemId())
@@ -48,6 +50,7 @@ public class OrderService {
         Order order = Order.createOrder(member, orderItemList);
         orderRepository.save(order);
 
+        eventPublisher.publishEvent(new StockChangedEvent(item.getId()));
         return order.getId();
     }
 
@@ -92,6 +95,10 @@ public class OrderService {
     public void cancelOrder(Long orderId) {
         Order order = orderRepository.findById(orderId).orElseThrow(EntityNotFoundException::new);
         order.cancelOrder();
+
+        for (OrderItem orderItem : order.getOrderItems()) {
+            eventPublisher.publishEvent(new StockChangedEvent(orderItem.getItem().getId()));
+        }
     }
 
     public Long orders(List<OrderDto> orderDtoList, String email) {
@@ -103,6 +110,7 @@ public class OrderService {
                     .orElseThrow(EntityNotFoundException::new);
             OrderItem orderItem = OrderItem.createOrderItem(item, orderDto.getCount());
             orderItemList.add(orderItem);
+            eventPublisher.publishEvent(new StockChangedEvent(item.getId()));
         }
 
         Order order = Order.createOrder(member, orderItemList);
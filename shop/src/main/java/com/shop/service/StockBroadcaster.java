@@ -0,0 +1,219 @@
+package com.shop.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.dto.ItemStockDto;
+import com.shop.repository.ItemRepository;
+import lombok.extern.java.Log;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 상품별 재고 알림
+// 주문/취소로 재고가 바뀐 상품 id 를 모아 두었다가 intervalMillis 마다 한 번의 쿼리로 현재 재고를 읽어
+// 메모리 스냅샷을 갱신하고 해당 상품을 보고 있는 브라우저(SSE)에 전송
+// 같은 주기 안에 여러 번 바뀐 상품은 한 번만 전송됨
+// 스냅샷은 구독자가 있는 상품만 유지하고 마지막 구독자가 끊기면 함께 제거
+// 전송은 연결별 대기열(StreamConnection)에 넣고 소켓이 받을 수 있는 만큼만 논블로킹으로 쓰므로 느린 브라우저가 전송 스레드를 막지 않음
+@Service
+@Log
+public class StockBroadcaster {
+    private final ItemRepository itemRepository;
+    private final ObjectMapper objectMapper;
+    private final long subscriberTimeoutMillis;
+    private final int maxPending;
+    private final long sendTimeoutMillis;
+
+    // 상품 id -> 구독자와 마지막으로 읽은 재고
+    private final Map<Long, ItemWatch> watches = new ConcurrentHashMap<>();
+    // 다음 전송 때 다시 읽어야 할 상품 id
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // 재고 조회를 시작할 때마다 증가. 늦게 시작한 조회의 결과만 스냅샷에 남김
+    private final AtomicLong readVersion = new AtomicLong();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-broadcast");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StockBroadcaster(ItemRepository itemRepository, ObjectMapper objectMapper,
+                            @Value("${stock.broadcast.interval-ms}") long intervalMillis,
+                            @Value("${stock.broadcast.timeout-ms}") long subscriberTimeoutMillis,
+                            @Value("${stream.max-pending}") int maxPending,
+                            @Value("${stream.send-timeout-ms}") long sendTimeoutMillis) {
+        this.itemRepository = itemRepository;
+        this.objectMapper = objectMapper;
+        this.subscriberTimeoutMillis = subscriberTimeoutMillis;
+        this.maxPending = maxPending;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        scheduler.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::expireBlocked, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @TransactionalEventListener
+    public void onStockChanged(StockChangedEvent event) {
+        if (watches.containsKey(event.getItemId())) {
+            dirty.add(event.getItemId());
+        }
+    }
+
+    // 주문 전 사전 확인용. 보고 있는 사람이 있는 상품은 스냅샷, 없으면 DB 에서 읽음
+    public int getStock(Long itemId) {
+        ItemWatch watch = watches.get(itemId);
+        if (watch != null && watch.stock != null) {
+            return watch.stock;
+        }
+        long version = readVersion.incrementAndGet();
+        Integer stock = 0;
+        for (Object[] row : itemRepository.findStockNumbers(Collections.singletonList(itemId))) {
+            stock = (Integer) row[1];
+        }
+        if (watch != null) {
+            watch.update(stock, version);
+        }
+        return stock;
+    }
+
+    public void watch(Long itemId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        watch(itemId, StreamConnection.open(request, response, MediaType.TEXT_EVENT_STREAM,
+                subscriberTimeoutMillis, maxPending, sendTimeoutMillis, closed -> unwatch(itemId, closed)));
+    }
+
+    // connection 은 끊길 때 unwatch(itemId, connection) 을 불러야 함
+    void watch(Long itemId, StreamConnection connection) {
+        // 추가/제거는 compute 로 원자적으로 처리해야 빈 구독자 집합을 지우는 순간 추가된 구독자를 잃지 않음
+        watches.compute(itemId, (id, watch) -> {
+            ItemWatch target = watch == null ? new ItemWatch() : watch;
+            target.subscribers.add(connection);
+            return target;
+        });
+        // 등록하기 전에 이미 끊긴 연결
+        if (connection.isClosed()) {
+            unwatch(itemId, connection);
+            return;
+        }
+
+        // 구독 직후 현재 재고를 한 번 보내 줌
+        connection.offer(event(itemId, getStock(itemId)));
+    }
+
+    public int getWatcherCount(Long itemId) {
+        ItemWatch watch = watches.get(itemId);
+        return watch == null ? 0 : watch.subscribers.size();
+    }
+
+    // 구독자가 있는 상품 수 (= 유지 중인 스냅샷 수)
+    public int getWatchedItemCount() {
+        return watches.size();
+    }
+
+    void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> itemIds = new ArrayList<>();
+        for (Long itemId : dirty) {
+            dirty.remove(itemId);
+            if (watches.containsKey(itemId)) {
+                itemIds.add(itemId);
+            }
+        }
+        if (itemIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            long version = readVersion.incrementAndGet();
+            for (Object[] row : itemRepository.findStockNumbers(itemIds)) {
+                Long itemId = (Long) row[0];
+                ItemWatch watch = watches.get(itemId);
+                if (watch != null && watch.update((Integer) row[1], version)) {
+                    publish(itemId, watch);
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            // 다음 주기에 다시 시도
+            dirty.addAll(itemIds);
+            log.warning("재고 알림 전송 실패: " + e.getMessage());
+        }
+    }
+
+    // 이벤트는 한 번만 만들어 모든 구독자가 같은 배열을 공유
+    private void publish(Long itemId, ItemWatch watch) {
+        byte[] event = event(itemId, watch.stock);
+        for (StreamConnection subscriber : watch.subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    private byte[] event(Long itemId, int stock) {
+        try {
+            return StreamConnection.sseEvent("stock", null,
+                    objectMapper.writeValueAsBytes(new ItemStockDto(itemId, stock)));
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void unwatch(Long itemId, StreamConnection connection) {
+        watches.computeIfPresent(itemId, (id, watch) -> {
+            watch.subscribers.remove(connection);
+            return watch.subscribers.isEmpty() ? null : watch;
+        });
+    }
+
+    private void expireBlocked() {
+        long now = System.nanoTime();
+        for (ItemWatch watch : watches.values()) {
+            for (StreamConnection subscriber : watch.subscribers) {
+                subscriber.expireIfBlocked(now);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (ItemWatch watch : watches.values()) {
+            for (StreamConnection subscriber : watch.subscribers) {
+                subscriber.close(null);
+            }
+        }
+    }
+
+    private static class ItemWatch {
+        // 전송은 락 없이 순회 (약한 일관성)
+        private final Set<StreamConnection> subscribers = ConcurrentHashMap.newKeySet();
+        private volatile Integer stock;
+        private long version;
+
+        // 요청 스레드의 조회와 전송 스레드의 조회가 겹쳐도 먼저 시작한(오래된) 결과가 나중 결과를 덮지 않음
+        synchronized boolean update(Integer newStock, long newVersion) {
+            if (newVersion <= version) {
+                return false;
+            }
+            version = newVersion;
+            stock = newStock;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.shop.service;
+
+import lombok.Getter;
+
+// 주문/주문 취소/상품 수정으로 재고가 바뀌었을 때 발행 (커밋 후 StockBroadcaster 가 수집)
+@Getter
+public class StockChangedEvent {
+    private final Long itemId;
+
+    public StockChangedEvent(Long itemId) {
+        this.itemId = itemId;
+    }
+}
@@ -0,0 +1,247 @@
+package com.shop.service;
+
+import lombok.extern.java.Log;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// 스트리밍 응답(SSE, NDJSON) 하나와 그 연결 전용 전송 대기열
+// 서블릿 비동기 + 논블로킹 출력(WriteListener)을 사용해 소켓이 받을 수 있을 때(isReady)만 쓰고,
+// 받을 수 없으면 대기열에 남겨 두었다가 컨테이너가 onWritePossible 을 부를 때 이어서 씀
+// -> 연결마다 스레드를 점유하지 않고, 느린 클라이언트의 write 에서 다른 연결의 전송이 멈추지 않음
+// 대기열이 maxPending 개를 넘거나 sendTimeoutMillis 동안 소켓에 쓰지 못하면 따라오지 못하는 클라이언트로 보고 연결을 끊음
+@Log
+class StreamConnection implements WriteListener, AsyncListener {
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream out;
+    private final int maxPending;
+    private final long sendTimeoutNanos;
+    // 연결이 끝났을 때 구독자 목록에서 제거
+    private final Consumer<StreamConnection> onClose;
+
+    private final Queue<byte[]> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    // 대기열을 다 보냈을 때 한 번 실행 (다음 데이터를 만드는 쪽이 등록)
+    private final AtomicReference<Runnable> drained = new AtomicReference<>();
+    // 소켓이 받지 못해 쓰기를 멈춘 시각 (멈추지 않았으면 0)
+    private volatile long blockedSince;
+    // 대기열을 다 보내면 응답을 끝냄
+    private volatile boolean finishing;
+
+    StreamConnection(AsyncContext asyncContext, ServletOutputStream out, int maxPending, long sendTimeoutMillis,
+                     Consumer<StreamConnection> onClose) {
+        this.asyncContext = asyncContext;
+        this.out = out;
+        this.maxPending = maxPending;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.onClose = onClose;
+    }
+
+    // 요청을 비동기로 전환하고 논블로킹 출력을 시작
+    // timeoutMillis 가 지나면 연결을 끝내므로 클라이언트(EventSource)가 다시 연결함
+    static StreamConnection open(HttpServletRequest request, HttpServletResponse response, MediaType contentType,
+                                 long timeoutMillis, int maxPending, long sendTimeoutMillis,
+                                 Consumer<StreamConnection> onClose) throws IOException {
+        response.setContentType(contentType.toString());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(timeoutMillis);
+        StreamConnection connection = new StreamConnection(asyncContext, response.getOutputStream(),
+                maxPending, sendTimeoutMillis, onClose);
+        connection.start();
+        return connection;
+    }
+
+    // 한 줄짜리 JSON 을 SSE 이벤트 하나로
+    static byte[] sseEvent(String name, String id, byte[] json) {
+        StringBuilder header = new StringBuilder("event:").append(name).append('\n');
+        if (id != null) {
+            header.append("id:").append(id).append('\n');
+        }
+        header.append("data:");
+        byte[] head = header.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] event = new byte[head.length + json.length + 2];
+        System.arraycopy(head, 0, event, 0, head.length);
+        System.arraycopy(json, 0, event, head.length, json.length);
+        event[event.length - 2] = '\n';
+        event[event.length - 1] = '\n';
+        return event;
+    }
+
+    void start() {
+        asyncContext.addListener(this);
+        // 컨테이너가 쓸 수 있게 되면 onWritePossible 을 부름
+        out.setWriteListener(this);
+    }
+
+    // data 는 여러 연결이 같은 배열을 공유하므로 넣은 뒤 고치지 않아야 함
+    // 연결이 끊겼거나 대기열이 넘쳐 끊었으면 false
+    boolean offer(byte[] data) {
+        if (closed.get()) {
+            return false;
+        }
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            close(new IllegalStateException("스트리밍 클라이언트가 데이터를 따라오지 못해 연결을 끊습니다."));
+            return false;
+        }
+        pending.add(data);
+        flush();
+        return true;
+    }
+
+    // 대기열을 모두 보낸 뒤 next 를 한 번 실행 (이미 비어 있으면 바로)
+    void whenDrained(Runnable next) {
+        drained.set(next);
+        flush();
+    }
+
+    // 남은 대기열을 보낸 뒤 응답을 끝냄
+    void finish() {
+        finishing = true;
+        flush();
+    }
+
+    // sendTimeoutMillis 동안 소켓에 쓰지 못한 연결을 끊음 (주기적으로 호출)
+    boolean expireIfBlocked(long nowNanos) {
+        long since = blockedSince;
+        if (since != 0 && nowNanos - since > sendTimeoutNanos && !closed.get()) {
+            close(new TimeoutException("스트리밍 클라이언트가 " + TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos)
+                    + "ms 동안 데이터를 받지 않아 연결을 끊습니다."));
+            return true;
+        }
+        return false;
+    }
+
+    int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    void close(Throwable cause) {
+        if (markClosed()) {
+            if (cause != null) {
+                log.fine("스트리밍 연결 종료: " + cause.getMessage());
+            }
+            try {
+                asyncContext.complete();
+            }
+            catch (IllegalStateException e) {
+                // 이미 끝난 요청
+            }
+        }
+    }
+
+    @Override
+    public void onWritePossible() {
+        flush();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        close(t);
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        markClosed();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        close(event.getThrowable());
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        close(event.getThrowable());
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+
+    // isReady 가 false 이면 더 쓰지 않고 돌아감 (컨테이너가 나중에 onWritePossible 로 다시 부름)
+    // offer 하는 스레드와 컨테이너 스레드가 동시에 부를 수 있으므로 한 번에 하나만 씀 (쓰기는 막히지 않으므로 잠금은 짧음)
+    private void flush() {
+        Runnable next = null;
+        synchronized (this) {
+            if (closed.get()) {
+                return;
+            }
+            try {
+                boolean wrote = false;
+                byte[] data;
+                while (out.isReady()) {
+                    if ((data = pending.poll()) == null) {
+                        if (wrote) {
+                            out.flush();
+                        }
+                        break;
+                    }
+                    pendingCount.decrementAndGet();
+                    out.write(data);
+                    wrote = true;
+                }
+                if (!out.isReady()) {
+                    if (blockedSince == 0) {
+                        blockedSince = System.nanoTime();
+                    }
+                    return;
+                }
+                blockedSince = 0;
+            }
+            catch (IOException | IllegalStateException e) {
+                close(e);
+                return;
+            }
+
+            if (pending.isEmpty()) {
+                if (finishing) {
+                    close(null);
+                    return;
+                }
+                next = drained.getAndSet(null);
+            }
+        }
+        if (next != null) {
+            next.run();
+        }
+    }
+
+    // 처음 닫을 때만 true
+    private boolean markClosed() {
+        if (!closed.compareAndSet(false, true)) {
+            return false;
+        }
+        pending.clear();
+        pendingCount.set(0);
+        onClose.accept(this);
+        return true;
+    }
+}
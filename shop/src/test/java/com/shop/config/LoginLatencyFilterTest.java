@@ -0,0 +1,47 @@
+package com.shop.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoginLatencyFilterTest {
+
+    LoginLatencyFilter loginLatencyFilter = new LoginLatencyFilter();
+
+    @Test
+    @DisplayName("로그인 요청 전체 소요 시간 기록 테스트")
+    public void recordWholeRequest() throws Exception {
+        // 뒤의 필터/서블릿(회원 조회, 비밀번호 검증, 리다이렉트)에서 걸린 시간까지 포함
+        HttpServlet slowLogin = new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest request, HttpServletResponse response) {
+                try {
+                    Thread.sleep(50);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                response.setStatus(HttpServletResponse.SC_FOUND);
+            }
+        };
+
+        MockHttpServletRequest login = new MockHttpServletRequest("POST", "/members/login");
+        loginLatencyFilter.doFilter(login, new MockHttpServletResponse(), new MockFilterChain(slowLogin));
+
+        // 로그인 화면 조회는 기록하지 않음
+        MockHttpServletRequest loginPage = new MockHttpServletRequest("GET", "/members/login");
+        loginLatencyFilter.doFilter(loginPage, new MockHttpServletResponse(), new MockFilterChain(slowLogin));
+
+        assertEquals(1L, loginLatencyFilter.getStats().get("logins"));
+        assertTrue((Double) loginLatencyFilter.getStats().get("loginP50Ms") >= 50.0);
+    }
+}
@@ -0,0 +1,68 @@
+package com.shop.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoginPasswordEncoderTest {
+
+    LoginPasswordEncoder passwordEncoder = new LoginPasswordEncoder(5, 2, 8, 3000, 30000, 100);
+
+    @AfterEach
+    void shutdown() {
+        passwordEncoder.shutdown();
+    }
+
+    @Test
+    @DisplayName("비밀번호 검증 결과 캐시 테스트")
+    public void cachedVerification() {
+        String encoded = passwordEncoder.encode("1234");
+
+        assertTrue(passwordEncoder.matches("1234", encoded));
+        assertTrue(passwordEncoder.matches("1234", encoded));
+        assertFalse(passwordEncoder.matches("4321", encoded));
+
+        assertEquals(1L, passwordEncoder.getStats().get("cacheHits"));
+        assertEquals(2L, passwordEncoder.getStats().get("hashes"));
+    }
+
+    @Test
+    @DisplayName("검증 결과 캐시가 가득 차면 가장 오래 안 쓴 항목만 제거 테스트")
+    public void lruVerificationCache() {
+        LoginPasswordEncoder smallCache = new LoginPasswordEncoder(4, 1, 8, 3000, 30000, 2);
+        try {
+            String first = smallCache.encode("first");
+            String second = smallCache.encode("second");
+            String third = smallCache.encode("third");
+
+            assertTrue(smallCache.matches("first", first));
+            assertTrue(smallCache.matches("second", second));
+            // first 를 다시 써서 second 가 가장 오래 안 쓴 항목이 됨
+            assertTrue(smallCache.matches("first", first));
+            assertTrue(smallCache.matches("third", third));
+
+            assertTrue(smallCache.matches("first", first));
+            assertTrue(smallCache.matches("third", third));
+            assertEquals(3L, smallCache.getStats().get("cacheHits"));
+            assertTrue(smallCache.matches("second", second));
+            assertEquals(4L, smallCache.getStats().get("hashes"));
+        }
+        finally {
+            smallCache.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("낮은 cost 해시 업그레이드 테스트")
+    public void upgradeEncoding() {
+        String weak = new BCryptPasswordEncoder(4).encode("1234");
+
+        assertTrue(passwordEncoder.upgradeEncoding(weak));
+        assertFalse(passwordEncoder.upgradeEncoding(passwordEncoder.encode("1234")));
+    }
+}
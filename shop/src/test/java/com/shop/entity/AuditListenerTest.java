@@ -0,0 +1,90 @@
+package com.shop.entity;
+
+import com.shop.constant.ItemSellStatus;
+import com.shop.repository.ItemRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+public class AuditListenerTest {
+    @Autowired
+    ItemRepository itemRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    @DisplayName("10,000건 일괄 저장 감사 필드 벤치마크")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void batchInsertAuditing() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            Item item = new Item();
+            item.setItemNm("테스트 상품" + i);
+            item.setPrice(10000 + i);
+            item.setItemDetail("테스트 상품 상세 설명" + i);
+            item.setItemSellStatus(ItemSellStatus.SELL);
+            item.setStockNumber(100);
+            items.add(item);
+        }
+
+        long start = System.nanoTime();
+        itemRepository.saveAll(items);
+        em.flush();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("10,000건 저장 + flush : " + elapsedMs + "ms");
+
+        em.clear();
+        Item first = itemRepository.findById(items.get(0).getId()).orElseThrow();
+        Item last = itemRepository.findById(items.get(items.size() - 1).getId()).orElseThrow();
+
+        for (Item item : List.of(first, last)) {
+            assertEquals("admin", item.getCreatedBy());
+            assertEquals("admin", item.getModifiedBy());
+            assertNotNull(item.getRegTime());
+            assertEquals(item.getRegTime(), item.getUpdateTime());
+        }
+    }
+
+    @Test
+    @DisplayName("수정 시 수정자/수정 시간만 갱신 테스트")
+    @WithMockUser(username = "manager", roles = "ADMIN")
+    public void updateAuditing() throws Exception {
+        Item item = new Item();
+        item.setItemNm("테스트 상품");
+        item.setPrice(10000);
+        item.setItemDetail("테스트 상품 상세 설명");
+        item.setItemSellStatus(ItemSellStatus.SELL);
+        item.setStockNumber(100);
+        itemRepository.save(item);
+        em.flush();
+        LocalDateTime regTime = item.getRegTime();
+
+        Thread.sleep(10);
+        item.setPrice(20000);
+        em.flush();
+        assertEquals(regTime, item.getRegTime());
+        assertTrue(item.getUpdateTime().isAfter(regTime));
+        em.clear();
+
+        Item updated = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals("manager", updated.getCreatedBy());
+        assertEquals("manager", updated.getModifiedBy());
+        assertNotNull(updated.getUpdateTime());
+    }
+}
@@ -12,6 +12,8 @@ import javax.persistence.EntityExistsException;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 @SpringBootTest
 @Transactional
 public class MemberTest {
@@ -38,5 +40,8 @@ public class MemberTest {
         System.out.println("update Time : " + member.getUpdateTime());
         System.out.println("create member : " + member.getCreatedBy());
         System.out.println("modify member : " + member.getModifiedBy());
+
+        assertEquals("nobi", member.getCreatedBy());
+        assertEquals("nobi", member.getModifiedBy());
     }
 }
@@ -0,0 +1,137 @@
+package com.shop.service;
+
+import com.shop.constant.ItemSellStatus;
+import com.shop.dto.ItemFormDto;
+import com.shop.entity.Item;
+import com.shop.entity.ItemImg;
+import com.shop.repository.ItemImgRepository;
+import com.shop.repository.ItemRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.thymeleaf.ITemplateEngine;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+@Transactional
+public class ItemDtlCacheTest {
+
+    @Autowired
+    ItemDtlCache itemDtlCache;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    ItemImgService itemImgService;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    ItemImgRepository itemImgRepository;
+
+    public Item saveItem() {
+        Item item = new Item();
+        item.setItemNm("테스트 상품");
+        item.setPrice(10000);
+        item.setItemDetail("테스트 상품 상세 설명");
+        item.setItemSellStatus(ItemSellStatus.SELL);
+        item.setStockNumber(100);
+        itemRepository.save(item);
+
+        ItemImg itemImg = new ItemImg();
+        itemImg.setItem(item);
+        itemImg.setRepimgYn("Y");
+        itemImg.updateItemImg("image.jpg", "image.jpg", "/images/item/image.jpg");
+        itemImgRepository.save(itemImg);
+        return item;
+    }
+
+    @Test
+    @DisplayName("상품 상세 조각 캐시 테스트")
+    public void cachedFragment() {
+        Item item = saveItem();
+
+        ItemDtlCache.Entry first = itemDtlCache.get(item.getId(), itemService::getItemDtl);
+        ItemDtlCache.Entry second = itemDtlCache.get(item.getId(), itemService::getItemDtl);
+
+        assertSame(first, second);
+        assertTrue(first.getHtml().contains("테스트 상품 상세 설명"));
+    }
+
+    @Test
+    @DisplayName("상품 상세 조각 캐시 크기 제한 / 조회 중 제거 테스트")
+    public void boundedAndStamped() {
+        ItemDtlCache cache = new ItemDtlCache(mock(ITemplateEngine.class), 2);
+
+        ItemDtlCache.Entry first = cache.get(1L, this::itemFormDto);
+        cache.get(2L, this::itemFormDto);
+        cache.get(3L, this::itemFormDto);
+        assertEquals(2, cache.getStats().get("size"));
+        // 가장 오래 안 쓴 1번이 빠져 다시 조회
+        assertNotSame(first, cache.get(1L, this::itemFormDto));
+
+        // 조회하는 사이 다른 요청에서 상품이 수정되어 제거되면 저장하지 않음
+        ItemDtlCache.Entry stale = cache.get(4L, itemId -> {
+            CompletableFuture.runAsync(() -> cache.evict(itemId)).join();
+            return itemFormDto(itemId);
+        });
+        assertNotSame(stale, cache.get(4L, this::itemFormDto));
+        assertEquals(1L, cache.getStats().get("skippedPuts"));
+
+        // 같은 상품 버전이라도 사용자나 CSRF 토큰(세션)이 바뀌면 ETag 가 다름
+        ItemDtlCache.Entry cached = cache.get(4L, this::itemFormDto);
+        assertEquals(cached.getETag("user:token"), cache.get(4L, this::itemFormDto).getETag("user:token"));
+        assertNotEquals(cached.getETag("user:token"), cached.getETag(":token"));
+        assertNotEquals(cached.getETag("user:token"), cached.getETag("user:other-token"));
+    }
+
+    @Test
+    @DisplayName("상품 / 상품 이미지 수정 후 ETag 변경 테스트")
+    public void eTagChangesOnUpdate() throws Exception {
+        Item item = saveItem();
+        Long itemImgId = itemImgRepository.findByItemIdOrderByIdAsc(item.getId()).get(0).getId();
+        String viewer = "user:token";
+        String original = itemDtlCache.get(item.getId(), itemService::getItemDtl).getETag(viewer);
+
+        ItemFormDto itemFormDto = itemService.getItemDtl(item.getId());
+        itemFormDto.setItemNm("수정된 상품");
+        itemService.updateItem(itemFormDto, Collections.emptyList());
+        runAfterCommit();
+        String updated = itemDtlCache.get(item.getId(), itemService::getItemDtl).getETag(viewer);
+        assertNotEquals(original, updated);
+        assertEquals(updated, itemDtlCache.get(item.getId(), itemService::getItemDtl).getETag(viewer));
+
+        itemImgService.updateItemImg(itemImgId,
+                new MockMultipartFile("itemImgFile", "new.jpg", "image/jpg", new byte[]{1, 2, 3, 4}));
+        runAfterCommit();
+        assertNotEquals(updated, itemDtlCache.get(item.getId(), itemService::getItemDtl).getETag(viewer));
+    }
+
+    // 테스트 트랜잭션은 롤백되므로 커밋 후 콜백(캐시 제거)만 직접 실행
+    private void runAfterCommit() {
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+    }
+
+    private ItemFormDto itemFormDto(Long itemId) {
+        ItemFormDto itemFormDto = new ItemFormDto();
+        itemFormDto.setId(itemId);
+        itemFormDto.setItemNm("테스트 상품 " + itemId);
+        return itemFormDto;
+    }
+}
@@ -0,0 +1,96 @@
+package com.shop.service;
+
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// StreamConnection 테스트용 논블로킹 출력
+// 쓴 내용을 모아 두고, ready 로 소켓이 받을 수 있는지(isReady)를 흉내 냄 (받을 수 없을 때 쓰면 컨테이너처럼 예외)
+class RecordingOutputStream extends ServletOutputStream {
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private volatile boolean ready = true;
+    private volatile WriteListener listener;
+
+    static StreamConnection connect(RecordingOutputStream out, int maxPending, long sendTimeoutMillis,
+                                    Consumer<StreamConnection> onClose) {
+        MockAsyncContext asyncContext = new MockAsyncContext(new MockHttpServletRequest(), new MockHttpServletResponse());
+        StreamConnection connection = new StreamConnection(asyncContext, out, maxPending, sendTimeoutMillis, onClose);
+        connection.start();
+        return connection;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    // 다시 받을 수 있게 되면 컨테이너처럼 onWritePossible 을 부름
+    void setReady(boolean ready) {
+        this.ready = ready;
+        if (ready && listener != null) {
+            writePossible();
+        }
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+        listener = writeListener;
+        if (ready) {
+            writePossible();
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        checkReady();
+        bytes.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        checkReady();
+        bytes.write(b, off, len);
+    }
+
+    String written() {
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    // SSE 이벤트마다 data 부분
+    List<String> eventData() {
+        List<String> result = new ArrayList<>();
+        for (String event : written().split("\n\n")) {
+            for (String line : event.split("\n")) {
+                if (line.startsWith("data:")) {
+                    result.add(line.substring("data:".length()));
+                }
+            }
+        }
+        return result;
+    }
+
+    private void writePossible() {
+        try {
+            listener.onWritePossible();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkReady() {
+        if (!ready) {
+            throw new IllegalStateException("isReady 가 false 일 때 쓸 수 없습니다.");
+        }
+    }
+}
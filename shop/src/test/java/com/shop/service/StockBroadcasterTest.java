@@ -0,0 +1,90 @@
+package com.shop.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.constant.ItemSellStatus;
+import com.shop.entity.Item;
+import com.shop.repository.ItemRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+public class StockBroadcasterTest {
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    public Item saveItem() {
+        Item item = new Item();
+        item.setItemNm("테스트 상품");
+        item.setPrice(10000);
+        item.setItemDetail("테스트 상품 상세 설명");
+        item.setItemSellStatus(ItemSellStatus.SELL);
+        item.setStockNumber(100);
+        return itemRepository.saveAndFlush(item);
+    }
+
+    @Test
+    @DisplayName("재고 변경 모아서 전송 테스트")
+    public void coalescedFlush() throws Exception {
+        Item item = saveItem();
+        // 주기적인 전송이 테스트 중에 끼어들지 않도록 주기를 길게 잡고 flush 를 직접 호출
+        StockBroadcaster stockBroadcaster = new StockBroadcaster(itemRepository, objectMapper,
+                3_600_000, 600_000, 100, 10_000);
+        List<StreamConnection> connections = new ArrayList<>();
+        List<RecordingOutputStream> outs = new ArrayList<>();
+        try {
+            // 보는 사람이 없는 상품은 스냅샷을 남기지 않음
+            assertEquals(100, stockBroadcaster.getStock(item.getId()));
+            assertEquals(0, stockBroadcaster.getWatchedItemCount());
+
+            for (int i = 0; i < 5000; i++) {
+                RecordingOutputStream out = new RecordingOutputStream();
+                StreamConnection connection = RecordingOutputStream.connect(out, 100, 10_000,
+                        closed -> stockBroadcaster.unwatch(item.getId(), closed));
+                stockBroadcaster.watch(item.getId(), connection);
+                outs.add(out);
+                connections.add(connection);
+            }
+            assertEquals(5000, stockBroadcaster.getWatcherCount(item.getId()));
+            assertEquals(1, stockBroadcaster.getWatchedItemCount());
+
+            // 같은 주기 안의 여러 번의 변경은 한 번의 조회/전송으로 합쳐짐
+            item.removeStock(10);
+            item.removeStock(20);
+            itemRepository.flush();
+            stockBroadcaster.onStockChanged(new StockChangedEvent(item.getId()));
+            stockBroadcaster.onStockChanged(new StockChangedEvent(item.getId()));
+            stockBroadcaster.flush();
+            // 바뀐 것이 없으면 보내지 않음
+            stockBroadcaster.flush();
+
+            // 구독 직후 한 번(100) + 합쳐진 변경 한 번(70)
+            for (RecordingOutputStream out : outs) {
+                List<String> events = out.eventData();
+                assertEquals(2, events.size());
+                assertEquals(100, objectMapper.readTree(events.get(0)).get("stockNumber").asInt());
+                assertEquals(70, objectMapper.readTree(events.get(1)).get("stockNumber").asInt());
+            }
+            assertEquals(70, stockBroadcaster.getStock(item.getId()));
+        }
+        finally {
+            for (StreamConnection connection : connections) {
+                connection.close(null);
+            }
+            stockBroadcaster.shutdown();
+        }
+        // 마지막 구독자가 끊기면 스냅샷도 제거
+        assertEquals(0, stockBroadcaster.getWatchedItemCount());
+    }
+}
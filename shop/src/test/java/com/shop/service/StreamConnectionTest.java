@@ -0,0 +1,110 @@
+package com.shop.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StreamConnectionTest {
+
+    @Test
+    @DisplayName("받지 못하는 클라이언트가 다른 연결의 전송을 막지 않고, 대기열이 넘치면 끊김 테스트")
+    public void slowClient() {
+        Set<StreamConnection> connections = ConcurrentHashMap.newKeySet();
+        RecordingOutputStream slowOut = new RecordingOutputStream();
+        RecordingOutputStream fastOut = new RecordingOutputStream();
+        slowOut.setReady(false);
+        StreamConnection slow = RecordingOutputStream.connect(slowOut, 10, 10_000, connections::remove);
+        StreamConnection fast = RecordingOutputStream.connect(fastOut, 10, 10_000, connections::remove);
+        connections.add(slow);
+        connections.add(fast);
+
+        // 같은 스레드에서 넣어도 slow 는 대기열에만 쌓이고 fast 는 바로 쓰임
+        for (int i = 0; i < 10; i++) {
+            byte[] event = event(i);
+            assertTrue(slow.offer(event));
+            assertTrue(fast.offer(event));
+        }
+        assertEquals(10, fastOut.eventData().size());
+        assertEquals(0, fast.getPendingCount());
+        assertEquals("", slowOut.written());
+        assertEquals(10, slow.getPendingCount());
+
+        // 대기열(10개)이 넘치면 이벤트를 버리지 않고 연결을 끊음
+        assertFalse(slow.offer(event(10)));
+        assertTrue(slow.isClosed());
+        assertEquals(Set.of(fast), connections);
+        assertTrue(fast.offer(event(10)));
+        assertEquals(11, fastOut.eventData().size());
+    }
+
+    @Test
+    @DisplayName("소켓이 다시 받을 수 있게 되면 쌓인 순서대로 전송 테스트")
+    public void resumeWhenWritable() {
+        RecordingOutputStream out = new RecordingOutputStream();
+        out.setReady(false);
+        StreamConnection connection = RecordingOutputStream.connect(out, 10, 10_000, closed -> { });
+        for (int i = 0; i < 3; i++) {
+            connection.offer(event(i));
+        }
+        assertEquals(3, connection.getPendingCount());
+
+        out.setReady(true);
+        assertEquals(List.of("0", "1", "2"), out.eventData());
+        assertEquals(0, connection.getPendingCount());
+        assertFalse(connection.expireIfBlocked(System.nanoTime() + TimeUnit.HOURS.toNanos(1)));
+    }
+
+    @Test
+    @DisplayName("전송 제한 시간 동안 받지 않는 클라이언트 끊김 테스트")
+    public void sendTimeout() {
+        AtomicInteger closedCount = new AtomicInteger();
+        RecordingOutputStream out = new RecordingOutputStream();
+        StreamConnection connection = RecordingOutputStream.connect(out, 10, 1_000, closed -> closedCount.incrementAndGet());
+        out.setReady(false);
+        connection.offer(event(0));
+
+        assertFalse(connection.expireIfBlocked(System.nanoTime()));
+        assertTrue(connection.expireIfBlocked(System.nanoTime() + TimeUnit.SECONDS.toNanos(2)));
+        assertTrue(connection.isClosed());
+        assertEquals(1, closedCount.get());
+        assertFalse(connection.offer(event(1)));
+    }
+
+    @Test
+    @DisplayName("대기열을 다 보내면 다음 데이터 요청, finish 후 종료 테스트")
+    public void drainAndFinish() {
+        RecordingOutputStream out = new RecordingOutputStream();
+        StreamConnection connection = RecordingOutputStream.connect(out, 10, 10_000, closed -> { });
+        AtomicInteger requested = new AtomicInteger();
+
+        out.setReady(false);
+        connection.offer("a\n".getBytes(StandardCharsets.UTF_8));
+        connection.whenDrained(requested::incrementAndGet);
+        assertEquals(0, requested.get());
+
+        out.setReady(true);
+        assertEquals(1, requested.get());
+        // 한 번만 실행
+        out.setReady(true);
+        assertEquals(1, requested.get());
+
+        connection.offer("b\n".getBytes(StandardCharsets.UTF_8));
+        connection.finish();
+        assertTrue(connection.isClosed());
+        assertEquals("a\nb\n", out.written());
+    }
+
+    private static byte[] event(int i) {
+        return StreamConnection.sseEvent("test", null, String.valueOf(i).getBytes(StandardCharsets.UTF_8));
+    }
+}